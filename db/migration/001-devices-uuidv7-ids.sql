@@ -0,0 +1,23 @@
+-- Rewrites the random version 4 ids of existing devices as time-ordered version 7 ids and rebuilds the
+-- clustered index in that order. New devices get version 7 ids from the application either way, so this is
+-- only worth running on a large table, and only while nothing outside the database holds on to device ids.
+--
+-- The timestamp part is taken from creation_time, so the new ids follow the existing creation order.
+-- Run it with the application stopped.
+
+START TRANSACTION;
+
+UPDATE devices
+SET id = UNHEX(CONCAT(
+        -- 48 bits of Unix epoch milliseconds
+        LPAD(HEX(FLOOR(UNIX_TIMESTAMP(COALESCE(creation_time, NOW(6))) * 1000)), 12, '0'),
+        -- version 7 and 12 random bits
+        '7', SUBSTR(HEX(RANDOM_BYTES(2)), 2, 3),
+        -- RFC 9562 variant and 62 random bits
+        HEX((ASCII(RANDOM_BYTES(1)) & 0x3F) | 0x80), HEX(RANDOM_BYTES(7))))
+WHERE (ASCII(SUBSTR(id, 7, 1)) >> 4) <> 7;
+
+COMMIT;
+
+-- Rebuilds the table so pages are filled in key order again
+OPTIMIZE TABLE devices;
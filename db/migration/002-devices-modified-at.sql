@@ -0,0 +1,21 @@
+-- Adds the modification time the delta sync reads changes by, and the tombstones it reports deleted devices
+-- from. Hibernate adds both on startup as well, but then every existing device gets the time of the upgrade as
+-- its modification time and the index is built while the application serves requests. On a large table run
+-- this first, with the application stopped.
+
+ALTER TABLE devices
+    ADD COLUMN modified_at DATETIME(6) NOT NULL DEFAULT (UTC_TIMESTAMP(6));
+
+-- Existing devices count as modified when they were created, a first delta sync returns them either way
+UPDATE devices
+SET modified_at = creation_time
+WHERE creation_time IS NOT NULL;
+
+CREATE INDEX idx_devices_modified_at ON devices (modified_at);
+
+CREATE TABLE device_tombstones
+(
+    id         BINARY(16)  NOT NULL PRIMARY KEY,
+    deleted_at DATETIME(6) NOT NULL,
+    INDEX idx_device_tombstones_deleted_at (deleted_at)
+);
@@ -0,0 +1,33 @@
+-- Moves the brands into a lookup table the devices refer to by id. Brands differing in case only become one
+-- brand, spelled as the alphabetically first of their spellings. Hibernate cannot do this on startup: it would add
+-- brand_id without filling it and keep the old brand column, which new devices leave empty. Run this first, with
+-- the application stopped.
+
+CREATE TABLE brands
+(
+    id       INT          NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name     VARCHAR(255) NOT NULL,
+    name_key VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_brands_name_key UNIQUE (name_key)
+);
+
+INSERT INTO brands (name, name_key)
+SELECT MIN(brand), LOWER(brand)
+FROM devices
+GROUP BY LOWER(brand);
+
+ALTER TABLE devices
+    ADD COLUMN brand_id INT NULL;
+
+UPDATE devices d
+    JOIN brands b ON b.name_key = LOWER(d.brand)
+SET d.brand_id = b.id;
+
+ALTER TABLE devices
+    DROP INDEX idx_devices_brand_state_creation_time,
+    DROP INDEX idx_devices_brand_creation_time,
+    DROP COLUMN brand,
+    MODIFY COLUMN brand_id INT NOT NULL,
+    ADD INDEX idx_devices_brand_state_creation_time (brand_id, state, creation_time),
+    ADD INDEX idx_devices_brand_creation_time (brand_id, creation_time),
+    ADD CONSTRAINT fk_devices_brand FOREIGN KEY (brand_id) REFERENCES brands (id);
@@ -0,0 +1,5 @@
+-- Adds the index the retention purge finds the INACTIVE devices by, least recently modified first. Hibernate adds
+-- it on startup as well, but then builds it while the application serves requests. On a large table run this
+-- first.
+
+CREATE INDEX idx_devices_state_modified_at ON devices (state, modified_at);
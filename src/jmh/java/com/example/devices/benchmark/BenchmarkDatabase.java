@@ -0,0 +1,33 @@
+package com.example.devices.benchmark;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Connection settings of the database benchmarks, by default the MySQL started from {@code compose.yaml}.
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {}
+
+    static Connection connect() throws SQLException {
+        var url = System.getProperty("devices.benchmark.jdbc-url", "jdbc:mysql://localhost:3306/mydatabase");
+        var separator = url.contains("?") ? "&" : "?";
+        return DriverManager.getConnection(url + separator + "rewriteBatchedStatements=true",
+                System.getProperty("devices.benchmark.username", "myuser"),
+                System.getProperty("devices.benchmark.password", "secret"));
+    }
+
+    /**
+     * Same layout Hibernate uses for UUID columns on MySQL: most significant bits first, BINARY(16).
+     */
+    static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
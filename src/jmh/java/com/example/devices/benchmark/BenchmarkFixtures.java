@@ -0,0 +1,57 @@
+package com.example.devices.benchmark;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.id.UuidV7;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Test data and objects configured the way the application configures them, shared by the in-memory benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * Same modules and date format as the ObjectMapper Spring Boot builds for the application.
+     */
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static Device device(int i) {
+        return Device.builder()
+                .id(UuidV7.next())
+                .name("device-" + i)
+                .brand("brand-" + i % 20)
+                .state(State.values()[i % State.values().length])
+                .creationTime(Instant.now())
+                .modifiedAt(Device.modificationTime())
+                .version(0L)
+                .build();
+    }
+
+    static DeviceDto deviceDto(int i) {
+        return DeviceDto.builder()
+                .id(UuidV7.next())
+                .name("device-" + i)
+                .brand("brand-" + i % 20)
+                .state(State.values()[i % State.values().length])
+                .creationTime(Instant.now())
+                .build();
+    }
+
+    static List<DeviceDto> deviceDtos(int size) {
+        return IntStream.range(0, size).mapToObj(BenchmarkFixtures::deviceDto).toList();
+    }
+}
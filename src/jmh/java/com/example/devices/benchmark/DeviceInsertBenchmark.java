@@ -0,0 +1,97 @@
+package com.example.devices.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Device inserts per second with one transaction per device, the way {@code POST /api/devices} writes,
+ * against JDBC batches of growing size, the way {@code POST /api/devices/batch} writes.
+ * Needs the MySQL from {@code compose.yaml}, see {@code build.gradle} for the connection properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DeviceInsertBenchmark {
+
+    private static final int DEVICES_PER_INVOCATION = 1000;
+    private static final String TABLE = "devices_insert_benchmark";
+
+    @Param({"1", "50", "500", "1000"})
+    private int batchSize;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void connect() throws SQLException {
+        connection = BenchmarkDatabase.connect();
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                    "id BINARY(16) NOT NULL PRIMARY KEY, " +
+                    "device_name VARCHAR(255) NOT NULL, " +
+                    "brand VARCHAR(255) NOT NULL, " +
+                    "state VARCHAR(255) NOT NULL, " +
+                    "creation_time DATETIME(6))");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE " + TABLE);
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEVICES_PER_INVOCATION)
+    public void insertDevices() throws SQLException {
+        try (var insert = connection.prepareStatement("INSERT INTO " + TABLE +
+                " (id, device_name, brand, state, creation_time) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= DEVICES_PER_INVOCATION; i++) {
+                insert.setBytes(1, BenchmarkDatabase.toBytes(UUID.randomUUID()));
+                insert.setString(2, "device-" + i);
+                insert.setString(3, "nokia");
+                insert.setString(4, "AVAILABLE");
+                insert.setTimestamp(5, Timestamp.from(Instant.now()));
+                if (batchSize == 1) {
+                    insert.executeUpdate();
+                    connection.commit();
+                } else {
+                    insert.addBatch();
+                    if (i % batchSize == 0 || i == DEVICES_PER_INVOCATION) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.devices.benchmark;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DevicesDto;
+import com.example.devices.json.DeviceJsonWriter;
+import com.example.devices.mapper.DeviceMapper;
+import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.pagination.DevicePage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson serialization of a single device and of device list pages of growing size. For list pages it also compares
+ * mapping entities to DTOs before Jackson with {@link DeviceJsonWriter}, which writes the entities directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceJsonBenchmark {
+
+    @Param({"1", "100", "1000", "10000"})
+    private int listSize;
+
+    private ObjectWriter deviceWriter;
+    private ObjectWriter devicesWriter;
+    private DeviceDto deviceDto;
+    private DevicesDto devicesDto;
+    private final DeviceMapper deviceMapper = new DeviceMapperImpl();
+    private DeviceJsonWriter deviceJsonWriter;
+    private DevicePage devicePage;
+
+    @Setup
+    public void setUp() {
+        var objectMapper = BenchmarkFixtures.objectMapper();
+        deviceWriter = objectMapper.writerFor(DeviceDto.class);
+        devicesWriter = objectMapper.writerFor(DevicesDto.class);
+        deviceDto = BenchmarkFixtures.deviceDto(1);
+        devicesDto = DevicesDto.builder().devices(BenchmarkFixtures.deviceDtos(listSize)).nextCursor("cursor").build();
+        deviceJsonWriter = new DeviceJsonWriter(objectMapper);
+        devicePage = new DevicePage(IntStream.range(0, listSize).mapToObj(BenchmarkFixtures::device).toList(), "cursor");
+    }
+
+    @Benchmark
+    public byte[] serializeDevice() throws JsonProcessingException {
+        return deviceWriter.writeValueAsBytes(deviceDto);
+    }
+
+    @Benchmark
+    public byte[] serializeDevices() throws JsonProcessingException {
+        return devicesWriter.writeValueAsBytes(devicesDto);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeDevicePage() throws JsonProcessingException {
+        return devicesWriter.writeValueAsBytes(DevicesDto.builder()
+                .devices(devicePage.devices().stream().map(deviceMapper::toDto).toList())
+                .nextCursor(devicePage.nextCursor())
+                .build());
+    }
+
+    @Benchmark
+    public byte[] writeDevicePage() {
+        return deviceJsonWriter.writeDevicePage(devicePage);
+    }
+}
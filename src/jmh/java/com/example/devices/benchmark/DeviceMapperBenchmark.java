@@ -0,0 +1,58 @@
+package com.example.devices.benchmark;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.entity.Device;
+import com.example.devices.mapper.DeviceMapper;
+import com.example.devices.mapper.DeviceMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MapStruct conversions every request goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceMapperBenchmark {
+
+    private final DeviceMapper deviceMapper = new DeviceMapperImpl();
+    private Device device;
+    private DeviceDto deviceDto;
+    private DeviceDto patch;
+
+    @Setup
+    public void setUp() {
+        device = BenchmarkFixtures.device(1);
+        deviceDto = BenchmarkFixtures.deviceDto(1);
+        patch = DeviceDto.builder().name("3310").build();
+    }
+
+    @Benchmark
+    public DeviceDto toDto() {
+        return deviceMapper.toDto(device);
+    }
+
+    @Benchmark
+    public Device toEntity() {
+        return deviceMapper.toEntity(deviceDto);
+    }
+
+    @Benchmark
+    public Device updateDeviceFromDto() {
+        deviceMapper.updateDeviceFromDto(patch, device);
+        return device;
+    }
+}
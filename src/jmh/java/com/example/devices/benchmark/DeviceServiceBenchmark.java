@@ -0,0 +1,118 @@
+package com.example.devices.benchmark;
+
+import com.example.devices.brand.BrandDictionary;
+import com.example.devices.cache.DeviceCacheLoader;
+import com.example.devices.config.BulkOperationProperties;
+import com.example.devices.config.CacheConfig;
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import com.example.devices.service.DeviceServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DeviceServiceImpl} without Spring proxies and without a database: the repository is an
+ * {@link InMemoryDeviceRepository}, brands are taken as registered and single reads are never cached, so this
+ * measures validation, mapping and event publishing of the single device operations only.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceServiceBenchmark {
+
+    private static final int DEVICES = 10_000;
+
+    private final Map<UUID, Device> devices = new ConcurrentHashMap<>();
+    private DeviceServiceImpl deviceService;
+    private UUID deviceId;
+    private DeviceDto newDevice;
+    private DeviceDto patch;
+
+    @Setup
+    public void setUp() {
+        deviceService = new DeviceServiceImpl(new InMemoryDeviceRepository(devices),
+                stub(DeviceTombstoneRepository.class), new DeviceMapperImpl(), new PaginationProperties(100, 1000),
+                stub(EntityManager.class),
+                Validation.buildDefaultValidatorFactory().getValidator(), new TransactionTemplate(),
+                new BulkOperationProperties(500, 10_000, 1000), event -> {},
+                new ConcurrentMapCacheManager(CacheConfig.DEVICES_CACHE), knownBrands(),
+                new DeviceCacheLoader(new NoOpCacheManager()));
+        for (int i = 0; i < DEVICES; i++) {
+            var device = BenchmarkFixtures.device(i);
+            device.setState(State.AVAILABLE);
+            devices.put(device.getId(), device);
+        }
+        deviceId = devices.keySet().iterator().next();
+        newDevice = DeviceDto.builder().name("5530").brand("nokia").state(State.AVAILABLE).build();
+        patch = DeviceDto.builder().name("3310").build();
+    }
+
+    @Benchmark
+    public DeviceDto getDeviceById() {
+        return deviceService.getDeviceById(deviceId);
+    }
+
+    @Benchmark
+    public DeviceDto createDevice() {
+        return deviceService.createDevice(newDevice);
+    }
+
+    @Benchmark
+    public DeviceDto patchDevice() {
+        return deviceService.patchDevice(deviceId, patch);
+    }
+
+    @Benchmark
+    public void checkOutAndReturn() {
+        deviceService.transitionDeviceState(deviceId, State.AVAILABLE, State.IN_USE);
+        deviceService.transitionDeviceState(deviceId, State.IN_USE, State.AVAILABLE);
+    }
+
+    /**
+     * Takes every brand as registered in the spelling given, without a brands table behind it.
+     */
+    private static BrandDictionary knownBrands() {
+        return new BrandDictionary(stub(DataSource.class)) {
+            @Override
+            public String register(String name) {
+                return name;
+            }
+
+            @Override
+            public Integer idOf(String name) {
+                return name == null ? null : 1;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> null);
+    }
+}
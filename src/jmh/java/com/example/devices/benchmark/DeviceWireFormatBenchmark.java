@@ -0,0 +1,88 @@
+package com.example.devices.benchmark;
+
+import com.example.devices.dto.DevicesDto;
+import com.example.devices.encoding.Compression;
+import com.example.devices.encoding.DeviceFormat;
+import com.example.devices.encoding.DevicePageEncoder;
+import com.example.devices.encoding.DeviceProtobufCodec;
+import com.example.devices.json.DeviceJsonWriter;
+import com.example.devices.pagination.DevicePage;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encoding and decoding a device list page in every {@link DeviceFormat}, and compressing the encoded page with
+ * gzip and zstd. Payload sizes do not vary between runs, they are printed once per trial next to the scores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceWireFormatBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int listSize;
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    private DeviceFormat format;
+
+    private DevicePageEncoder devicePageEncoder;
+    private DeviceProtobufCodec deviceProtobufCodec;
+    private ObjectReader devicesReader;
+    private DevicePage devicePage;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        var objectMapper = BenchmarkFixtures.objectMapper();
+        deviceProtobufCodec = new DeviceProtobufCodec();
+        devicePageEncoder = new DevicePageEncoder(new DeviceJsonWriter(objectMapper), deviceProtobufCodec);
+        devicesReader = switch (format) {
+            case CBOR -> CBORMapper.builder().findAndAddModules().build().readerFor(DevicesDto.class);
+            case SMILE -> SmileMapper.builder().findAndAddModules().build().readerFor(DevicesDto.class);
+            default -> objectMapper.readerFor(DevicesDto.class);
+        };
+        devicePage = new DevicePage(IntStream.range(0, listSize).mapToObj(BenchmarkFixtures::device).toList(), "cursor");
+        encoded = devicePageEncoder.encode(devicePage, format);
+        System.out.printf("%n%s, %d devices: %d bytes, gzip %d bytes, zstd %d bytes%n", format, listSize,
+                encoded.length, Compression.gzip(encoded).length, Compression.zstd(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return devicePageEncoder.encode(devicePage, format);
+    }
+
+    @Benchmark
+    public DevicesDto decode() throws IOException {
+        return format == DeviceFormat.PROTOBUF ? deviceProtobufCodec.decode(encoded) : devicesReader.readValue(encoded);
+    }
+
+    @Benchmark
+    public byte[] gzip() {
+        return Compression.gzip(encoded);
+    }
+
+    @Benchmark
+    public byte[] zstd() {
+        return Compression.zstd(encoded);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.devices.benchmark;
+
+import com.example.devices.dto.error.GeneralErrorResponse;
+import com.example.devices.exception.DeviceNotFoundException;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.exception.GlobalExceptionHandler;
+import com.example.devices.exception.IllegalDeviceStateException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error responses built for the common client errors, including creating the exception and its stack trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public ResponseEntity<GeneralErrorResponse> deviceNotFound() {
+        return globalExceptionHandler.resourceNotFoundException(
+                new DeviceNotFoundException(ErrorMessages.DEVICE_NOT_FOUND_MESSAGE));
+    }
+
+    @Benchmark
+    public ResponseEntity<GeneralErrorResponse> illegalDeviceState() {
+        return globalExceptionHandler.illegalDeviceStateException(
+                new IllegalDeviceStateException(ErrorMessages.CANNOT_DELETE_DEVICE_IN_USE_MESSAGE));
+    }
+}
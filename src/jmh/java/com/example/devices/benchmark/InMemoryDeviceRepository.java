@@ -0,0 +1,454 @@
+package com.example.devices.benchmark;
+
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.id.UuidV7;
+import com.example.devices.repository.DeviceCountView;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceSearchView;
+import com.example.devices.repository.DeviceStateView;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link DeviceRepository} over a map, answering the queries the way their JPQL does. New devices get an id but
+ * are not kept, so the map does not grow with every {@code createDevice} invocation. Sorting, paging, query by
+ * example and specifications need JPA and are not supported.
+ */
+final class InMemoryDeviceRepository implements DeviceRepository {
+
+    private static final Comparator<Device> CREATION_ORDER = Comparator.comparing(Device::getCreationTime)
+            .thenComparing(Device::getId);
+    private static final Comparator<Device> MODIFICATION_ORDER = Comparator.comparing(Device::getModifiedAt)
+            .thenComparing(Device::getId);
+
+    private final Map<UUID, Device> devices;
+
+    InMemoryDeviceRepository(Map<UUID, Device> devices) {
+        this.devices = devices;
+    }
+
+    @Override
+    public <S extends Device> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(UuidV7.next());
+            entity.setCreationTime(Instant.now());
+            entity.setModifiedAt(Device.modificationTime());
+            entity.setVersion(0L);
+        } else {
+            devices.put(entity.getId(), entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends Device> List<S> saveAll(Iterable<S> entities) {
+        return StreamSupport.stream(entities.spliterator(), false)
+                .map(this::save)
+                .toList();
+    }
+
+    @Override
+    public <S extends Device> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Device> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public Optional<Device> findById(UUID id) {
+        return Optional.ofNullable(devices.get(id));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return devices.containsKey(id);
+    }
+
+    @Override
+    public List<Device> findAll() {
+        return streamAll().toList();
+    }
+
+    @Override
+    public List<Device> findAllById(Iterable<UUID> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(devices::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public long count() {
+        return devices.size();
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        devices.remove(id);
+    }
+
+    @Override
+    public void delete(Device entity) {
+        devices.remove(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends UUID> ids) {
+        ids.forEach(devices::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Device> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        devices.clear();
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Device> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<UUID> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Deprecated
+    @Override
+    public Device getOne(UUID id) {
+        return getReferenceById(id);
+    }
+
+    @Deprecated
+    @Override
+    public Device getById(UUID id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Device getReferenceById(UUID id) {
+        return findById(id).orElseThrow();
+    }
+
+    @Override
+    public Stream<Device> streamAll() {
+        return inCreationOrder(device -> true);
+    }
+
+    @Override
+    public Stream<Device> streamByBrand(String brand) {
+        return inCreationOrder(device -> device.getBrand().equals(brand));
+    }
+
+    @Override
+    public Stream<Device> streamByState(State state) {
+        return inCreationOrder(device -> device.getState() == state);
+    }
+
+    @Override
+    public Stream<Device> streamByBrandAndState(String brand, State state) {
+        return inCreationOrder(device -> device.getBrand().equals(brand) && device.getState() == state);
+    }
+
+    @Override
+    public Stream<DeviceSearchView> streamSearchViews() {
+        return devices.values().stream()
+                .map(device -> new DeviceSearchView(device.getId(), device.getName(), device.getBrand()));
+    }
+
+    @Override
+    public List<DeviceStateView> lockTransitionCandidates(State targetState, Instant after, UUID afterId,
+                                                          Limit limit) {
+        return transitionCandidates(targetState, after, afterId, limit, device -> true);
+    }
+
+    @Override
+    public List<DeviceStateView> lockTransitionCandidatesByBrand(String brand, State targetState, Instant after,
+                                                                 UUID afterId, Limit limit) {
+        return transitionCandidates(targetState, after, afterId, limit, device -> device.getBrand().equals(brand));
+    }
+
+    @Override
+    public List<DeviceStateView> lockTransitionCandidatesByState(State state, State targetState, Instant after,
+                                                                 UUID afterId, Limit limit) {
+        return transitionCandidates(targetState, after, afterId, limit, device -> device.getState() == state);
+    }
+
+    @Override
+    public List<DeviceStateView> lockTransitionCandidatesByBrandAndState(String brand, State state,
+                                                                         State targetState, Instant after,
+                                                                         UUID afterId, Limit limit) {
+        return transitionCandidates(targetState, after, afterId, limit,
+                device -> device.getBrand().equals(brand) && device.getState() == state);
+    }
+
+    @Override
+    public List<DeviceStateView> lockTransitionCandidatesByIds(Collection<UUID> ids, State targetState) {
+        return transitionCandidates(ids, targetState, device -> true);
+    }
+
+    @Override
+    public List<DeviceStateView> lockTransitionCandidatesByIdsAndBrand(Collection<UUID> ids, String brand,
+                                                                       State targetState) {
+        return transitionCandidates(ids, targetState, device -> device.getBrand().equals(brand));
+    }
+
+    @Override
+    public List<DeviceStateView> lockTransitionCandidatesByIdsAndState(Collection<UUID> ids, State state,
+                                                                       State targetState) {
+        return transitionCandidates(ids, targetState, device -> device.getState() == state);
+    }
+
+    @Override
+    public List<DeviceStateView> lockTransitionCandidatesByIdsAndBrandAndState(Collection<UUID> ids, String brand,
+                                                                               State state, State targetState) {
+        return transitionCandidates(ids, targetState,
+                device -> device.getBrand().equals(brand) && device.getState() == state);
+    }
+
+    @Override
+    public int transitionState(Collection<UUID> ids, State targetState, Instant modifiedAt) {
+        var transitioned = 0;
+        for (var id : ids) {
+            var device = devices.get(id);
+            if (device != null && device.getState() != targetState) {
+                changeState(device, targetState, modifiedAt);
+                transitioned++;
+            }
+        }
+        return transitioned;
+    }
+
+    @Override
+    public int compareAndSetState(UUID id, State from, State to, Instant modifiedAt) {
+        var device = devices.get(id);
+        if (device == null || device.getState() != from) {
+            return 0;
+        }
+        changeState(device, to, modifiedAt);
+        return 1;
+    }
+
+    @Override
+    public List<Device> findModifiedAfter(Instant since, UUID afterId, Instant upTo, Limit limit) {
+        return devices.values().stream()
+                .filter(device -> !device.getModifiedAt().isAfter(upTo))
+                .filter(device -> isAfter(device.getModifiedAt(), device.getId(), since, afterId))
+                .sorted(MODIFICATION_ORDER)
+                .limit(max(limit))
+                .toList();
+    }
+
+    @Override
+    public List<Device> lockModifiedBefore(State state, Instant before, Instant after, UUID afterId, Limit limit) {
+        return devices.values().stream()
+                .filter(device -> device.getState() == state && device.getModifiedAt().isBefore(before))
+                .filter(device -> isAfter(device.getModifiedAt(), device.getId(), after, afterId))
+                .sorted(MODIFICATION_ORDER)
+                .limit(max(limit))
+                .toList();
+    }
+
+    @Override
+    public int deleteByIdsInState(Collection<UUID> ids, State state) {
+        var deleted = 0;
+        for (var id : ids) {
+            var device = devices.get(id);
+            if (device != null && device.getState() == state && devices.remove(id, device)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public Optional<Long> findVersionById(UUID id) {
+        return findById(id).map(Device::getVersion);
+    }
+
+    @Override
+    public Optional<String> findBrandById(UUID id) {
+        return findById(id).map(Device::getBrand);
+    }
+
+    @Override
+    public List<DeviceCountView> countByBrandAndState() {
+        return devices.values().stream()
+                .collect(Collectors.groupingBy(device -> Map.entry(device.getBrand(), device.getState()),
+                        Collectors.counting()))
+                .entrySet().stream()
+                .map(count -> new DeviceCountView(count.getKey().getKey(), count.getKey().getValue(),
+                        count.getValue()))
+                .toList();
+    }
+
+    @Override
+    public List<Device> findAll(Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public Page<Device> findAll(Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Device> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Device> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Device> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Device> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Device> long count(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Device> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Device, R> R findBy(Example<S> example,
+                                          Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    @Override
+    public Optional<Device> findOne(Specification<Device> spec) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Device> findAll(Specification<Device> spec) {
+        throw unsupported();
+    }
+
+    @Override
+    public Page<Device> findAll(Specification<Device> spec, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public List<Device> findAll(Specification<Device> spec, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public long count(Specification<Device> spec) {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean exists(Specification<Device> spec) {
+        throw unsupported();
+    }
+
+    @Override
+    public long delete(Specification<Device> spec) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends Device, R> R findBy(Specification<Device> spec,
+                                          Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    private Stream<Device> inCreationOrder(Predicate<Device> filter) {
+        return devices.values().stream()
+                .filter(filter)
+                .sorted(CREATION_ORDER);
+    }
+
+    private List<DeviceStateView> transitionCandidates(State targetState, Instant after, UUID afterId, Limit limit,
+                                                       Predicate<Device> filter) {
+        return inCreationOrder(filter.and(device -> device.getState() != targetState)
+                .and(device -> isAfter(device.getCreationTime(), device.getId(), after, afterId)))
+                .limit(max(limit))
+                .map(InMemoryDeviceRepository::stateView)
+                .toList();
+    }
+
+    private List<DeviceStateView> transitionCandidates(Collection<UUID> ids, State targetState,
+                                                       Predicate<Device> filter) {
+        return ids.stream()
+                .map(devices::get)
+                .filter(device -> device != null && device.getState() != targetState && filter.test(device))
+                .map(InMemoryDeviceRepository::stateView)
+                .toList();
+    }
+
+    // As both UPDATE statements do
+    private static void changeState(Device device, State state, Instant modifiedAt) {
+        device.setState(state);
+        device.setVersion(device.getVersion() + 1);
+        device.setModifiedAt(modifiedAt);
+    }
+
+    private static boolean isAfter(Instant time, UUID id, Instant after, UUID afterId) {
+        return time.isAfter(after) || (time.equals(after) && id.compareTo(afterId) > 0);
+    }
+
+    private static long max(Limit limit) {
+        return limit.isLimited() ? limit.max() : Long.MAX_VALUE;
+    }
+
+    private static DeviceStateView stateView(Device device) {
+        return new DeviceStateView(device.getId(), device.getBrand(), device.getState(), device.getCreationTime());
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Needs JPA, not answered in memory");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.devices.benchmark;
+
+import com.example.devices.id.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Batched device inserts into a table that already holds {@code preloadedRows} devices, keyed by random
+ * version 4 ids against time-ordered version 7 ids. Once the primary key no longer fits the buffer pool,
+ * random keys keep splitting and reading back pages all over the clustered index while ordered keys only append.
+ * The tables are kept between runs and only topped up, preloading 10M rows takes a while the first time.
+ * Needs the MySQL from {@code compose.yaml}, see {@code build.gradle} for the connection properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 30)
+@Fork(1)
+public class UuidKeyInsertBenchmark {
+
+    private static final int DEVICES_PER_INVOCATION = 1000;
+    private static final int PRELOAD_BATCH_SIZE = 10_000;
+
+    @Param({"v4", "v7"})
+    private String idVersion;
+
+    @Param({"10000000"})
+    private long preloadedRows;
+
+    private Connection connection;
+    private Supplier<UUID> ids;
+    private String table;
+
+    @Setup(Level.Trial)
+    public void preload() throws SQLException {
+        ids = "v7".equals(idVersion) ? UuidV7::next : UUID::randomUUID;
+        table = "devices_" + idVersion + "_key_benchmark";
+        connection = BenchmarkDatabase.connect();
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "id BINARY(16) NOT NULL PRIMARY KEY, " +
+                    "device_name VARCHAR(255) NOT NULL, " +
+                    "brand VARCHAR(255) NOT NULL, " +
+                    "state VARCHAR(255) NOT NULL, " +
+                    "creation_time DATETIME(6))");
+        }
+        connection.setAutoCommit(false);
+        long rows;
+        try (var statement = connection.createStatement();
+             var count = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            count.next();
+            rows = count.getLong(1);
+        }
+        try (var insert = prepareInsert()) {
+            while (rows < preloadedRows) {
+                var batch = (int) Math.min(PRELOAD_BATCH_SIZE, preloadedRows - rows);
+                insertBatch(insert, batch);
+                rows += batch;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEVICES_PER_INVOCATION)
+    public void insertDevices() throws SQLException {
+        try (var insert = prepareInsert()) {
+            insertBatch(insert, DEVICES_PER_INVOCATION);
+        }
+    }
+
+    private PreparedStatement prepareInsert() throws SQLException {
+        return connection.prepareStatement("INSERT INTO " + table +
+                " (id, device_name, brand, state, creation_time) VALUES (?, ?, ?, ?, ?)");
+    }
+
+    private void insertBatch(PreparedStatement insert, int devices) throws SQLException {
+        for (int i = 0; i < devices; i++) {
+            insert.setBytes(1, BenchmarkDatabase.toBytes(ids.get()));
+            insert.setString(2, "device-" + i);
+            insert.setString(3, "nokia");
+            insert.setString(4, "AVAILABLE");
+            insert.setTimestamp(5, Timestamp.from(Instant.now()));
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.devices.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test against a running application: {@code clients} concurrent clients each send the next
+ * request as soon as the previous one answered, for {@code duration}. The mix is half device reads by id, a quarter
+ * checkout/return transitions and a quarter list pages by brand, so most requests block on MySQL.
+ * Prints throughput, status codes and latency percentiles; run it once per threading mode to compare them.
+ */
+public final class DeviceApiLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"([0-9a-f-]{36})\"");
+    private static final int BRANDS = 20;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private DeviceApiLoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var baseUrl = System.getProperty("devices.loadtest.base-url", "http://localhost:8080");
+        var clients = Integer.getInteger("devices.loadtest.clients", 1000);
+        var duration = Duration.parse(System.getProperty("devices.loadtest.duration", "PT60S"));
+        var devices = Integer.getInteger("devices.loadtest.devices", 10_000);
+
+        var loadTest = new DeviceApiLoadTest(baseUrl);
+        var ids = loadTest.seed(devices);
+        System.out.printf("Seeded %d devices, running %d clients for %s against %s%n",
+                ids.size(), clients, duration, baseUrl);
+        loadTest.run(ids, clients, duration);
+    }
+
+    private List<UUID> seed(int devices) throws IOException, InterruptedException {
+        var ids = new ArrayList<UUID>(devices);
+        for (int from = 0; from < devices; from += 1000) {
+            var batch = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + 1000, devices); i++) {
+                batch.append(i == from ? "" : ",")
+                        .append("{\"name\":\"load-").append(i)
+                        .append("\",\"brand\":\"brand-").append(i % BRANDS)
+                        .append("\",\"state\":\"AVAILABLE\"}");
+            }
+            var response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/devices/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(batch.append(']').toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            var matcher = ID.matcher(response.body());
+            while (matcher.find()) {
+                ids.add(UUID.fromString(matcher.group(1)));
+            }
+        }
+        return ids;
+    }
+
+    private void run(List<UUID> ids, int clients, Duration duration) {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var started = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        sendNext(ids);
+                    }
+                    return null;
+                });
+            }
+        }
+        report(Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void sendNext(List<UUID> ids) {
+        var random = ThreadLocalRandom.current();
+        var id = ids.get(random.nextInt(ids.size()));
+        var dice = random.nextInt(4);
+        var request = switch (dice) {
+            case 0 -> post("/api/devices/" + id + "/transition?from=AVAILABLE&to=IN_USE");
+            case 1 -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/devices?limit=50&brand=brand-"
+                    + random.nextInt(BRANDS))).GET().build();
+            default -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/devices/" + id)).GET().build();
+        };
+        if (send(request) == 204 && dice == 0) {
+            // Return the device so the pool of available devices does not run dry, counted as a request of its own
+            send(post("/api/devices/" + id + "/transition?from=IN_USE&to=AVAILABLE"));
+        }
+    }
+
+    // Records the latency and status of the request, -1 for an I/O error
+    private int send(HttpRequest request) {
+        var start = System.nanoTime();
+        var status = -1;
+        try {
+            status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            // Counted as -1
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return status;
+        }
+        latencies.record(System.nanoTime() - start);
+        statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+        return status;
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private void report(Duration elapsed) {
+        var total = latencies.totalCount();
+        System.out.printf("Requests: %d in %d ms, %.1f requests/s%n",
+                total, elapsed.toMillis(), total * 1000.0 / elapsed.toMillis());
+        System.out.printf("Statuses (-1 = I/O error): %s%n", statuses);
+        for (var percentile : new double[]{50, 90, 99, 99.9}) {
+            System.out.printf("p%s: %.1f ms%n", percentile, latencies.percentile(percentile) / 1e6);
+        }
+        System.out.printf("max: %.1f ms%n", latencies.max() / 1e6);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.devices.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies counted in log-linear buckets, as HdrHistogram does: exact below 128 ns, then 64 buckets per power of
+ * two, so a percentile is off by less than 2%. Takes the same few kilobytes however many requests are recorded,
+ * and is shared by all clients.
+ */
+final class LatencyHistogram {
+
+    private static final int EXACT = 128;
+    private static final int SUB_BUCKETS = 64;
+    // Powers of two from 2^7 up to 2^62
+    private static final int BUCKETS = EXACT + (63 - 7) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        var value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        total.incrementAndGet();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    long totalCount() {
+        return total.get();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * The highest latency the bucket of the percentile can hold, 0 when nothing was recorded.
+     */
+    long percentile(double percentile) {
+        var rank = (long) Math.ceil(percentile / 100 * total.get());
+        var seen = 0L;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts.get(index);
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(highestInBucket(index), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int index(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        var magnitude = 63 - Long.numberOfLeadingZeros(value);
+        var subBucket = (int) (value >>> (magnitude - 6)) - SUB_BUCKETS;
+        return EXACT + (magnitude - 7) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestInBucket(int index) {
+        if (index < EXACT) {
+            return index;
+        }
+        var magnitude = 7 + (index - EXACT) / SUB_BUCKETS;
+        var subBucket = SUB_BUCKETS + (index - EXACT) % SUB_BUCKETS;
+        return ((long) (subBucket + 1) << (magnitude - 6)) - 1;
+    }
+}
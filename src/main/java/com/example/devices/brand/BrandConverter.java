@@ -0,0 +1,31 @@
+package com.example.devices.brand;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the brand of a device as the id of its row in the brands table and reads it back as the name held by
+ * the {@link BrandDictionary}. Query parameters compared with the brand are converted as well, so brand filters
+ * compare integers.
+ */
+@Converter
+@Component
+public class BrandConverter implements AttributeConverter<String, Integer> {
+
+    private final BrandDictionary brandDictionary;
+
+    public BrandConverter(BrandDictionary brandDictionary) {
+        this.brandDictionary = brandDictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String brand) {
+        return brandDictionary.idOf(brand);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return brandDictionary.nameOf(id);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.devices.brand;
+
+import com.example.devices.entity.Device;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.support.SQLExceptionSubclassTranslator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The brands lookup table held in memory, a few hundred rows shared by millions of devices. Devices store the id
+ * of their brand, and {@link BrandConverter} reads it back as the name held here, so all devices of a brand share
+ * one {@code String}. Names compare case-insensitively; the spelling a brand was first registered with is its
+ * canonical one.
+ * <p>
+ * Only misses go to the database, which is how brands registered through another instance are picked up. They
+ * take a connection of their own in auto-commit, outside of the caller's transaction: a brand registered by a
+ * transaction that rolls back stays registered and unused, rather than its id being known in memory only.
+ * Callers that hold a connection already look brands up first, so that a miss never waits for a second
+ * connection from the pool while holding one. Brands found missing are remembered for {@link #MISSING_TTL}, a
+ * filter on a brand nobody registered only asks the database again after that.
+ */
+@Component
+public class BrandDictionary {
+
+    /**
+     * Never handed out by the database, brand filters with a brand that is not registered compare with it and
+     * match nothing.
+     */
+    public static final int UNKNOWN_ID = 0;
+
+    /**
+     * How long a brand found missing is taken as not registered, by this instance, without asking again.
+     */
+    public static final Duration MISSING_TTL = Duration.ofSeconds(10);
+    // Bounds the memory taken by filters on made-up brands
+    private static final int MAX_MISSING = 10_000;
+
+    static final String SELECT_ALL = "SELECT id, name, name_key FROM brands";
+    static final String SELECT_BY_KEY = SELECT_ALL + " WHERE name_key = ?";
+    static final String SELECT_BY_ID = SELECT_ALL + " WHERE id = ?";
+    // A concurrent registration of the same brand, here or on another instance, wins without failing this one
+    static final String INSERT = "INSERT INTO brands (name, name_key) VALUES (?, ?) ON DUPLICATE KEY UPDATE id = id";
+
+    private final DataSource dataSource;
+    private final SQLExceptionSubclassTranslator exceptionTranslator = new SQLExceptionSubclassTranslator();
+    private final Map<String, Entry> byKey = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> missing = Caffeine.newBuilder()
+            .expireAfterWrite(MISSING_TTL)
+            .maximumSize(MAX_MISSING)
+            .build();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public BrandDictionary(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * The case-insensitive key of a brand name.
+     */
+    public static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Registers the brand unless it is known in any spelling, and returns its canonical name.
+     */
+    public String register(String name) {
+        if (Objects.isNull(name)) {
+            return null;
+        }
+        var key = key(name);
+        var entry = find(key);
+        if (Objects.isNull(entry)) {
+            update(INSERT, name, key);
+            entry = Objects.requireNonNull(query(SELECT_BY_KEY, key));
+            missing.invalidate(key);
+        }
+        return entry.name();
+    }
+
+    /**
+     * Registers the brand of a device about to be saved and gives the device its canonical name. Devices store the
+     * id of the brand's row, so a brand seen for the first time needs one before any device of it can be saved.
+     */
+    public Device registerBrandOf(Device device) {
+        device.setBrand(register(device.getBrand()));
+        return device;
+    }
+
+    /**
+     * The id of the brand, {@link #UNKNOWN_ID} when it is not registered or was found missing within the last
+     * {@link #MISSING_TTL}.
+     */
+    public Integer idOf(String name) {
+        if (Objects.isNull(name)) {
+            return null;
+        }
+        var key = key(name);
+        loadAll();
+        var entry = byKey.get(key);
+        if (Objects.isNull(entry) && Objects.isNull(missing.getIfPresent(key))) {
+            entry = query(SELECT_BY_KEY, key);
+            if (Objects.isNull(entry)) {
+                missing.put(key, Boolean.TRUE);
+            }
+        }
+        return Objects.isNull(entry) ? UNKNOWN_ID : entry.id();
+    }
+
+    /**
+     * The canonical name of the brand, the same instance for every call.
+     */
+    public String nameOf(Integer id) {
+        if (Objects.isNull(id)) {
+            return null;
+        }
+        loadAll();
+        var entry = byId.get(id);
+        if (Objects.isNull(entry)) {
+            entry = query(SELECT_BY_ID, id);
+        }
+        if (Objects.isNull(entry)) {
+            throw new IllegalStateException("Brand " + id + " does not exist");
+        }
+        return entry.name();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private Entry find(String key) {
+        loadAll();
+        var entry = byKey.get(key);
+        return Objects.nonNull(entry) ? entry : query(SELECT_BY_KEY, key);
+    }
+
+    private void loadAll() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                query(SELECT_ALL);
+                loaded = true;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the query and remembers the brands it found, returns the last of them.
+     */
+    private Entry query(String sql, Object... parameters) {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            Entry last = null;
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    last = remember(new Entry(resultSet.getInt(1), resultSet.getString(2)), resultSet.getString(3));
+                }
+            }
+            return last;
+        } catch (SQLException e) {
+            throw translate(sql, e);
+        }
+    }
+
+    private void update(String sql, Object... parameters) {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw translate(sql, e);
+        }
+    }
+
+    private Entry remember(Entry entry, String key) {
+        // Keeps the instance already known, devices read before and after share it
+        var known = byId.putIfAbsent(entry.id(), entry);
+        var remembered = Objects.requireNonNullElse(known, entry);
+        byKey.putIfAbsent(key, remembered);
+        return remembered;
+    }
+
+    private DataAccessException translate(String sql, SQLException e) {
+        return Objects.requireNonNull(exceptionTranslator.translate("Brand lookup", sql, e));
+    }
+
+    private record Entry(int id, String name) {
+    }
+}
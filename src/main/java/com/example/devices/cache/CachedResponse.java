@@ -0,0 +1,13 @@
+package com.example.devices.cache;
+
+import com.example.devices.encoding.DeviceFormat;
+
+/**
+ * An encoded response body, the compressed bodies are null when the body is too small to be worth compressing.
+ */
+public record CachedResponse(long generation, DeviceFormat format, byte[] body, byte[] gzippedBody, byte[] zstdBody) {
+
+    int weight() {
+        return body.length + (gzippedBody == null ? 0 : gzippedBody.length) + (zstdBody == null ? 0 : zstdBody.length);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.devices.cache;
+
+import com.example.devices.config.CacheConfig;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.event.DeviceChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Loads devices into the {@value CacheConfig#DEVICES_CACHE} cache. Concurrent misses of the same id and generation
+ * share one query, without any lock held while it runs. Every committed change of a device starts a new generation
+ * of its id, so requests arriving after it never join a load that may have read the old state, and a load that was
+ * overtaken by a change takes back what it cached.
+ * <p>
+ * Generations are kept per stripe of ids rather than per id, so they take a fixed amount of memory. A change only
+ * keeps the other ids of its stripe from joining loads that started before it.
+ */
+@Component
+public class DeviceCacheLoader {
+
+    static final int STRIPES = 4096;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final SingleFlight<Load, DeviceDto> loads = new SingleFlight<>();
+    private final Cache devicesCache;
+
+    public DeviceCacheLoader(CacheManager cacheManager) {
+        var cache = cacheManager.getCache(CacheConfig.DEVICES_CACHE);
+        // Loads check their put right after it, a put deferred to the end of the transaction would come too late
+        this.devicesCache = cache instanceof TransactionAwareCacheDecorator decorator
+                ? decorator.getTargetCache()
+                : cache;
+    }
+
+    public DeviceDto get(UUID id, Supplier<DeviceDto> loader) {
+        var cached = devicesCache.get(id, DeviceDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        // Read the generation before loading, a change committed meanwhile must invalidate what gets loaded
+        var generation = generationOf(id);
+        return loads.load(new Load(id, generation), () -> {
+            var device = loader.get();
+            devicesCache.put(id, device);
+            // A write committed during the load put or evicted before the put above, whose value must not stay
+            if (generationOf(id) != generation) {
+                devicesCache.evict(id);
+            }
+            return device;
+        });
+    }
+
+    /**
+     * Evicts the device and starts a new generation of its id, so a load running meanwhile does not cache it again.
+     */
+    public void invalidate(UUID id) {
+        generations.incrementAndGet(stripe(id));
+        devicesCache.evict(id);
+    }
+
+    // Runs before the cache put or eviction of the write, which are deferred until after the commit as well
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        generations.incrementAndGet(stripe(event.id()));
+    }
+
+    long generationOf(UUID id) {
+        return generations.get(stripe(id));
+    }
+
+    private static int stripe(UUID id) {
+        return Math.floorMod(id.hashCode(), STRIPES);
+    }
+
+    private record Load(UUID id, long generation) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.devices.cache;
+
+import com.example.devices.brand.BrandDictionary;
+import com.example.devices.config.ListCacheProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DeviceFilter;
+import com.example.devices.encoding.Compression;
+import com.example.devices.encoding.DeviceFormat;
+import com.example.devices.encoding.DevicePageEncoder;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.pagination.DevicePage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps device list responses already encoded, per format and with gzip and zstd copies when large enough,
+ * so repeat queries are memory copies.
+ * Every committed device change bumps the generation of the brand and state it touched, before and after the
+ * change, so it only invalidates the entries and ETags of filters it may have changed.
+ * Concurrent misses of the same filter and generation share one query; a change starts a new generation,
+ * so requests arriving after it never join a load that may have read the old state.
+ */
+@Component
+public class DevicesResponseCache implements MeterBinder {
+
+    static final String CACHE_NAME = "devices-list";
+
+    // Tells ETags of an earlier run apart, generations start over on every start
+    private final String eTagPrefix = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentHashMap<Scope, Long> scopeGenerations = new ConcurrentHashMap<>();
+    // Changes whose brand is not known, per state, they touch every brand filter
+    private final ConcurrentHashMap<Scope, Long> unknownBrandGenerations = new ConcurrentHashMap<>();
+    private volatile long invalidatedGeneration;
+    private final SingleFlight<Load, CachedResponse> loads = new SingleFlight<>();
+    private final Cache<Key, CachedResponse> responses;
+    private final DevicePageEncoder devicePageEncoder;
+    private final long compressionMinSize;
+
+    public DevicesResponseCache(DevicePageEncoder devicePageEncoder, ListCacheProperties listCacheProperties) {
+        this.devicePageEncoder = devicePageEncoder;
+        this.compressionMinSize = listCacheProperties.compressionMinSize().toBytes();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(listCacheProperties.maximumSize().toBytes())
+                .weigher((Key key, CachedResponse response) -> response.weight())
+                .recordStats()
+                .build();
+    }
+
+    public CachedResponse get(DeviceFilter filter, DeviceFormat format, Supplier<DevicePage> loader) {
+        // Read the generation before loading, a change committed meanwhile must invalidate what gets loaded
+        var currentGeneration = generationOf(filter);
+        var key = new Key(filter, format);
+        var cached = responses.getIfPresent(key);
+        if (cached != null && cached.generation() == currentGeneration) {
+            return cached;
+        }
+        var response = loads.load(new Load(key, currentGeneration),
+                () -> encode(currentGeneration, format, loader.get()));
+        responses.asMap().merge(key, response,
+                (existing, loaded) -> existing.generation() > loaded.generation() ? existing : loaded);
+        return response;
+    }
+
+    /**
+     * A weak ETag of the current list for the filter, equal for as long as no change may have touched it.
+     * Weak because the plain and the compressed bodies share it.
+     */
+    public String eTag(DeviceFilter filter, DeviceFormat format) {
+        return eTag(generationOf(filter), format);
+    }
+
+    public String eTag(CachedResponse response) {
+        return eTag(response.generation(), response.format());
+    }
+
+    /**
+     * Publishes hits, misses, evictions and size as the {@code cache.*} metrics of {@value #CACHE_NAME}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME);
+    }
+
+    public void invalidateAll() {
+        invalidatedGeneration = generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        onDevicesChanged(List.of(event));
+    }
+
+    /**
+     * Invalidates the scopes of all the changes with one new generation.
+     */
+    public void onDevicesChanged(Collection<DeviceChangedEvent> events) {
+        var changeGeneration = generation.incrementAndGet();
+        for (var event : events) {
+            for (var device : new DeviceDto[]{event.before(), event.after()}) {
+                if (device == null) {
+                    continue;
+                }
+                var generations = device.getBrand() == null ? unknownBrandGenerations : scopeGenerations;
+                generations.merge(new Scope(device.getBrand(), null), changeGeneration, Math::max);
+                generations.merge(new Scope(device.getBrand(), device.getState()), changeGeneration, Math::max);
+                scopeGenerations.merge(new Scope(null, device.getState()), changeGeneration, Math::max);
+            }
+        }
+    }
+
+    long generationOf(DeviceFilter filter) {
+        if (filter.getBrand() == null && filter.getState() == null) {
+            return generation.get();
+        }
+        var scope = new Scope(filter.getBrand(), filter.getState());
+        var scopeGeneration = scopeGenerations.getOrDefault(scope, 0L);
+        if (filter.getBrand() != null) {
+            scopeGeneration = Math.max(scopeGeneration,
+                    unknownBrandGenerations.getOrDefault(new Scope(null, filter.getState()), 0L));
+        }
+        return Math.max(scopeGeneration, invalidatedGeneration);
+    }
+
+    private String eTag(long responseGeneration, DeviceFormat format) {
+        return "W/\"" + eTagPrefix + "-" + responseGeneration + "-" + format.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+
+    /**
+     * The devices of a brand, of a state or of both, a null component matches any value. Brands compare
+     * case-insensitively, as the brand filter does.
+     */
+    private record Scope(String brand, State state) {
+
+        Scope {
+            brand = brand == null ? null : BrandDictionary.key(brand);
+        }
+    }
+
+    private record Key(DeviceFilter filter, DeviceFormat format) {
+    }
+
+    private record Load(Key key, long generation) {
+    }
+
+    private CachedResponse encode(long responseGeneration, DeviceFormat format, DevicePage page) {
+        var body = devicePageEncoder.encode(page, format);
+        if (body.length < compressionMinSize) {
+            return new CachedResponse(responseGeneration, format, body, null, null);
+        }
+        return new CachedResponse(responseGeneration, format, body, Compression.gzip(body), Compression.zstd(body));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param batchSize     devices inserted per transaction, also used as the JDBC batch size
+ * @param maxBatchItems upper bound of devices accepted by a single batch request
+ * @param transitionChunkSize devices updated per statement and transaction by bulk state transitions
+ */
+@ConfigurationProperties(prefix = "devices.bulk")
+public record BulkOperationProperties(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("10000") int maxBatchItems,
+        @DefaultValue("1000") int transitionChunkSize) {
+}
@@ -0,0 +1,34 @@
+package com.example.devices.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DEVICES_CACHE = "devices";
+
+    /**
+     * Caffeine bounds the cache with W-TinyLFU admission and eviction. Puts and evictions issued inside
+     * a transaction are deferred until it commits, so a rolled back write never reaches the cache.
+     */
+    @Bean
+    public CacheManager cacheManager(DeviceCacheProperties deviceCacheProperties) {
+        var caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(deviceCacheProperties.maximumSize())
+                .expireAfterWrite(deviceCacheProperties.timeToLive())
+                .recordStats());
+        caffeineCacheManager.setAllowNullValues(false);
+        caffeineCacheManager.setCacheNames(List.of(DEVICES_CACHE));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
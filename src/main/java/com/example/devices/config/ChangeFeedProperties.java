@@ -0,0 +1,26 @@
+package com.example.devices.config;
+
+import com.example.devices.enums.ChangeFeedOverflow;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param logCapacity      changes kept for subscribers resuming from a Last-Event-ID, the oldest are dropped first
+ * @param maxSubscribers   open streams, further subscribers are answered with 503
+ * @param subscriberBuffer changes waiting to be sent to one subscriber before it counts as too slow
+ * @param overflow         what happens to a subscriber too slow to keep up: DISCONNECT ends its stream, it can
+ *                         resume from its Last-Event-ID; DROP_OLDEST drops its oldest unsent change
+ * @param heartbeat        a comment is sent after this long without changes, so dead connections are noticed
+ * @param timeout          streams are ended after this long, clients reconnect with their Last-Event-ID
+ */
+@ConfigurationProperties(prefix = "devices.change-feed")
+public record ChangeFeedProperties(
+        @DefaultValue("10000") int logCapacity,
+        @DefaultValue("1000") int maxSubscribers,
+        @DefaultValue("256") int subscriberBuffer,
+        @DefaultValue("DISCONNECT") ChangeFeedOverflow overflow,
+        @DefaultValue("15s") Duration heartbeat,
+        @DefaultValue("30m") Duration timeout) {
+}
@@ -0,0 +1,21 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param tombstoneRetention deleted devices are reported for this long, older tokens are answered with 410
+ * @param settle             changes younger than this are left for the next sync, it has to cover the longest
+ *                           write transaction and the replica lag, or a change committed late would be skipped
+ * @param compactionInterval time between two removals of the tombstones past their retention
+ * @param compactionChunk    tombstones removed per DELETE statement
+ */
+@ConfigurationProperties(prefix = "devices.delta")
+public record DeltaProperties(
+        @DefaultValue("7d") Duration tombstoneRetention,
+        @DefaultValue("10s") Duration settle,
+        @DefaultValue("1h") Duration compactionInterval,
+        @DefaultValue("1000") int compactionChunk) {
+}
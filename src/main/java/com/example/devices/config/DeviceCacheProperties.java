@@ -0,0 +1,16 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maximumSize devices kept in memory per instance
+ * @param timeToLive  upper bound of how stale a device changed by another instance can be served
+ */
+@ConfigurationProperties(prefix = "devices.cache.device")
+public record DeviceCacheProperties(
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("5m") Duration timeToLive) {
+}
@@ -0,0 +1,21 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * @param directory   where uploads are kept until their import completes, one per instance: an instance resumes
+ *                    the unfinished imports it finds there at startup
+ * @param batchSize   rows written per transaction, every transaction also saves the checkpoint
+ * @param concurrency imports running at the same time, further ones wait in turn
+ * @param maxErrors   rejected rows kept per import with their errors, further ones are only counted
+ */
+@ConfigurationProperties(prefix = "devices.imports")
+public record DeviceImportProperties(
+        @DefaultValue("device-imports") Path directory,
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("2") int concurrency,
+        @DefaultValue("1000") int maxErrors) {
+}
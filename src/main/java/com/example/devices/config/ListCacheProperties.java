@@ -0,0 +1,15 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * @param maximumSize        memory held by cached list responses, compressed copies included
+ * @param compressionMinSize responses smaller than this are not worth a gzip and a zstd copy
+ */
+@ConfigurationProperties(prefix = "devices.cache.list")
+public record ListCacheProperties(
+        @DefaultValue("64MB") DataSize maximumSize,
+        @DefaultValue("2KB") DataSize compressionMinSize) {
+}
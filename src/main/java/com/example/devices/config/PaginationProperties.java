@@ -0,0 +1,27 @@
+package com.example.devices.config;
+
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.exception.InvalidPageRequestException;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Objects;
+
+@ConfigurationProperties(prefix = "devices.pagination")
+public record PaginationProperties(
+        @DefaultValue("100") int defaultLimit,
+        @DefaultValue("1000") int maxLimit) {
+
+    /**
+     * The limit a request asked for, the default without one and at most the maximum.
+     */
+    public int resolveLimit(Integer limit) {
+        if (Objects.isNull(limit)) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new InvalidPageRequestException(ErrorMessages.INVALID_LIMIT_MESSAGE);
+        }
+        return Math.min(limit, maxLimit);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled   reports virtual threads pinned to their carrier, only when virtual threads are enabled
+ * @param threshold pinned sections shorter than this are not reported
+ */
+@ConfigurationProperties(prefix = "devices.threads.pinning-monitor")
+public record PinningMonitorProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20ms") Duration threshold) {
+}
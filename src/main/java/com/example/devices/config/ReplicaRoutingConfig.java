@@ -0,0 +1,24 @@
+package com.example.devices.config;
+
+import com.example.devices.datasource.ReadYourWrites;
+import com.example.devices.datasource.ReplicaPool;
+import com.example.devices.datasource.ReplicaRoutingPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class ReplicaRoutingConfig {
+
+    /**
+     * Declared with its own type so that its order is known before it is created, it has to wrap the data source
+     * before the slow query log does. Static and lazy about its collaborators like the slow query log's.
+     */
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(
+            @Value("${devices.datasource.replicas.enabled:false}") boolean replicasEnabled,
+            ObjectProvider<ReplicaPool> replicaPool, ObjectProvider<ReadYourWrites> readYourWrites) {
+        return new ReplicaRoutingPostProcessor(replicasEnabled, replicaPool, readYourWrites);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param enabled             sends read-only transactions to the replicas below, writes stay on the primary
+ * @param nodes               replica connections, tried in turn
+ * @param maxLag              replicas further behind the primary than this are ejected until they catch up
+ * @param stickiness          a client reads from the primary for this long after its last write
+ * @param healthCheckInterval time between two lag and health checks of every replica
+ * @param maximumPoolSize     connections per replica
+ * @param connectionTimeout   wait for a replica connection before the read falls back to the primary
+ */
+@ConfigurationProperties(prefix = "devices.datasource.replicas")
+public record ReplicaRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Replica> nodes,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("10s") Duration stickiness,
+        @DefaultValue("2s") Duration healthCheckInterval,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("1s") Duration connectionTimeout) {
+
+    /**
+     * @param url      JDBC url of the replica
+     * @param username defaults to {@code spring.datasource.username}, needs the REPLICATION CLIENT privilege
+     * @param password defaults to {@code spring.datasource.password}
+     */
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled       deletes the INACTIVE devices past {@code inactiveAfter}, off unless switched on since purged
+ *                      devices are gone for good
+ * @param inactiveAfter INACTIVE devices not modified for this long are purged
+ * @param interval      time between the end of one purge and the start of the next
+ * @param chunkSize     devices deleted per transaction, which locks their rows until it commits
+ * @param pause         wait between two chunks, for the replicas to catch up and other writers to get the locks
+ */
+@ConfigurationProperties(prefix = "devices.retention")
+public record RetentionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("90d") Duration inactiveAfter,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("200ms") Duration pause) {
+}
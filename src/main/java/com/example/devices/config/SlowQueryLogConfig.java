@@ -0,0 +1,38 @@
+package com.example.devices.config;
+
+import com.example.devices.monitoring.SlowQueryListener;
+import com.example.devices.monitoring.SlowQueryLog;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "devices.slow-query-log", name = "enabled", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    /**
+     * Wraps every data source so statement timings reach the {@link SlowQueryListener}. Static and lazy about the
+     * log so that registering the post processor does not initialize any other bean early.
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SlowQueryListener(slowQueryLog::getObject, dataSource))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.devices.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled             wraps the data source to time every statement
+ * @param threshold           statements taking at least this long are recorded
+ * @param parameterSampleRate share of recorded statements that keep their bind parameters, between 0 and 1
+ * @param capacity            recorded statements kept, the oldest are dropped first
+ * @param explain             captures the EXPLAIN plan of recorded SELECT statements in the background
+ */
+@ConfigurationProperties(prefix = "devices.slow-query-log")
+public record SlowQueryLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200ms") Duration threshold,
+        @DefaultValue("0.1") double parameterSampleRate,
+        @DefaultValue("500") int capacity,
+        @DefaultValue("true") boolean explain) {
+}
@@ -1,19 +1,48 @@
 package com.example.devices.controller;
 
+import com.example.devices.cache.DevicesResponseCache;
+import com.example.devices.dto.BatchCreateResultDto;
+import com.example.devices.dto.BulkStateTransitionDto;
+import com.example.devices.dto.BulkStateTransitionResultDto;
+import com.example.devices.dto.DeviceChangeDto;
+import com.example.devices.dto.DeviceDeltaDto;
 import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DeviceFilter;
+import com.example.devices.dto.DeviceImportDto;
+import com.example.devices.dto.DeviceImportErrorDto;
+import com.example.devices.dto.DeviceSearchResultDto;
+import com.example.devices.dto.DeviceStatsDto;
 import com.example.devices.dto.DevicesDto;
 import com.example.devices.dto.error.GeneralErrorResponse;
+import com.example.devices.encoding.Compression;
+import com.example.devices.encoding.DeviceFormat;
+import com.example.devices.enums.ImportFormat;
 import com.example.devices.enums.State;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.exception.UnsupportedImportFormatException;
+import com.example.devices.feed.DeviceChangeFeed;
+import com.example.devices.json.DeviceJsonWriter;
+import com.example.devices.service.DeviceDeltaService;
+import com.example.devices.service.DeviceImportService;
+import com.example.devices.service.DeviceSearchService;
 import com.example.devices.service.DeviceService;
+import com.example.devices.stats.DeviceStats;
 import com.example.devices.validation.OnPatch;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,10 +52,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -34,10 +79,33 @@ import java.util.UUID;
 @Tag(name = "Devices", description = "Endpoints for managing devices")
 public class DeviceController {
 
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    // A single device is written by the Jackson message converters, there is none for protobuf
+    private static final Set<DeviceFormat> DEVICE_FORMATS =
+            EnumSet.of(DeviceFormat.JSON, DeviceFormat.CBOR, DeviceFormat.SMILE);
+
     private final DeviceService deviceService;
+    private final DeviceJsonWriter deviceJsonWriter;
+    private final DevicesResponseCache devicesResponseCache;
+    private final DeviceChangeFeed deviceChangeFeed;
+    private final DeviceDeltaService deviceDeltaService;
+    private final DeviceStats deviceStats;
+    private final DeviceSearchService deviceSearchService;
+    private final DeviceImportService deviceImportService;
 
-    public DeviceController(DeviceService deviceService) {
+    public DeviceController(DeviceService deviceService, DeviceJsonWriter deviceJsonWriter,
+                            DevicesResponseCache devicesResponseCache, DeviceChangeFeed deviceChangeFeed,
+                            DeviceDeltaService deviceDeltaService, DeviceStats deviceStats,
+                            DeviceSearchService deviceSearchService, DeviceImportService deviceImportService) {
         this.deviceService = deviceService;
+        this.deviceJsonWriter = deviceJsonWriter;
+        this.devicesResponseCache = devicesResponseCache;
+        this.deviceChangeFeed = deviceChangeFeed;
+        this.deviceDeltaService = deviceDeltaService;
+        this.deviceStats = deviceStats;
+        this.deviceSearchService = deviceSearchService;
+        this.deviceImportService = deviceImportService;
     }
 
     @Operation(
@@ -58,6 +126,24 @@ public class DeviceController {
         return new ResponseEntity<>(createdDevice, HttpStatusCode.valueOf(201));
     }
 
+    @Operation(
+            summary = "Create devices in batch",
+            description = "Validates every device like a single create and inserts the valid ones in JDBC batches. " +
+                    "The result reports the outcome of every device, a rejected device does not fail the batch."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per device results",
+                    content = @Content(schema = @Schema(implementation = BatchCreateResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request payload or too many devices",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResultDto> createDevices(@RequestBody List<DeviceDto> deviceDtos) {
+        return ResponseEntity.ok(deviceService.createDevices(deviceDtos));
+    }
+
     @Operation(
             summary = "Update an existing device",
             description = "Updates the details of an existing device based on its ID."
@@ -69,13 +155,18 @@ public class DeviceController {
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Device not found",
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "Device changed since the version given in If-Match",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
     })
     @PutMapping("/{id}")
-    public ResponseEntity<DeviceDto> updateDevice(@PathVariable UUID id, @RequestBody @Valid DeviceDto deviceDto) {
+    public ResponseEntity<DeviceDto> updateDevice(@PathVariable UUID id, @RequestBody @Valid DeviceDto deviceDto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        expectVersion(deviceDto, ifMatch);
         var updatedDevice = deviceService.updateDevice(id, deviceDto);
-        return new ResponseEntity<>(updatedDevice, HttpStatusCode.valueOf(200));
+        return deviceResponse(updatedDevice, DeviceFormat.negotiate(accept, DEVICE_FORMATS));
     }
 
     @Operation(
@@ -90,49 +181,377 @@ public class DeviceController {
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Device not found",
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "Device changed since the version given in If-Match",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
     })
     @PatchMapping("/{id}")
-    public ResponseEntity<DeviceDto> patchDevice(@PathVariable UUID id, @RequestBody @Validated(OnPatch.class) DeviceDto deviceDto) {
+    public ResponseEntity<DeviceDto> patchDevice(@PathVariable UUID id, @RequestBody @Validated(OnPatch.class) DeviceDto deviceDto,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        expectVersion(deviceDto, ifMatch);
         var updatedDevice = deviceService.patchDevice(id, deviceDto);
-        return new ResponseEntity<>(updatedDevice, HttpStatusCode.valueOf(200));
+        return deviceResponse(updatedDevice, DeviceFormat.negotiate(accept, DEVICE_FORMATS));
+    }
+
+    @Operation(
+            summary = "Move devices to another state in bulk",
+            description = "Moves every device matching all given filters to the target state using chunked UPDATE " +
+                    "statements. Devices in use are never put in use again and devices already in the target state " +
+                    "are left untouched."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Devices transitioned successfully",
+                    content = @Content(schema = @Schema(implementation = BulkStateTransitionResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request payload",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @PostMapping("/transitions")
+    public ResponseEntity<BulkStateTransitionResultDto> transitionDevicesState(
+            @RequestBody @Valid BulkStateTransitionDto transition) {
+        return ResponseEntity.ok(deviceService.transitionDevicesState(transition));
+    }
+
+    @Operation(
+            summary = "Transition a device state",
+            description = "Moves a device from one state to another in a single conditional update, " +
+                    "for example from AVAILABLE to IN_USE to check it out. " +
+                    "Fails with 409 when the device is not in the expected state anymore."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Device state transitioned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid transition",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Device not found",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Device is not in the expected state",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @PostMapping("/{id}/transition")
+    public ResponseEntity<Void> transitionDeviceState(@PathVariable UUID id,
+                                                      @RequestParam State from,
+                                                      @RequestParam State to) {
+        deviceService.transitionDeviceState(id, from, to);
+        return ResponseEntity.noContent().build();
     }
 
     @Operation(
             summary = "Retrieve a list of devices",
-            description = "Fetches all devices, optionally filtering by brand and/or state."
+            description = "Fetches one page of devices, optionally filtering by brand, state and creation time range. " +
+                    "Pages are ordered by creation time and id; pass the returned nextCursor to fetch the next page. " +
+                    "Pages are served from a cache of encoded responses until a device changes, as JSON, CBOR, Smile or " +
+                    "Protobuf (see devices.proto) by Accept, compressed with zstd or gzip when accepted. " +
+                    "The ETag stays the same until a device of the filtered brand or state changes, " +
+                    "If-None-Match with it is answered with 304 without querying."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "List of devices retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = DevicesDto.class))),
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = DevicesDto.class)),
+                            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE, schema = @Schema(implementation = DevicesDto.class)),
+                            @Content(mediaType = "application/x-jackson-smile", schema = @Schema(implementation = DevicesDto.class)),
+                            @Content(mediaType = "application/x-protobuf")
+                    }),
+            @ApiResponse(responseCode = "304", description = "List unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters",
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
     })
     @GetMapping
-    public ResponseEntity<DevicesDto> getAllDevices(
+    public ResponseEntity<byte[]> getAllDevices(
             @RequestParam(required = false) String brand,
-            @RequestParam(required = false) State state) {
-        return ResponseEntity.ok(deviceService.getDevicesByFilters(brand, state));
+            @RequestParam(required = false) State state,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Sort.Direction direction,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        var format = DeviceFormat.negotiate(accept);
+        var filter = DeviceFilter.builder()
+                .brand(brand)
+                .state(state)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .limit(limit)
+                .cursor(cursor)
+                .direction(direction)
+                .build();
+        if (webRequest.checkNotModified(devicesResponseCache.eTag(filter, format))) {
+            return null;
+        }
+        var response = devicesResponseCache.get(filter, format, () -> deviceService.getDevicePage(filter));
+        var builder = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .eTag(devicesResponseCache.eTag(response))
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        // zstd compresses about as well as gzip and decompresses several times faster
+        if (response.zstdBody() != null && Compression.isAccepted(acceptEncoding, Compression.ZSTD)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, Compression.ZSTD).body(response.zstdBody());
+        }
+        if (response.gzippedBody() != null && Compression.isAccepted(acceptEncoding, Compression.GZIP)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, Compression.GZIP).body(response.gzippedBody());
+        }
+        return builder.body(response.body());
+    }
+
+    @Operation(
+            summary = "Export devices",
+            description = "Streams all devices, optionally filtered by brand and/or state, as newline delimited JSON " +
+                    "or, when only application/json is accepted, as one JSON array. " +
+                    "Devices are written while they are read from the database."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Devices streamed successfully",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = DeviceDto.class)),
+                            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = DeviceDto.class))
+                    }),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportDevices(
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) State state,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var asJsonArray = isJsonArrayRequested(accept);
+        StreamingResponseBody body = outputStream -> {
+            // The generator buffer decides when to flush, not every single device
+            try (var generator = deviceJsonWriter.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                if (asJsonArray) {
+                    generator.writeStartArray();
+                }
+                deviceService.exportDevices(brand, state, device -> {
+                    try {
+                        deviceJsonWriter.writeDevice(generator, device);
+                        if (!asJsonArray) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (asJsonArray) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(asJsonArray ? MediaType.APPLICATION_JSON : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Stream device changes",
+            description = "Pushes every committed change of a device of the given brand and/or state as a " +
+                    "Server-Sent Event, a state change is sent to the subscribers of the state it left and of the one " +
+                    "it entered. Reconnecting with the Last-Event-ID header replays the changes missed meanwhile; " +
+                    "when they are not kept anymore a 'reset' event asks to reload the devices first. " +
+                    "A subscriber too slow to keep up is disconnected and resumes the same way."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream of changes",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = DeviceChangeDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request parameters",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDeviceChanges(
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) State state,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        return deviceChangeFeed.subscribe(brand, state, lastEventId);
+    }
+
+    @Operation(
+            summary = "Get the devices changed since a delta token",
+            description = "Returns the devices created or modified and the devices deleted after the since token, " +
+                    "oldest change first. Without a token every device is returned. Sync again from nextToken, " +
+                    "right away while hasMore is true. Changes show up once they are older than the settle window."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = DeviceDeltaDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid delta token or limit",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "410", description = "Token older than deleted devices are kept, " +
+                    "resync without a token",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @GetMapping("/delta")
+    public ResponseEntity<DeviceDeltaDto> getDelta(@RequestParam(required = false) String since,
+                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(deviceDeltaService.getDelta(since, limit));
+    }
+
+    @Operation(
+            summary = "Count the devices per brand and state",
+            description = "Returns the number of devices in total, per state and per brand and state, from counters " +
+                    "kept in memory and regularly checked against the database."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Counts retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = DeviceStatsDto.class)))
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<DeviceStatsDto> getDeviceStats() {
+        return ResponseEntity.ok(deviceStats.stats());
+    }
+
+    @Operation(
+            summary = "Search devices by name or brand",
+            description = "Returns the devices whose name or brand contains the query, ignoring case, best match " +
+                    "first: name before brand, exact before prefix before word prefix before substring. Queries " +
+                    "shorter than three characters match the start of a word only."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = DeviceSearchResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Blank query or invalid limit",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Search index still being built",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<DeviceSearchResultDto> searchDevices(@RequestParam String q,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(deviceSearchService.searchDevices(q, limit));
+    }
+
+    @Operation(
+            summary = "Import devices from a file",
+            description = "Uploads a CSV file, with a header naming the columns name, brand and state, or an NDJSON " +
+                    "file of device objects, streamed as the request body. " +
+                    "The devices are validated like a single create and written in large batches in the " +
+                    "background; follow the returned import for its progress and the rows it rejected."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "File received, import queued",
+                    content = @Content(schema = @Schema(implementation = DeviceImportDto.class))),
+            @ApiResponse(responseCode = "415", description = "Neither a CSV nor an NDJSON file",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @PostMapping("/imports")
+    public ResponseEntity<DeviceImportDto> importDevices(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream content) {
+        return importAccepted(deviceImportService.startImport(importFormat(contentType, null), content));
+    }
+
+    @Operation(
+            summary = "Import devices from a multipart upload",
+            description = "Same as the import of a request body, the file is taken from the 'file' part and its " +
+                    "format from the part content type or the file name extension (.csv, .ndjson or .jsonl)."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "File received, import queued",
+                    content = @Content(schema = @Schema(implementation = DeviceImportDto.class))),
+            @ApiResponse(responseCode = "415", description = "Neither a CSV nor an NDJSON file",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @PostMapping(value = "/imports", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DeviceImportDto> importDevicesFile(@RequestPart("file") MultipartFile file) {
+        var format = importFormat(file.getContentType(), file.getOriginalFilename());
+        try (var content = file.getInputStream()) {
+            return importAccepted(deviceImportService.startImport(format, content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Operation(
+            summary = "Get the progress of an import",
+            description = "Returns the status of an import, how much of its file is written and how fast."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import found successfully",
+                    content = @Content(schema = @Schema(implementation = DeviceImportDto.class))),
+            @ApiResponse(responseCode = "404", description = "Import not found",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<DeviceImportDto> getImport(@PathVariable UUID id) {
+        return ResponseEntity.ok(deviceImportService.getImport(id));
+    }
+
+    @Operation(
+            summary = "Get the rows an import rejected",
+            description = "Returns the rejected rows of an import after the given line, in file order, with why " +
+                    "they were rejected. Only the first devices.imports.max-errors of them are kept."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Rejected rows retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DeviceImportErrorDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Import not found",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @GetMapping("/imports/{id}/errors")
+    public ResponseEntity<List<DeviceImportErrorDto>> getImportErrors(@PathVariable UUID id,
+                                                                      @RequestParam(required = false) Long afterLine,
+                                                                      @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(deviceImportService.getImportErrors(id, afterLine, limit));
+    }
+
+    @Operation(
+            summary = "Resume an import",
+            description = "Continues a failed or interrupted import after the last batch it wrote, on the instance " +
+                    "that received its file."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Import queued again",
+                    content = @Content(schema = @Schema(implementation = DeviceImportDto.class))),
+            @ApiResponse(responseCode = "404", description = "Import not found",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Import completed, running or its file is not kept here",
+                    content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
+    })
+    @PostMapping("/imports/{id}/resume")
+    public ResponseEntity<DeviceImportDto> resumeImport(@PathVariable UUID id) {
+        return ResponseEntity.accepted().body(deviceImportService.resumeImport(id));
     }
 
     @Operation(
             summary = "Get a device by ID",
-            description = "Retrieves details of a specific device using its unique identifier."
+            description = "Retrieves details of a specific device using its unique identifier. " +
+                    "The device is served as JSON, CBOR or Smile. The ETag is the device version and the format, " +
+                    "If-None-Match with it is answered with 304 from the version alone."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Device found successfully",
                     content = @Content(schema = @Schema(implementation = DeviceDto.class))),
+            @ApiResponse(responseCode = "304", description = "Device unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Device not found",
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid device ID format",
                     content = @Content(schema = @Schema(implementation = GeneralErrorResponse.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<DeviceDto> getDeviceById(@PathVariable UUID id) {
-        return ResponseEntity.ok(deviceService.getDeviceById(id));
+    public ResponseEntity<DeviceDto> getDeviceById(@PathVariable UUID id,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                   WebRequest webRequest, HttpServletResponse response) {
+        var format = DeviceFormat.negotiate(accept, DEVICE_FORMATS);
+        // Set before the check, a 304 varies as the 200 it stands for
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(deviceETag(deviceService.getDeviceVersion(id), format))) {
+            return null;
+        }
+        return deviceResponse(deviceService.getDeviceById(id), format);
     }
 
     @Operation(
@@ -154,4 +573,102 @@ public class DeviceController {
         return new ResponseEntity<>(HttpStatusCode.valueOf(204));
     }
 
+    /**
+     * The content type is set to the negotiated format, so that the body is written in the format its ETag names.
+     */
+    private static ResponseEntity<DeviceDto> deviceResponse(DeviceDto device, DeviceFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .eTag(deviceETag(device.getVersion(), format))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(device);
+    }
+
+    // Names the format as the list ETag does, the formats are different representations of the device
+    private static String deviceETag(Long version, DeviceFormat format) {
+        return version == null ? null : "\"" + version + "-" + formatName(format) + "\"";
+    }
+
+    private static String formatName(DeviceFormat format) {
+        return format.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Takes the version to update from If-Match, a strong ETag of {@link #getDeviceById} in any format, or the
+     * bare version. A wildcard matches any version, an ETag that is not a device version can never match.
+     */
+    private static void expectVersion(DeviceDto deviceDto, String ifMatch) {
+        if (ifMatch == null) {
+            return;
+        }
+        var eTags = ETag.parse(ifMatch);
+        if (eTags.stream().anyMatch(ETag::isWildcard)) {
+            return;
+        }
+        var versions = eTags.stream()
+                .filter(eTag -> !eTag.weak())
+                .map(DeviceController::versionOf)
+                .filter(Objects::nonNull)
+                .toList();
+        // Only one version can be checked, any other can never match the current one
+        deviceDto.setVersion(versions.size() == 1 ? versions.getFirst() : -1L);
+    }
+
+    // Null when the tag is neither a version nor a version and a device format
+    private static Long versionOf(ETag eTag) {
+        var tag = eTag.tag();
+        var separator = tag.indexOf('-');
+        if (separator >= 0 && DEVICE_FORMATS.stream()
+                .noneMatch(format -> formatName(format).equals(tag.substring(separator + 1)))) {
+            return null;
+        }
+        var version = separator < 0 ? tag : tag.substring(0, separator);
+        return !version.isEmpty() && version.chars().allMatch(Character::isDigit) ? Long.valueOf(version) : null;
+    }
+
+    private static ResponseEntity<DeviceImportDto> importAccepted(DeviceImportDto deviceImport) {
+        var location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/devices/imports/{id}")
+                .buildAndExpand(deviceImport.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(deviceImport);
+    }
+
+    /**
+     * The format of an upload by its content type, or by its file name when the type says nothing.
+     */
+    private static ImportFormat importFormat(String contentType, String filename) {
+        if (contentType != null) {
+            try {
+                var mediaType = MediaType.parseMediaType(contentType);
+                if (mediaType.equalsTypeAndSubtype(TEXT_CSV)) {
+                    return ImportFormat.CSV;
+                }
+                if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)) {
+                    return ImportFormat.NDJSON;
+                }
+            } catch (InvalidMediaTypeException e) {
+                // Falls back to the file name
+            }
+        }
+        if (filename != null) {
+            var name = filename.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return ImportFormat.CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return ImportFormat.NDJSON;
+            }
+        }
+        throw new UnsupportedImportFormatException(ErrorMessages.UNSUPPORTED_IMPORT_FORMAT_MESSAGE);
+    }
+
+    private static boolean isJsonArrayRequested(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        var acceptedTypes = MediaType.parseMediaTypes(accept);
+        return acceptedTypes.stream().noneMatch(MediaType.APPLICATION_NDJSON::isCompatibleWith)
+                && acceptedTypes.stream().anyMatch(MediaType.APPLICATION_JSON::isCompatibleWith);
+    }
 }
@@ -0,0 +1,59 @@
+package com.example.devices.datasource;
+
+import com.example.devices.config.ReplicaRoutingProperties;
+import com.example.devices.event.DeviceChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Objects;
+
+/**
+ * Remembers which clients wrote recently so that their reads go to the primary until the replicas have caught up
+ * with the write. A client is told apart by the {@value #CLIENT_ID_HEADER} header, or its address without one.
+ * Work outside of a request, like scheduled jobs, has no client and is never sticky.
+ */
+@Component
+@ConditionalOnProperty(prefix = "devices.datasource.replicas", name = "enabled")
+public class ReadYourWrites {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final long MAXIMUM_CLIENTS = 100_000;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(ReplicaRoutingProperties properties) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.stickiness())
+                .maximumSize(MAXIMUM_CLIENTS)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        var client = currentClient();
+        if (client != null) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Whether the client of the current request wrote within the stickiness window.
+     */
+    public boolean isSticky() {
+        var client = currentClient();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    private static String currentClient() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        var request = attributes.getRequest();
+        return Objects.requireNonNullElse(request.getHeader(CLIENT_ID_HEADER), request.getRemoteAddr());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.devices.datasource;
+
+import com.example.devices.cache.DeviceCacheLoader;
+import com.example.devices.cache.DevicesResponseCache;
+import com.example.devices.config.ReplicaRoutingProperties;
+import com.example.devices.event.DeviceChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Invalidates the caches a second time once the replicas are bound to have applied a change. Between the change
+ * and then, a read on a lagging replica may cache the state from before it; without the second invalidation that
+ * entry would outlive the tolerated lag. Checks only eject a replica every health check interval, so the delay
+ * adds one interval to the maximum lag.
+ * <p>
+ * The changes of a transaction are collected until it commits and invalidated by one task, so a bulk chunk
+ * schedules one task rather than one per device. Changes made outside of a transaction are scheduled right away.
+ */
+@Component
+@ConditionalOnProperty(prefix = "devices.datasource.replicas", name = "enabled")
+public class ReplicaCacheInvalidator {
+
+    private final TaskScheduler taskScheduler;
+    private final DeviceCacheLoader deviceCacheLoader;
+    private final DevicesResponseCache devicesResponseCache;
+    private final Duration delay;
+
+    public ReplicaCacheInvalidator(TaskScheduler taskScheduler, DeviceCacheLoader deviceCacheLoader,
+                                   DevicesResponseCache devicesResponseCache, ReplicaRoutingProperties properties) {
+        this.taskScheduler = taskScheduler;
+        this.deviceCacheLoader = deviceCacheLoader;
+        this.devicesResponseCache = devicesResponseCache;
+        this.delay = properties.maxLag().plus(properties.healthCheckInterval());
+    }
+
+    // A plain listener, it runs as the change is published and collects it until the transaction commits
+    @EventListener
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(List.of(event));
+            return;
+        }
+        var changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new TransactionChanges();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        changes.events.add(event);
+    }
+
+    private void schedule(List<DeviceChangedEvent> events) {
+        taskScheduler.schedule(() -> {
+            events.stream().map(DeviceChangedEvent::id).distinct().forEach(deviceCacheLoader::invalidate);
+            devicesResponseCache.onDevicesChanged(events);
+        }, Instant.now().plus(delay));
+    }
+
+    /**
+     * The changes published in the current transaction, scheduled once it committed and dropped on rollback.
+     */
+    private final class TransactionChanges implements TransactionSynchronization {
+
+        private final List<DeviceChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            schedule(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaCacheInvalidator.this);
+        }
+    }
+}
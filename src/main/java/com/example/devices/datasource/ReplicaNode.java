@@ -0,0 +1,88 @@
+package com.example.devices.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * One read replica and what the last health check found out about it. A replica starts ejected and only serves
+ * reads once a check has seen it reachable and no further behind the primary than the tolerated lag.
+ */
+@Slf4j
+public class ReplicaNode {
+
+    static final String REPLICA_STATUS_QUERY = "SHOW REPLICA STATUS";
+    static final String LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaNode(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Seconds the replica was behind the primary at the last check, -1 when unknown.
+     */
+    public long lagSeconds() {
+        return lagSeconds;
+    }
+
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    void check(Duration maxLag) {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(REPLICA_STATUS_QUERY)) {
+            // A server replicating from nowhere, like a stand-in in tests, is as current as it gets
+            var lag = resultSet.next() ? resultSet.getObject(LAG_COLUMN, Long.class) : Long.valueOf(0);
+            if (lag == null) {
+                lagSeconds = -1;
+                eject("replication is stopped");
+            } else if (lag > maxLag.toSeconds()) {
+                lagSeconds = lag;
+                eject("it is " + lag + " s behind the primary");
+            } else {
+                lagSeconds = lag;
+                admit();
+            }
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            eject(e.getMessage());
+        }
+    }
+
+    void eject(String reason) {
+        if (healthy) {
+            log.warn("Ejected replica {}, {}", name, reason);
+        }
+        healthy = false;
+    }
+
+    void admit() {
+        if (!healthy) {
+            log.info("Replica {} serves reads, {} s behind the primary", name, lagSeconds);
+        }
+        healthy = true;
+    }
+}
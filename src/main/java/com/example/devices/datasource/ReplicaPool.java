@@ -0,0 +1,110 @@
+package com.example.devices.datasource;
+
+import com.example.devices.config.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The configured read replicas, each behind a connection pool of its own. Reads take the healthy replicas in
+ * turn, and a scheduled check ejects the ones that are unreachable or lag behind the primary.
+ */
+@Component
+@ConditionalOnProperty(prefix = "devices.datasource.replicas", name = "enabled")
+public class ReplicaPool implements MeterBinder, DisposableBean {
+
+    private final ReplicaRoutingProperties properties;
+    private final List<ReplicaNode> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(ReplicaRoutingProperties properties, DataSourceProperties dataSourceProperties) {
+        this(properties, createReplicas(properties, dataSourceProperties));
+    }
+
+    ReplicaPool(ReplicaRoutingProperties properties, List<ReplicaNode> replicas) {
+        this.properties = properties;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    public List<ReplicaNode> replicas() {
+        return replicas;
+    }
+
+    /**
+     * The next healthy replica in turn, or {@code null} when every replica is ejected.
+     */
+    public ReplicaNode nextHealthy() {
+        var size = replicas.size();
+        var start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            var replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${devices.datasource.replicas.health-check-interval:2s}")
+    public void checkReplicas() {
+        replicas.forEach(replica -> replica.check(properties.maxLag()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (var replica : replicas) {
+            Gauge.builder("devices.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Whether the replica serves reads")
+                    .tag("replica", replica.name())
+                    .register(registry);
+            Gauge.builder("devices.datasource.replica.lag", replica, ReplicaNode::lagSeconds)
+                    .description("Seconds the replica was behind the primary at the last check, -1 when unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (var replica : replicas) {
+            if (replica.dataSource() instanceof HikariDataSource dataSource) {
+                dataSource.close();
+            }
+        }
+    }
+
+    private static List<ReplicaNode> createReplicas(ReplicaRoutingProperties properties,
+                                                    DataSourceProperties dataSourceProperties) {
+        var replicas = new ArrayList<ReplicaNode>(properties.nodes().size());
+        for (int i = 0; i < properties.nodes().size(); i++) {
+            var replica = properties.nodes().get(i);
+            var config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(replica.url());
+            config.setUsername(Objects.requireNonNullElse(replica.username(), dataSourceProperties.determineUsername()));
+            config.setPassword(Objects.requireNonNullElse(replica.password(), dataSourceProperties.determinePassword()));
+            config.setMaximumPoolSize(properties.maximumPoolSize());
+            config.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            config.setReadOnly(true);
+            // A replica that is down at startup is ejected by the health check instead of failing the application
+            config.setInitializationFailTimeout(-1);
+            // Exports stream from the replicas through a server side cursor, as they do on the primary
+            config.addDataSourceProperty("useCursorFetch", "true");
+            replicas.add(new ReplicaNode(config.getPoolName(), new HikariDataSource(config)));
+        }
+        return replicas;
+    }
+}
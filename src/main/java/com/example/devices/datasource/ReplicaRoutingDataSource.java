@@ -0,0 +1,48 @@
+package com.example.devices.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Hands out the connections of read-only transactions: from the next healthy replica, or from the primary when
+ * the client wrote recently, every replica is ejected or the replica fails to connect. A replica that fails to
+ * connect is ejected until the next health check admits it again.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final Supplier<ReplicaPool> replicaPool;
+    private final Supplier<ReadYourWrites> readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, Supplier<ReplicaPool> replicaPool,
+                                    Supplier<ReadYourWrites> readYourWrites) {
+        this.primary = primary;
+        this.replicaPool = replicaPool;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!readYourWrites.get().isSticky()) {
+            var replica = replicaPool.get().nextHealthy();
+            if (replica != null) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    replica.eject(e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Replicas have credentials of their own, explicit ones only make sense for the primary
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.devices.datasource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts the data source behind a {@link LazyConnectionDataSourceProxy}, which only fetches a connection at the
+ * first statement. A transaction answered from the cache then never takes a connection from the pool, and one
+ * that does has been marked read-only by then, so with replicas enabled its connection comes from the
+ * {@link ReplicaRoutingDataSource}. Runs before other post processors so that their wrappers, like the slow
+ * query log, see the statements of the replicas too.
+ */
+public class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final boolean replicasEnabled;
+    private final ObjectProvider<ReplicaPool> replicaPool;
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
+
+    public ReplicaRoutingPostProcessor(boolean replicasEnabled, ObjectProvider<ReplicaPool> replicaPool,
+                                       ObjectProvider<ReadYourWrites> readYourWrites) {
+        this.replicasEnabled = replicasEnabled;
+        this.replicaPool = replicaPool;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+            var proxy = new LazyConnectionDataSourceProxy(dataSource);
+            if (replicasEnabled) {
+                proxy.setReadOnlyDataSource(
+                        new ReplicaRoutingDataSource(dataSource, replicaPool::getObject, readYourWrites::getObject));
+            }
+            return proxy;
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
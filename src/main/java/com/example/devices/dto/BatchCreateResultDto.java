@@ -0,0 +1,24 @@
+package com.example.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "Result of a batch device creation")
+public class BatchCreateResultDto {
+
+    @Schema(description = "Number of created devices", example = "998")
+    private int created;
+    @Schema(description = "Number of rejected devices", example = "2")
+    private int failed;
+    @Schema(description = "Per device results in request order")
+    private List<BatchItemResultDto> results;
+}
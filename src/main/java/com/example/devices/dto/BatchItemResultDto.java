@@ -0,0 +1,27 @@
+package com.example.devices.dto;
+
+import com.example.devices.enums.BatchItemStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "Outcome of a single device of a batch")
+public class BatchItemResultDto {
+
+    @Schema(description = "Position of the device in the request", example = "0")
+    private int index;
+    @Schema(description = "Item status", example = "CREATED")
+    private BatchItemStatus status;
+    @Schema(description = "Created device, absent when the item failed")
+    private DeviceDto device;
+    @Schema(description = "Errors", example = "[Name is required]")
+    private List<String> errors;
+}
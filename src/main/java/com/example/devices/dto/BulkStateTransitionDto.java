@@ -0,0 +1,39 @@
+package com.example.devices.dto;
+
+import com.example.devices.enums.State;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "Moves every device matching all given filters to the target state")
+public class BulkStateTransitionDto {
+
+    @Schema(description = "Only devices of this brand", example = "nokia")
+    private String brand;
+    @Schema(description = "Only devices currently in this state", example = "AVAILABLE")
+    private State currentState;
+    @Schema(description = "Only devices with these ids")
+    private List<UUID> ids;
+    @NotNull(message = "Target state is required")
+    @Schema(description = "State to move the devices to", example = "INACTIVE")
+    private State targetState;
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one of brand, currentState or ids is required")
+    public boolean isFilterPresent() {
+        return Objects.nonNull(brand) || Objects.nonNull(currentState) || (Objects.nonNull(ids) && !ids.isEmpty());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "Result of a bulk state transition")
+public class BulkStateTransitionResultDto {
+
+    @Schema(description = "Number of devices moved to the target state", example = "125000")
+    private long updated;
+    @Schema(description = "Number of UPDATE statements executed", example = "125")
+    private int chunks;
+}
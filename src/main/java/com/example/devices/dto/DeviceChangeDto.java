@@ -0,0 +1,30 @@
+package com.example.devices.dto;
+
+import com.example.devices.enums.ChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "A committed change of a device, sent by the change feed")
+public class DeviceChangeDto {
+
+    @Schema(description = "Kind of change", example = "STATE_CHANGED")
+    private ChangeType type;
+    @Schema(description = "Id of the changed device", example = "0195f3c4-5a2e-7b1c-9d3e-4f5a6b7c8d9e")
+    private UUID id;
+    @Schema(description = "Device before the change, absent for creations. State changes carry id, brand and state only")
+    private DeviceDto before;
+    @Schema(description = "Device after the change, absent for deletions. State changes carry id, brand and state only")
+    private DeviceDto after;
+    @Schema(description = "When the change was committed", example = "2025-03-01T10:15:30Z")
+    private Instant changedAt;
+}
@@ -0,0 +1,27 @@
+package com.example.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "Devices changed and deleted since a delta token")
+public class DeviceDeltaDto {
+
+    @Schema(description = "Devices created or modified since the token, in their current state")
+    private List<DeviceDto> devices;
+    @Schema(description = "Devices deleted since the token")
+    private List<DeviceTombstoneDto> deleted;
+    @Schema(description = "Token for the next sync, or for the next page while hasMore is true",
+            example = "MjAyNS0wMy0wMVQxMDoxNTozMFp8ZmZmZmZmZmYtZmZmZi1mZmZmLWZmZmYtZmZmZmZmZmZmZmZm")
+    private String nextToken;
+    @Schema(description = "More changes are waiting, sync again from nextToken right away", example = "false")
+    private boolean hasMore;
+}
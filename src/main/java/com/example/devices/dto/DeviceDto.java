@@ -4,9 +4,11 @@ import com.example.devices.enums.State;
 import com.example.devices.validation.OnPut;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -22,6 +24,11 @@ import java.util.UUID;
 @Schema(description = "Device object")
 public class DeviceDto {
 
+    // Shared and thread-safe, building a mapper per toString call made logging a device expensive
+    private static final ObjectWriter TO_STRING_WRITER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .writerFor(DeviceDto.class);
+
     @Schema(description = "id for user", example = "5def1285-6885-4002-b95c-a6b3fcc67956")
     private UUID id;
     @NotBlank(message = "Name is required", groups = OnPut.class)
@@ -30,17 +37,19 @@ public class DeviceDto {
     @NotBlank(message = "Brand is required", groups = OnPut.class)
     @Schema(description = "Device brand", example = "nokia")
     private String brand;
-    @NotBlank(message = "State is required", groups = OnPut.class)
+    @NotNull(message = "State is required", groups = OnPut.class)
     @Schema(description = "Device state", example = "IN_USE", allowableValues = { "AVAILABLE", "IN_USE", "MAINTENANCE" })
     private State state;
     @Schema(description = "Device creationTime", example = "2025-03-29T20:40:24.177257Z")
     private Instant creationTime;
+    @Schema(description = "Device version, increases with every change. Sent back as If-Match or in the body, " +
+            "an update is rejected when the device changed in between", example = "3")
+    private Long version;
 
     @Override
     public String toString() {
-        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
         try {
-            return objectMapper.writeValueAsString(this);
+            return TO_STRING_WRITER.writeValueAsString(this);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -85,4 +94,12 @@ public class DeviceDto {
     public void setCreationTime(Instant creationTime) {
         this.creationTime = creationTime;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.devices.dto;
+
+import com.example.devices.enums.State;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+
+/**
+ * Filter and keyset paging parameters of a device list request.
+ * {@code createdFrom} is inclusive, {@code createdTo} is exclusive.
+ */
+@Value
+@Builder(toBuilder = true)
+public class DeviceFilter {
+
+    String brand;
+    State state;
+    Instant createdFrom;
+    Instant createdTo;
+    Integer limit;
+    String cursor;
+    Sort.Direction direction;
+}
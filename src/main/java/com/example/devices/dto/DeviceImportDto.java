@@ -0,0 +1,41 @@
+package com.example.devices.dto;
+
+import com.example.devices.enums.ImportFormat;
+import com.example.devices.enums.ImportStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "Progress of a bulk import")
+public class DeviceImportDto {
+
+    @Schema(description = "Import id", example = "0195f3a8-7c2e-7b1a-9d4e-2f6b8c0a1e3d")
+    private UUID id;
+    @Schema(description = "Format of the uploaded file", example = "CSV")
+    private ImportFormat format;
+    @Schema(description = "Import status, a FAILED import resumes from its last checkpoint", example = "RUNNING")
+    private ImportStatus status;
+    @Schema(description = "Share of the file imported up to the last checkpoint, in percent", example = "42.5")
+    private double progress;
+    @Schema(description = "Devices created", example = "420000")
+    private long imported;
+    @Schema(description = "Rows rejected, see the errors of the import", example = "12")
+    private long failed;
+    @Schema(description = "Rows imported or rejected per second of processing", example = "38000")
+    private long rowsPerSecond;
+    @Schema(description = "When the file was uploaded", example = "2025-03-01T10:15:30Z")
+    private Instant createdAt;
+    @Schema(description = "When the import completed or failed, absent while it runs", example = "2025-03-01T10:17:02Z")
+    private Instant finishedAt;
+    @Schema(description = "Why the import failed, absent unless it did", example = "Connection is not available")
+    private String failure;
+}
@@ -0,0 +1,20 @@
+package com.example.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "A row of an import that was rejected")
+public class DeviceImportErrorDto {
+
+    @Schema(description = "Line of the file, counting from 1", example = "17")
+    private long line;
+    @Schema(description = "Errors", example = "Name is required; State is required")
+    private String errors;
+}
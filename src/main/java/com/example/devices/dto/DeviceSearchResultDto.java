@@ -0,0 +1,22 @@
+package com.example.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "Devices matching a search, best match first")
+public class DeviceSearchResultDto {
+
+    @Schema(description = "The best ranked matching devices, at most limit of them")
+    private List<DeviceDto> devices;
+    @Schema(description = "Number of matching devices", example = "42")
+    private int total;
+}
@@ -0,0 +1,29 @@
+package com.example.devices.dto;
+
+import com.example.devices.enums.State;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "Device counts of the fleet")
+public class DeviceStatsDto {
+
+    @Schema(description = "Number of devices", example = "1200")
+    private long total;
+    @Schema(description = "Number of devices per state", example = "{\"AVAILABLE\": 700, \"IN_USE\": 450, \"INACTIVE\": 50}")
+    private Map<State, Long> states;
+    @Schema(description = "Number of devices per brand and state",
+            example = "{\"nokia\": {\"AVAILABLE\": 300, \"IN_USE\": 200, \"INACTIVE\": 10}}")
+    private Map<String, Map<State, Long>> brands;
+    @Schema(description = "When the counts were last checked against the database", example = "2025-03-01T10:15:30Z")
+    private Instant reconciledAt;
+}
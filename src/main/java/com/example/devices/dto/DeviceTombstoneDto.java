@@ -0,0 +1,23 @@
+package com.example.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Schema(description = "A deleted device")
+public class DeviceTombstoneDto {
+
+    @Schema(description = "Id of the deleted device", example = "0195f3c4-5a2e-7b1c-9d3e-4f5a6b7c8d9e")
+    private UUID id;
+    @Schema(description = "When the device was deleted", example = "2025-03-01T10:15:30Z")
+    private Instant deletedAt;
+}
@@ -17,4 +17,6 @@ public class DevicesDto {
 
     @Schema(description = "List of Device objects")
     private List<DeviceDto> devices;
+    @Schema(description = "Opaque cursor of the next page, null on the last page", example = "MjAyNS0wMy0yOVQyMDo0MDoyNC4xNzcyNTdafDVkZWYxMjg1")
+    private String nextCursor;
 }
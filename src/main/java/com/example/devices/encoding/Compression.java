@@ -0,0 +1,53 @@
+package com.example.devices.encoding;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The content codings cached responses are stored in besides their plain body.
+ */
+public final class Compression {
+
+    public static final String GZIP = "gzip";
+    public static final String ZSTD = "zstd";
+
+    // zstd's own default, compresses about like gzip at a fraction of its CPU time
+    private static final int ZSTD_LEVEL = 3;
+
+    private Compression() {}
+
+    public static byte[] gzip(byte[] body) {
+        var compressed = new ByteArrayOutputStream(body.length / 4);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    public static byte[] zstd(byte[] body) {
+        return Zstd.compress(body, ZSTD_LEVEL);
+    }
+
+    /**
+     * Whether {@code coding} is listed in an {@code Accept-Encoding} header without being excluded by {@code q=0}.
+     */
+    public static boolean isAccepted(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var accepted : acceptEncoding.split(",")) {
+            var parts = accepted.split(";");
+            if (coding.equalsIgnoreCase(parts[0].trim())
+                    && !(parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
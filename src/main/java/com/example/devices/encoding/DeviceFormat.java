@@ -0,0 +1,58 @@
+package com.example.devices.encoding;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The encodings a device list is served in, JSON first as the default.
+ */
+public enum DeviceFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    PROTOBUF(new MediaType("application", "x-protobuf"));
+
+    private final MediaType mediaType;
+
+    DeviceFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Picks the format of the highest quality accepted media type. Falls back to JSON when nothing is accepted
+     * explicitly, or nothing accepted is supported, like the list endpoint always did.
+     */
+    public static DeviceFormat negotiate(String accept) {
+        return negotiate(accept, EnumSet.allOf(DeviceFormat.class));
+    }
+
+    /**
+     * As {@link #negotiate(String)}, among the given formats only.
+     */
+    public static DeviceFormat negotiate(String accept, Set<DeviceFormat> formats) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .filter(accepted -> accepted.getQualityValue() > 0)
+                    .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                    .flatMap(accepted -> Arrays.stream(values())
+                            .filter(format -> formats.contains(format) && accepted.includes(format.mediaType)))
+                    .findFirst()
+                    .orElse(JSON);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.devices.encoding;
+
+import com.example.devices.json.DeviceJsonWriter;
+import com.example.devices.pagination.DevicePage;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes a device page in any {@link DeviceFormat}. CBOR and Smile are binary backends of the same Jackson
+ * streaming API, so {@link DeviceJsonWriter} writes them with the JSON field layout.
+ */
+@Component
+public class DevicePageEncoder {
+
+    private final DeviceJsonWriter deviceJsonWriter;
+    private final DeviceProtobufCodec deviceProtobufCodec;
+    private final CBORFactory cborFactory = new CBORFactory();
+    private final SmileFactory smileFactory = new SmileFactory();
+
+    public DevicePageEncoder(DeviceJsonWriter deviceJsonWriter, DeviceProtobufCodec deviceProtobufCodec) {
+        this.deviceJsonWriter = deviceJsonWriter;
+        this.deviceProtobufCodec = deviceProtobufCodec;
+    }
+
+    public byte[] encode(DevicePage page, DeviceFormat format) {
+        return switch (format) {
+            case JSON -> deviceJsonWriter.writeDevicePage(page);
+            case CBOR -> deviceJsonWriter.writeDevicePage(cborFactory, page);
+            case SMILE -> deviceJsonWriter.writeDevicePage(smileFactory, page);
+            case PROTOBUF -> deviceProtobufCodec.encode(page);
+        };
+    }
+}
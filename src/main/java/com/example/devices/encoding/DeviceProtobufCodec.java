@@ -0,0 +1,212 @@
+package com.example.devices.encoding;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DevicesDto;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.pagination.DevicePage;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Encodes device pages as the {@code Devices} message of {@code src/main/proto/devices.proto}, straight from the
+ * entities like {@code DeviceJsonWriter} does for JSON. Sizes are computed first so every page is written into one
+ * exactly sized array. Field numbers below must stay in line with the schema.
+ */
+@Component
+public class DeviceProtobufCodec {
+
+    private static final int DEVICES = 1;
+    private static final int NEXT_CURSOR = 2;
+
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int BRAND = 3;
+    private static final int STATE = 4;
+    private static final int CREATION_TIME = 5;
+    private static final int VERSION = 6;
+
+    private static final int SECONDS = 1;
+    private static final int NANOS = 2;
+
+    private static final int UUID_SIZE = 16;
+
+    public byte[] encode(DevicePage page) {
+        var devices = page.devices();
+        var deviceSizes = new int[devices.size()];
+        var size = 0;
+        for (int i = 0; i < devices.size(); i++) {
+            deviceSizes[i] = deviceSize(devices.get(i));
+            size += CodedOutputStream.computeTagSize(DEVICES) + CodedOutputStream.computeUInt32SizeNoTag(deviceSizes[i])
+                    + deviceSizes[i];
+        }
+        if (page.nextCursor() != null) {
+            size += CodedOutputStream.computeStringSize(NEXT_CURSOR, page.nextCursor());
+        }
+        var bytes = new byte[size];
+        var output = CodedOutputStream.newInstance(bytes);
+        try {
+            for (int i = 0; i < devices.size(); i++) {
+                output.writeTag(DEVICES, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(deviceSizes[i]);
+                writeDevice(output, devices.get(i));
+            }
+            if (page.nextCursor() != null) {
+                output.writeString(NEXT_CURSOR, page.nextCursor());
+            }
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes;
+    }
+
+    public DevicesDto decode(byte[] bytes) throws IOException {
+        var input = CodedInputStream.newInstance(bytes);
+        var devices = new ArrayList<DeviceDto>();
+        String nextCursor = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case DEVICES -> {
+                    var limit = input.pushLimit(input.readRawVarint32());
+                    devices.add(readDevice(input));
+                    input.popLimit(limit);
+                }
+                case NEXT_CURSOR -> nextCursor = input.readStringRequireUtf8();
+                default -> input.skipField(tag);
+            }
+        }
+        return DevicesDto.builder()
+                .devices(devices)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static int deviceSize(Device device) {
+        var size = 0;
+        if (device.getId() != null) {
+            size += CodedOutputStream.computeTagSize(ID) + CodedOutputStream.computeUInt32SizeNoTag(UUID_SIZE) + UUID_SIZE;
+        }
+        if (device.getName() != null) {
+            size += CodedOutputStream.computeStringSize(NAME, device.getName());
+        }
+        if (device.getBrand() != null) {
+            size += CodedOutputStream.computeStringSize(BRAND, device.getBrand());
+        }
+        if (device.getState() != null) {
+            size += CodedOutputStream.computeEnumSize(STATE, stateNumber(device.getState()));
+        }
+        if (device.getCreationTime() != null) {
+            var timestampSize = timestampSize(device.getCreationTime());
+            size += CodedOutputStream.computeTagSize(CREATION_TIME) + CodedOutputStream.computeUInt32SizeNoTag(timestampSize)
+                    + timestampSize;
+        }
+        if (device.getVersion() != null) {
+            size += CodedOutputStream.computeInt64Size(VERSION, device.getVersion());
+        }
+        return size;
+    }
+
+    private static void writeDevice(CodedOutputStream output, Device device) throws IOException {
+        if (device.getId() != null) {
+            output.writeTag(ID, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(UUID_SIZE);
+            writeBigEndian(output, device.getId().getMostSignificantBits());
+            writeBigEndian(output, device.getId().getLeastSignificantBits());
+        }
+        if (device.getName() != null) {
+            output.writeString(NAME, device.getName());
+        }
+        if (device.getBrand() != null) {
+            output.writeString(BRAND, device.getBrand());
+        }
+        if (device.getState() != null) {
+            output.writeEnum(STATE, stateNumber(device.getState()));
+        }
+        if (device.getCreationTime() != null) {
+            var creationTime = device.getCreationTime();
+            output.writeTag(CREATION_TIME, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(timestampSize(creationTime));
+            // Zero fields are left out like proto3 does for default values
+            if (creationTime.getEpochSecond() != 0) {
+                output.writeInt64(SECONDS, creationTime.getEpochSecond());
+            }
+            if (creationTime.getNano() != 0) {
+                output.writeInt32(NANOS, creationTime.getNano());
+            }
+        }
+        if (device.getVersion() != null) {
+            output.writeInt64(VERSION, device.getVersion());
+        }
+    }
+
+    private static DeviceDto readDevice(CodedInputStream input) throws IOException {
+        var device = new DeviceDto();
+        while (!input.isAtEnd()) {
+            var tag = input.readTag();
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case ID -> {
+                    var id = input.readByteArray();
+                    device.setId(new UUID(readBigEndian(id, 0), readBigEndian(id, 8)));
+                }
+                case NAME -> device.setName(input.readStringRequireUtf8());
+                case BRAND -> device.setBrand(input.readStringRequireUtf8());
+                case STATE -> {
+                    var number = input.readEnum();
+                    device.setState(number > 0 && number <= State.values().length ? State.values()[number - 1] : null);
+                }
+                case CREATION_TIME -> {
+                    var limit = input.pushLimit(input.readRawVarint32());
+                    long seconds = 0;
+                    int nanos = 0;
+                    for (int field = input.readTag(); field != 0; field = input.readTag()) {
+                        switch (WireFormat.getTagFieldNumber(field)) {
+                            case SECONDS -> seconds = input.readInt64();
+                            case NANOS -> nanos = input.readInt32();
+                            default -> input.skipField(field);
+                        }
+                    }
+                    input.popLimit(limit);
+                    device.setCreationTime(Instant.ofEpochSecond(seconds, nanos));
+                }
+                case VERSION -> device.setVersion(input.readInt64());
+                default -> input.skipField(tag);
+            }
+        }
+        return device;
+    }
+
+    private static int timestampSize(Instant instant) {
+        return (instant.getEpochSecond() == 0 ? 0 : CodedOutputStream.computeInt64Size(SECONDS, instant.getEpochSecond()))
+                + (instant.getNano() == 0 ? 0 : CodedOutputStream.computeInt32Size(NANOS, instant.getNano()));
+    }
+
+    /**
+     * The number of the state in the schema, 0 is reserved for an unspecified state.
+     */
+    private static int stateNumber(State state) {
+        return state.ordinal() + 1;
+    }
+
+    private static void writeBigEndian(CodedOutputStream output, long value) throws IOException {
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            output.writeRawByte((byte) (value >>> shift));
+        }
+    }
+
+    private static long readBigEndian(byte[] bytes, int offset) {
+        var value = 0L;
+        for (int i = offset; i < offset + Long.BYTES; i++) {
+            value = (value << Byte.SIZE) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.devices.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A row of the brands lookup table the devices refer to by id. Mapped for the schema, read and written through
+ * {@link com.example.devices.brand.BrandDictionary}.
+ */
+@Entity
+@Table(name = "brands", uniqueConstraints = @UniqueConstraint(name = Brand.NAME_KEY_CONSTRAINT, columnNames = "name_key"))
+public class Brand {
+
+    public static final String NAME_KEY_CONSTRAINT = "uk_brands_name_key";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    // The canonical spelling, the one the brand was first registered with
+    @Column(nullable = false)
+    private String name;
+    // The lower-cased name, unique so that brands differing in case only are one brand
+    @Column(name = "name_key", nullable = false)
+    private String nameKey;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getNameKey() {
+        return nameKey;
+    }
+}
@@ -1,20 +1,28 @@
 package com.example.devices.entity;
 
+import com.example.devices.brand.BrandConverter;
 import com.example.devices.enums.State;
+import com.example.devices.id.GeneratedUuidV7;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 
@@ -22,25 +30,66 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "devices")
+@Table(name = "devices", indexes = {
+        @Index(name = Device.BRAND_STATE_INDEX, columnList = "brand_id, state, creation_time"),
+        @Index(name = Device.BRAND_INDEX, columnList = "brand_id, creation_time"),
+        @Index(name = Device.STATE_INDEX, columnList = "state, creation_time"),
+        @Index(name = Device.CREATION_TIME_INDEX, columnList = "creation_time"),
+        @Index(name = Device.MODIFIED_AT_INDEX, columnList = "modified_at"),
+        @Index(name = Device.STATE_MODIFIED_AT_INDEX, columnList = "state, modified_at")
+})
 public class Device {
 
+    // InnoDB appends the primary key to every secondary index, so each one also serves ORDER BY creation_time, id
+    public static final String BRAND_STATE_INDEX = "idx_devices_brand_state_creation_time";
+    public static final String BRAND_INDEX = "idx_devices_brand_creation_time";
+    public static final String STATE_INDEX = "idx_devices_state_creation_time";
+    public static final String CREATION_TIME_INDEX = "idx_devices_creation_time";
+    public static final String MODIFIED_AT_INDEX = "idx_devices_modified_at";
+    public static final String STATE_MODIFIED_AT_INDEX = "idx_devices_state_modified_at";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(columnDefinition = "BINARY(16)")
     private UUID id;
     @Column(name = "device_name", nullable = false)
     private String name;
-    @Column(nullable = false)
+    // The id of the brands row, read back as the name shared by every device of the brand
+    @Convert(converter = BrandConverter.class)
+    @Column(name = "brand_id", nullable = false)
     private String brand;
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private State state;
     @Column(name = "creation_time", updatable = false)
     private Instant creationTime;
+    // Every write sets it, bulk updates included, the delta sync reads the devices changed after a point in time
+    @ColumnDefault("(UTC_TIMESTAMP(6))")
+    @Column(name = "modified_at", nullable = false)
+    private Instant modifiedAt;
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 
     @PrePersist
     private void onCreate() {
         this.creationTime = Instant.now();
+        this.modifiedAt = modificationTime();
+    }
+
+    @PreUpdate
+    private void onUpdate() {
+        this.modifiedAt = modificationTime();
+    }
+
+    /**
+     * The current time at the precision of the {@code modified_at} column, so a stored value compares equal to
+     * the one it was written from.
+     */
+    public static Instant modificationTime() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public UUID getId() {
@@ -82,4 +131,20 @@ public class Device {
     public void setCreationTime(Instant creationTime) {
         this.creationTime = creationTime;
     }
+
+    public Instant getModifiedAt() {
+        return modifiedAt;
+    }
+
+    public void setModifiedAt(Instant modifiedAt) {
+        this.modifiedAt = modifiedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
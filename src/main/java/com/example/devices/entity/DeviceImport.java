@@ -0,0 +1,154 @@
+package com.example.devices.entity;
+
+import com.example.devices.enums.ImportFormat;
+import com.example.devices.enums.ImportStatus;
+import com.example.devices.id.GeneratedUuidV7;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A bulk import of an uploaded file and how far it got. The checkpoint is saved with every batch of devices
+ * written, an interrupted import continues after it.
+ */
+@Entity
+@Table(name = "device_imports")
+public class DeviceImport {
+
+    @Id
+    @GeneratedUuidV7
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportFormat format;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportStatus status;
+    // Bytes of the uploaded file
+    @Column(nullable = false)
+    private long size;
+    // Lines read up to the checkpoint, header and blank lines included, and the byte offset after them
+    @Column(name = "checkpoint_line", nullable = false)
+    private long checkpointLine;
+    @Column(name = "checkpoint_offset", nullable = false)
+    private long checkpointOffset;
+    @Column(nullable = false)
+    private long imported;
+    @Column(nullable = false)
+    private long failed;
+    // Time spent importing up to the checkpoint, waiting and interruptions excluded
+    @Column(name = "processing_millis", nullable = false)
+    private long processingMillis;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+    @Column(length = 1000)
+    private String failure;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(ImportFormat format) {
+        this.format = format;
+    }
+
+    public ImportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ImportStatus status) {
+        this.status = status;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getCheckpointLine() {
+        return checkpointLine;
+    }
+
+    public void setCheckpointLine(long checkpointLine) {
+        this.checkpointLine = checkpointLine;
+    }
+
+    public long getCheckpointOffset() {
+        return checkpointOffset;
+    }
+
+    public void setCheckpointOffset(long checkpointOffset) {
+        this.checkpointOffset = checkpointOffset;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getProcessingMillis() {
+        return processingMillis;
+    }
+
+    public void setProcessingMillis(long processingMillis) {
+        this.processingMillis = processingMillis;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.devices.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.UUID;
+
+/**
+ * A row of an import that was rejected, with why.
+ */
+@NoArgsConstructor
+@Entity
+@Table(name = "device_import_errors", indexes = {
+        @Index(name = DeviceImportError.IMPORT_LINE_INDEX, columnList = "import_id, line")
+})
+public class DeviceImportError {
+
+    public static final String IMPORT_LINE_INDEX = "idx_device_import_errors_import_id_line";
+    public static final int MAX_ERRORS_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "import_id", columnDefinition = "BINARY(16)", nullable = false)
+    private UUID importId;
+    // Line of the file, counting from 1
+    @Column(nullable = false)
+    private long line;
+    @Column(nullable = false, length = MAX_ERRORS_LENGTH)
+    private String errors;
+
+    public DeviceImportError(UUID importId, long line, String errors) {
+        this.importId = importId;
+        this.line = line;
+        this.errors = errors.length() > MAX_ERRORS_LENGTH ? errors.substring(0, MAX_ERRORS_LENGTH) : errors;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getImportId() {
+        return importId;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.devices.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Marks a deleted device for the delta sync, kept for the tombstone retention and compacted afterwards.
+ */
+@NoArgsConstructor
+@Entity
+@Table(name = "device_tombstones", indexes = {
+        @Index(name = DeviceTombstone.DELETED_AT_INDEX, columnList = "deleted_at")
+})
+public class DeviceTombstone implements Persistable<UUID> {
+
+    public static final String DELETED_AT_INDEX = "idx_device_tombstones_deleted_at";
+
+    @Id
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+    @Transient
+    private boolean persisted;
+
+    public DeviceTombstone(UUID id, Instant deletedAt) {
+        this.id = id;
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    /**
+     * Whether the tombstone is yet to be inserted, which its id cannot tell as it is assigned up front.
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
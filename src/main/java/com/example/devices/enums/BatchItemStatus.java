@@ -0,0 +1,7 @@
+package com.example.devices.enums;
+
+public enum BatchItemStatus {
+
+    CREATED,
+    FAILED
+}
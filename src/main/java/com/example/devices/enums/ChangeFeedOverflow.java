@@ -0,0 +1,7 @@
+package com.example.devices.enums;
+
+public enum ChangeFeedOverflow {
+
+    DISCONNECT,
+    DROP_OLDEST
+}
@@ -0,0 +1,10 @@
+package com.example.devices.enums;
+
+public enum ChangeType {
+
+    CREATED,
+    UPDATED,
+    PATCHED,
+    STATE_CHANGED,
+    DELETED
+}
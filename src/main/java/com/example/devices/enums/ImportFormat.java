@@ -0,0 +1,8 @@
+package com.example.devices.enums;
+
+public enum ImportFormat {
+    // A header line naming the columns name, brand and state, then one device per line
+    CSV,
+    // One device object per line
+    NDJSON
+}
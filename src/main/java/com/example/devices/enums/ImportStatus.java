@@ -0,0 +1,9 @@
+package com.example.devices.enums;
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    // Stopped by an error, resumes from its last checkpoint
+    FAILED
+}
@@ -0,0 +1,31 @@
+package com.example.devices.event;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.ChangeType;
+import com.example.devices.enums.State;
+
+import java.util.UUID;
+
+/**
+ * Published by every write path of the device service. Listeners interested in committed data only
+ * should use {@code @TransactionalEventListener}.
+ * <p>
+ * {@code before} is absent for creations, {@code after} for deletions. State changes made in bulk
+ * carry id, brand and state only.
+ */
+public record DeviceChangedEvent(ChangeType type, UUID id, DeviceDto before, DeviceDto after) {
+
+    public static DeviceChangedEvent created(DeviceDto after) {
+        return new DeviceChangedEvent(ChangeType.CREATED, after.getId(), null, after);
+    }
+
+    public static DeviceChangedEvent deleted(DeviceDto before) {
+        return new DeviceChangedEvent(ChangeType.DELETED, before.getId(), before, null);
+    }
+
+    public static DeviceChangedEvent stateChanged(UUID id, String brand, State from, State to) {
+        return new DeviceChangedEvent(ChangeType.STATE_CHANGED, id,
+                DeviceDto.builder().id(id).brand(brand).state(from).build(),
+                DeviceDto.builder().id(id).brand(brand).state(to).build());
+    }
+}
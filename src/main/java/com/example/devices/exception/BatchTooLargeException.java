@@ -0,0 +1,8 @@
+package com.example.devices.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
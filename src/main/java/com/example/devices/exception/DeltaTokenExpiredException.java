@@ -0,0 +1,8 @@
+package com.example.devices.exception;
+
+public class DeltaTokenExpiredException extends RuntimeException {
+
+    public DeltaTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.devices.exception;
+
+public class DeviceImportConflictException extends RuntimeException {
+
+    public DeviceImportConflictException(String message) {
+        super(message);
+    }
+}
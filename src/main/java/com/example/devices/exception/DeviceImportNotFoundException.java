@@ -0,0 +1,8 @@
+package com.example.devices.exception;
+
+public class DeviceImportNotFoundException extends RuntimeException {
+
+    public DeviceImportNotFoundException(String message) {
+        super(message);
+    }
+}
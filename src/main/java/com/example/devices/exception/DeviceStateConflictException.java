@@ -0,0 +1,8 @@
+package com.example.devices.exception;
+
+public class DeviceStateConflictException extends RuntimeException {
+
+    public DeviceStateConflictException(String message) {
+        super(message);
+    }
+}
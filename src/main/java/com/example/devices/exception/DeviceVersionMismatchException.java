@@ -0,0 +1,8 @@
+package com.example.devices.exception;
+
+public class DeviceVersionMismatchException extends RuntimeException {
+
+    public DeviceVersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -8,4 +8,26 @@ public final class ErrorMessages {
     public static final String CANNOT_DELETE_DEVICE_IN_USE_MESSAGE = "Cannot delete a device that is in use";
     public static final String CANNOT_UPDATE_DEVICE_IN_USE_NAME_AND_BRAND_MESSAGE = "Cannot update name or brand while device is in use";
     public static final String DEVICE_NOT_FOUND_MESSAGE = "Device not found";
+    public static final String INVALID_CURSOR_MESSAGE = "Invalid page cursor";
+    public static final String INVALID_DELTA_TOKEN_MESSAGE = "Invalid delta token";
+    public static final String DELTA_TOKEN_EXPIRED_MESSAGE = "Delta token is older than the deleted devices are kept, resync from the full list";
+    public static final String INVALID_LIMIT_MESSAGE = "Limit must be a positive number";
+    public static final String BATCH_TOO_LARGE_MESSAGE = "Batch must not contain more than %d devices";
+    public static final String BATCH_ITEM_NULL_MESSAGE = "Device must not be null";
+    public static final String DEVICE_NOT_SAVED_MESSAGE = "Device could not be saved";
+    public static final String DEVICE_STATE_CONFLICT_MESSAGE = "Device is not in state %s anymore";
+    public static final String DEVICE_CONCURRENTLY_MODIFIED_MESSAGE = "Device was modified concurrently, reload and retry";
+    public static final String SAME_STATE_TRANSITION_MESSAGE = "Transition must change the state";
+    public static final String DEVICE_VERSION_MISMATCH_MESSAGE = "Device is not at version %d anymore, reload and retry";
+    public static final String TOO_MANY_SUBSCRIBERS_MESSAGE = "Too many change feed subscribers. Please try again later.";
+    public static final String BLANK_SEARCH_QUERY_MESSAGE = "Search query must not be blank";
+    public static final String SEARCH_INDEX_NOT_READY_MESSAGE = "Search index is still being built. Please try again later.";
+    public static final String DEVICE_IMPORT_NOT_FOUND_MESSAGE = "Import not found";
+    public static final String DEVICE_IMPORT_NOT_RESUMABLE_MESSAGE = "Import is %s and cannot be resumed";
+    public static final String DEVICE_IMPORT_FILE_MISSING_MESSAGE = "Import file is not kept on this instance, upload it again";
+    public static final String UNSUPPORTED_IMPORT_FORMAT_MESSAGE = "Imports are read from CSV (text/csv) or NDJSON (application/x-ndjson) files";
+    public static final String MISSING_IMPORT_COLUMNS_MESSAGE = "CSV header must name the columns name, brand and state";
+    public static final String MALFORMED_IMPORT_ROW_MESSAGE = "Row could not be parsed";
+    public static final String UNKNOWN_STATE_MESSAGE = "Unknown state %s";
+    public static final String SERVICE_BUSY_MESSAGE = "Service is busy. Please try again later.";
 }
@@ -2,8 +2,13 @@ package com.example.devices.exception;
 
 import com.example.devices.dto.error.GeneralErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -11,7 +16,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.util.List;
 
+import static com.example.devices.exception.ErrorMessages.DEVICE_CONCURRENTLY_MODIFIED_MESSAGE;
 import static com.example.devices.exception.ErrorMessages.GENERAL_INTERNAL_SERVER_ERROR_MESSAGE;
+import static com.example.devices.exception.ErrorMessages.SERVICE_BUSY_MESSAGE;
 
 @Slf4j
 @ControllerAdvice(basePackages = "com.example.devices.controller")
@@ -51,6 +58,139 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(value = InvalidPageRequestException.class)
+    public ResponseEntity<GeneralErrorResponse> invalidPageRequestException(InvalidPageRequestException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .statusMessage(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = BatchTooLargeException.class)
+    public ResponseEntity<GeneralErrorResponse> batchTooLargeException(BatchTooLargeException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .statusMessage(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = DeviceStateConflictException.class)
+    public ResponseEntity<GeneralErrorResponse> deviceStateConflictException(DeviceStateConflictException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.CONFLICT.value())
+                .statusMessage(HttpStatus.CONFLICT.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(value = DeviceVersionMismatchException.class)
+    public ResponseEntity<GeneralErrorResponse> deviceVersionMismatchException(DeviceVersionMismatchException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.PRECONDITION_FAILED.value())
+                .statusMessage(HttpStatus.PRECONDITION_FAILED.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(value = DeltaTokenExpiredException.class)
+    public ResponseEntity<GeneralErrorResponse> deltaTokenExpiredException(DeltaTokenExpiredException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.GONE.value())
+                .statusMessage(HttpStatus.GONE.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(value = ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<GeneralErrorResponse> optimisticLockingFailureException(ObjectOptimisticLockingFailureException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.CONFLICT.value())
+                .statusMessage(HttpStatus.CONFLICT.getReasonPhrase())
+                .errors(List.of(DEVICE_CONCURRENTLY_MODIFIED_MESSAGE))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * No database connection became free within the pool's connection timeout, the client should back off.
+     * Connections are taken at the first statement rather than when the transaction begins, so the timeout
+     * mostly arrives as the resource failure Hibernate and the JDBC translation make of it.
+     */
+    @ExceptionHandler(value = {CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            TransientDataAccessResourceException.class})
+    public ResponseEntity<GeneralErrorResponse> connectionUnavailableException(RuntimeException e) {
+        log.warn(e.getMessage());
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .statusMessage(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .errors(List.of(SERVICE_BUSY_MESSAGE))
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(value = TooManySubscribersException.class)
+    public ResponseEntity<GeneralErrorResponse> tooManySubscribersException(TooManySubscribersException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .statusMessage(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(value = SearchIndexNotReadyException.class)
+    public ResponseEntity<GeneralErrorResponse> searchIndexNotReadyException(SearchIndexNotReadyException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .statusMessage(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(value = DeviceImportNotFoundException.class)
+    public ResponseEntity<GeneralErrorResponse> deviceImportNotFoundException(DeviceImportNotFoundException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.NOT_FOUND.value())
+                .statusMessage(HttpStatus.NOT_FOUND.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(value = DeviceImportConflictException.class)
+    public ResponseEntity<GeneralErrorResponse> deviceImportConflictException(DeviceImportConflictException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.CONFLICT.value())
+                .statusMessage(HttpStatus.CONFLICT.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(value = UnsupportedImportFormatException.class)
+    public ResponseEntity<GeneralErrorResponse> unsupportedImportFormatException(UnsupportedImportFormatException e) {
+        var errorResponse = GeneralErrorResponse.builder()
+                .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value())
+                .statusMessage(HttpStatus.UNSUPPORTED_MEDIA_TYPE.getReasonPhrase())
+                .errors(List.of(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<GeneralErrorResponse> generalException(Exception e) {
         log.error(e.getMessage());
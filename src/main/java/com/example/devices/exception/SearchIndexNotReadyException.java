@@ -0,0 +1,8 @@
+package com.example.devices.exception;
+
+public class SearchIndexNotReadyException extends RuntimeException {
+
+    public SearchIndexNotReadyException(String message) {
+        super(message);
+    }
+}
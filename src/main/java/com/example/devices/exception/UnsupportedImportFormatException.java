@@ -0,0 +1,8 @@
+package com.example.devices.exception;
+
+public class UnsupportedImportFormatException extends RuntimeException {
+
+    public UnsupportedImportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.devices.feed;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.ChangeFeedOverflow;
+import com.example.devices.enums.State;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One open stream. Changes are queued by the committing thread without ever touching the connection, and sent by
+ * a thread of the subscription's own, so a slow client only ever holds up itself. When its queue is full the
+ * overflow policy either drops the oldest queued change or ends the stream.
+ */
+class ChangeFeedSubscription implements Runnable {
+
+    private final DeviceChangeFeed feed;
+    private final SseEmitter emitter;
+    private final String brand;
+    private final State state;
+    private final BlockingQueue<DeviceChange> pending;
+    private final ChangeFeedOverflow overflow;
+    private final Duration heartbeat;
+    private List<SseEmitter.SseEventBuilder> initialEvents = List.of();
+    private volatile Thread thread;
+    private volatile boolean closed;
+    private volatile boolean overflowed;
+
+    ChangeFeedSubscription(DeviceChangeFeed feed, SseEmitter emitter, String brand, State state, int buffer,
+                           ChangeFeedOverflow overflow, Duration heartbeat) {
+        this.feed = feed;
+        this.emitter = emitter;
+        this.brand = brand;
+        this.state = state;
+        this.pending = new ArrayBlockingQueue<>(buffer);
+        this.overflow = overflow;
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * Whether the change touched a device of the subscribed brand and state, before or after it. Changes without
+     * a brand, state changes through the compare-and-set endpoint, are sent to every brand.
+     */
+    boolean matches(DeviceChange change) {
+        return matches(change.before()) || matches(change.after());
+    }
+
+    void start(Thread thread, List<SseEmitter.SseEventBuilder> initialEvents) {
+        this.initialEvents = initialEvents;
+        this.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Queues a matching change, called in sequence order by the feed.
+     */
+    void offer(DeviceChange change) {
+        if (closed || !matches(change) || pending.offer(change)) {
+            return;
+        }
+        if (overflow == ChangeFeedOverflow.DROP_OLDEST) {
+            pending.poll();
+            pending.offer(change);
+            feed.dropped();
+        } else if (!overflowed) {
+            overflowed = true;
+            feed.disconnected();
+            interrupt();
+        }
+    }
+
+    void close() {
+        closed = true;
+        interrupt();
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (var event : initialEvents) {
+                emitter.send(event);
+            }
+            while (!closed && !overflowed) {
+                var change = pending.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                emitter.send(change == null ? SseEmitter.event().comment("") : feed.event(change));
+            }
+        } catch (InterruptedException e) {
+            // Closed or overflowed, told apart below
+        } catch (IOException | IllegalStateException e) {
+            // The client went away
+            closed = true;
+        } finally {
+            feed.remove(this);
+        }
+        if (overflowed && !closed) {
+            // The client resumes from the last change it received
+            emitter.complete();
+        }
+    }
+
+    private void interrupt() {
+        // Not started yet when the overflow happens while the replay is collected
+        var current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    private boolean matches(DeviceDto device) {
+        return device != null
+                && (brand == null || device.getBrand() == null || brand.equalsIgnoreCase(device.getBrand()))
+                && (state == null || state == device.getState());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.devices.feed;
+
+import com.example.devices.dto.DeviceDto;
+
+/**
+ * A committed change as kept in the change log, {@code json} is the {@code DeviceChangeDto} sent to subscribers,
+ * written once for all of them.
+ */
+public record DeviceChange(long sequence, DeviceDto before, DeviceDto after, String json) {
+}
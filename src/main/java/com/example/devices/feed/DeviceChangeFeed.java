@@ -0,0 +1,188 @@
+package com.example.devices.feed;
+
+import com.example.devices.config.ChangeFeedProperties;
+import com.example.devices.dto.DeviceChangeDto;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.exception.TooManySubscribersException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed device changes to Server-Sent Events subscribers and keeps the last of them in a bounded
+ * {@link DeviceChangeLog}, so a client reconnecting with its Last-Event-ID misses nothing. Event ids are the log
+ * sequence behind a prefix of the run, an id the log no longer reaches back to, or of an earlier run, is
+ * answered with a {@value #RESET_EVENT} event telling the client to reload the devices.
+ */
+@Component
+public class DeviceChangeFeed implements MeterBinder, DisposableBean {
+
+    static final String RESET_EVENT = "reset";
+    private static final String RESET_MESSAGE = "Changes since Last-Event-ID are not available anymore, reload the devices";
+
+    // Tells event ids of an earlier run apart, sequences start over on every start
+    private final String runId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final ChangeFeedProperties properties;
+    private final ObjectWriter changeWriter;
+    // Appending a change and handing it to the subscriptions happen together, so every subscription sees the
+    // changes in sequence order and a new one starts exactly where its replay ends
+    private final ReentrantLock lock = new ReentrantLock();
+    private final DeviceChangeLog changeLog;
+    private final Set<ChangeFeedSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("change-feed-", 0).factory();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+
+    public DeviceChangeFeed(ChangeFeedProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.changeWriter = objectMapper.writerFor(DeviceChangeDto.class);
+        this.changeLog = new DeviceChangeLog(properties.logCapacity());
+    }
+
+    public SseEmitter subscribe(String brand, State state, String lastEventId) {
+        return subscribe(new SseEmitter(properties.timeout().toMillis()), brand, state, lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String brand, State state, String lastEventId) {
+        var subscription = new ChangeFeedSubscription(this, emitter, brand, state, properties.subscriberBuffer(),
+                properties.overflow(), properties.heartbeat());
+        List<SseEmitter.SseEventBuilder> replay;
+        lock.lock();
+        try {
+            if (subscriptions.size() >= properties.maxSubscribers()) {
+                throw new TooManySubscribersException(ErrorMessages.TOO_MANY_SUBSCRIBERS_MESSAGE);
+            }
+            replay = replay(subscription, lastEventId);
+            subscriptions.add(subscription);
+        } finally {
+            lock.unlock();
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onError(e -> subscription.close());
+        emitter.onTimeout(() -> {
+            subscription.close();
+            emitter.complete();
+        });
+        subscription.start(threadFactory.newThread(subscription), replay);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        var json = write(DeviceChangeDto.builder()
+                .type(event.type())
+                .id(event.id())
+                .before(event.before())
+                .after(event.after())
+                .changedAt(Instant.now())
+                .build());
+        lock.lock();
+        try {
+            var change = changeLog.append(event.before(), event.after(), json);
+            subscriptions.forEach(subscription -> subscription.offer(change));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("devices.change_feed.subscribers", subscriptions, Set::size)
+                .description("Open change feed streams")
+                .register(registry);
+        FunctionCounter.builder("devices.change_feed.dropped", dropped, AtomicLong::get)
+                .description("Changes dropped for subscribers too slow to keep up")
+                .register(registry);
+        FunctionCounter.builder("devices.change_feed.disconnected", disconnected, AtomicLong::get)
+                .description("Streams ended because their subscriber was too slow to keep up")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.forEach(ChangeFeedSubscription::close);
+    }
+
+    SseEmitter.SseEventBuilder event(DeviceChange change) {
+        return SseEmitter.event()
+                .id(eventId(change.sequence()))
+                .data(change.json(), MediaType.APPLICATION_JSON);
+    }
+
+    void remove(ChangeFeedSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    void dropped() {
+        dropped.incrementAndGet();
+    }
+
+    void disconnected() {
+        disconnected.incrementAndGet();
+    }
+
+    private List<SseEmitter.SseEventBuilder> replay(ChangeFeedSubscription subscription, String lastEventId) {
+        if (lastEventId == null) {
+            return List.of();
+        }
+        var missed = changeLog.after(sequenceOf(lastEventId));
+        if (missed == null) {
+            return List.of(SseEmitter.event()
+                    .name(RESET_EVENT)
+                    .id(eventId(changeLog.lastSequence()))
+                    .data(RESET_MESSAGE, MediaType.TEXT_PLAIN));
+        }
+        return missed.stream()
+                .filter(subscription::matches)
+                .map(this::event)
+                .toList();
+    }
+
+    private String eventId(long sequence) {
+        return runId + "-" + sequence;
+    }
+
+    private long sequenceOf(String eventId) {
+        var prefix = runId + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String write(DeviceChangeDto change) {
+        try {
+            return changeWriter.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
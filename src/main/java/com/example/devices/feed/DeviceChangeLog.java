@@ -0,0 +1,50 @@
+package com.example.devices.feed;
+
+import com.example.devices.dto.DeviceDto;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * The last changes in sequence order, bounded to a capacity. Not thread safe, the {@link DeviceChangeFeed}
+ * guards it together with its subscriptions.
+ */
+class DeviceChangeLog {
+
+    private final ArrayDeque<DeviceChange> changes;
+    private final int capacity;
+    private long lastSequence;
+
+    DeviceChangeLog(int capacity) {
+        this.capacity = capacity;
+        this.changes = new ArrayDeque<>(capacity);
+    }
+
+    DeviceChange append(DeviceDto before, DeviceDto after, String json) {
+        if (changes.size() == capacity) {
+            changes.removeFirst();
+        }
+        var change = new DeviceChange(++lastSequence, before, after, json);
+        changes.addLast(change);
+        return change;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * The changes following {@code sequence}, or {@code null} when some of them were dropped already or the
+     * sequence was never handed out.
+     */
+    List<DeviceChange> after(long sequence) {
+        var oldest = changes.isEmpty() ? lastSequence + 1 : changes.getFirst().sequence();
+        if (sequence < oldest - 1 || sequence > lastSequence) {
+            return null;
+        }
+        // Sequences in the log are contiguous, the first change to return is found by counting
+        return changes.stream()
+                .skip(sequence - oldest + 1)
+                .toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.devices.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562): 48 bits of Unix epoch milliseconds, then version, 12 bits of
+ * {@code rand_a} and 62 bits of {@code rand_b}. Ids generated by this JVM are strictly increasing: within the same
+ * millisecond {@code rand_a} is used as a counter (RFC 9562, method 1), on overflow the timestamp moves ahead by one.
+ * Increasing keys are appended to the right end of the InnoDB clustered index instead of splitting random pages.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final int MAX_COUNTER = 0xFFF;
+
+    private static long lastTimestamp = -1;
+    private static int counter;
+
+    private UuidV7() {}
+
+    public static UUID next() {
+        long timestamp;
+        int sequence;
+        LOCK.lock();
+        try {
+            timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            if (timestamp == lastTimestamp) {
+                if (counter == MAX_COUNTER) {
+                    timestamp++;
+                    counter = RANDOM.nextInt(MAX_COUNTER / 2);
+                } else {
+                    counter++;
+                }
+            } else {
+                // Start low in the millisecond to leave room for the counter
+                counter = RANDOM.nextInt(MAX_COUNTER / 2);
+            }
+            lastTimestamp = timestamp;
+            sequence = counter;
+        } finally {
+            LOCK.unlock();
+        }
+        return of(timestamp, sequence, RANDOM.nextLong());
+    }
+
+    /**
+     * Unix epoch milliseconds the id was generated at.
+     */
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    static UUID of(long timestamp, int randA, long randB) {
+        var mostSignificantBits = (timestamp << 16) | 0x7000L | (randA & MAX_COUNTER);
+        var leastSignificantBits = (randB & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
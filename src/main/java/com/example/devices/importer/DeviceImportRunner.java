@@ -0,0 +1,299 @@
+package com.example.devices.importer;
+
+import com.example.devices.brand.BrandDictionary;
+import com.example.devices.config.DeviceImportProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.entity.DeviceImport;
+import com.example.devices.entity.DeviceImportError;
+import com.example.devices.enums.ImportStatus;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.mapper.DeviceMapper;
+import com.example.devices.repository.DeviceImportErrorRepository;
+import com.example.devices.repository.DeviceImportRepository;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.validation.OnPut;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the bulk imports in the background, {@code devices.imports.concurrency} at a time. An import reads its
+ * file one row at a time and writes the devices in batches; each batch is one transaction that also moves the
+ * checkpoint past its rows, so an import that stops, whether it failed or the instance went down, continues
+ * after its last batch without writing a device twice. A batch the database rejects is written again row by
+ * row, which sets the offending rows apart.
+ * <p>
+ * Imports still queued or running when the instance stopped are resumed at startup.
+ */
+@Slf4j
+@Component
+public class DeviceImportRunner implements MeterBinder, DisposableBean {
+
+    private static final String FILE_SUFFIX = ".import";
+    private static final String ERROR_SEPARATOR = "; ";
+    private static final int MAX_FAILURE_LENGTH = 1000;
+
+    private final DeviceImportRepository importRepository;
+    private final DeviceImportErrorRepository errorRepository;
+    private final DeviceRepository deviceRepository;
+    private final DeviceMapper deviceMapper;
+    private final BrandDictionary brandDictionary;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeviceImportProperties properties;
+    private final ObjectReader deviceReader;
+    private final ExecutorService executor;
+    private final Set<UUID> active = ConcurrentHashMap.newKeySet();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    public DeviceImportRunner(DeviceImportRepository importRepository, DeviceImportErrorRepository errorRepository,
+                              DeviceRepository deviceRepository, DeviceMapper deviceMapper,
+                              BrandDictionary brandDictionary, Validator validator,
+                              TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                              DeviceImportProperties properties, ObjectMapper objectMapper) {
+        this.importRepository = importRepository;
+        this.errorRepository = errorRepository;
+        this.deviceRepository = deviceRepository;
+        this.deviceMapper = deviceMapper;
+        this.brandDictionary = brandDictionary;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.deviceReader = objectMapper.readerFor(DeviceDto.class);
+        this.executor = Executors.newFixedThreadPool(properties.concurrency(),
+                Thread.ofVirtual().name("device-import-", 0).factory());
+    }
+
+    /**
+     * Where the file of an import is kept until the import completes.
+     */
+    public Path fileOf(UUID id) {
+        return properties.directory().resolve(id + FILE_SUFFIX);
+    }
+
+    /**
+     * Whether the import is queued or running on this instance.
+     */
+    public boolean isActive(UUID id) {
+        return active.contains(id);
+    }
+
+    /**
+     * Queues the import, unless it is already queued or running here.
+     */
+    public void submit(UUID id) {
+        if (active.add(id)) {
+            executor.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    active.remove(id);
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        importRepository.findByStatusIn(List.of(ImportStatus.QUEUED, ImportStatus.RUNNING)).stream()
+                .filter(deviceImport -> Files.exists(fileOf(deviceImport.getId())))
+                .forEach(deviceImport -> {
+                    log.info("Resuming import {} after line {}", deviceImport.getId(), deviceImport.getCheckpointLine());
+                    submit(deviceImport.getId());
+                });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("devices.imports.rows", importedRows, AtomicLong::get)
+                .description("Rows of bulk imports, written as devices or rejected")
+                .tag("outcome", "imported")
+                .register(registry);
+        FunctionCounter.builder("devices.imports.rows", failedRows, AtomicLong::get)
+                .description("Rows of bulk imports, written as devices or rejected")
+                .tag("outcome", "failed")
+                .register(registry);
+        Gauge.builder("devices.imports.active", active, Set::size)
+                .description("Bulk imports queued or running")
+                .register(registry);
+    }
+
+    /**
+     * Stops the running imports after their current batch, they resume at the next startup.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    void run(UUID id) {
+        var deviceImport = importRepository.findById(id).orElse(null);
+        if (Objects.isNull(deviceImport) || deviceImport.getStatus() == ImportStatus.COMPLETED) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                importRepository.updateStatus(id, ImportStatus.RUNNING, null, null));
+        var progress = new Progress(deviceImport);
+        var file = fileOf(id);
+        try (var reader = DeviceRowReader.open(file, deviceImport.getFormat(), deviceReader,
+                deviceImport.getCheckpointLine(), deviceImport.getCheckpointOffset())) {
+            var batch = new ArrayList<ImportRow>(properties.batchSize());
+            for (var row = reader.next(); row != null; row = reader.next()) {
+                batch.add(row);
+                if (batch.size() == properties.batchSize()) {
+                    writeBatch(progress, batch);
+                    batch.clear();
+                    if (Thread.currentThread().isInterrupted()) {
+                        // Shutting down, the import stays running and resumes at the next startup
+                        return;
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(progress, batch);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            log.warn("Import {} failed after line {}", id, progress.line, e);
+            finish(id, ImportStatus.FAILED, Objects.requireNonNullElse(e.getMessage(), e.getClass().getName()));
+            return;
+        }
+        finish(id, ImportStatus.COMPLETED, null);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete the file of import {}", id, e);
+        }
+        log.info("Import {} completed: {} devices imported, {} rows rejected in {} ms", id, progress.imported,
+                progress.failed, progress.processingMillis());
+    }
+
+    private void writeBatch(Progress progress, List<ImportRow> rows) {
+        var devices = new ArrayList<ImportRow>(rows.size());
+        var rejected = new ArrayList<DeviceImportError>();
+        for (var row : rows) {
+            var errors = row.errors().isEmpty() ? validate(row.device()) : row.errors();
+            if (errors.isEmpty()) {
+                devices.add(row);
+            } else {
+                rejected.add(new DeviceImportError(progress.id, row.line(), String.join(ERROR_SEPARATOR, errors)));
+            }
+        }
+        try {
+            write(progress, devices, rejected, rows.getLast());
+        } catch (DataAccessException e) {
+            if (rows.size() == 1) {
+                if (devices.isEmpty()) {
+                    throw e;
+                }
+                // The database rejected the device itself, the row fails on its own
+                write(progress, List.of(), List.of(new DeviceImportError(progress.id, rows.getFirst().line(),
+                        ErrorMessages.DEVICE_NOT_SAVED_MESSAGE)), rows.getFirst());
+                return;
+            }
+            // The whole batch was rolled back, write its rows one by one to set the offending ones apart
+            for (var row : rows) {
+                writeBatch(progress, List.of(row));
+            }
+        }
+    }
+
+    private void write(Progress progress, List<ImportRow> rows, List<DeviceImportError> rejected, ImportRow last) {
+        var keptErrors = Math.toIntExact(Math.max(0, Math.min(rejected.size(), properties.maxErrors() - progress.failed)));
+        var processingMillis = progress.processingMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!rows.isEmpty()) {
+                var entities = rows.stream()
+                        .map(row -> brandDictionary.registerBrandOf(deviceMapper.toEntity(row.device())))
+                        .toList();
+                deviceRepository.saveAllAndFlush(entities).stream()
+                        .map(deviceMapper::toDto)
+                        .forEach(device -> eventPublisher.publishEvent(DeviceChangedEvent.created(device)));
+            }
+            if (keptErrors > 0) {
+                errorRepository.saveAll(rejected.subList(0, keptErrors));
+            }
+            importRepository.checkpoint(progress.id, last.line(), last.endOffset(), rows.size(), rejected.size(),
+                    processingMillis);
+        });
+        progress.line = last.line();
+        progress.imported += rows.size();
+        progress.failed += rejected.size();
+        importedRows.addAndGet(rows.size());
+        failedRows.addAndGet(rejected.size());
+    }
+
+    private List<String> validate(DeviceDto device) {
+        return validator.validate(device, OnPut.class).stream().map(ConstraintViolation::getMessage).toList();
+    }
+
+    private void finish(UUID id, ImportStatus status, String failure) {
+        var message = failure == null || failure.length() <= MAX_FAILURE_LENGTH
+                ? failure : failure.substring(0, MAX_FAILURE_LENGTH);
+        try {
+            transactionTemplate.executeWithoutResult(transaction ->
+                    importRepository.updateStatus(id, status, Instant.now(), message));
+        } catch (DataAccessException e) {
+            // Left running, resumed at the next startup or on request
+            log.warn("Could not mark import {} {}", id, status, e);
+        }
+    }
+
+    /**
+     * Where a running import got, as of its last written batch.
+     */
+    private static final class Progress {
+
+        private final UUID id;
+        private final long processingMillisBefore;
+        private final long startedAt = System.nanoTime();
+        private long line;
+        private long imported;
+        private long failed;
+
+        private Progress(DeviceImport deviceImport) {
+            this.id = deviceImport.getId();
+            this.processingMillisBefore = deviceImport.getProcessingMillis();
+            this.line = deviceImport.getCheckpointLine();
+            this.imported = deviceImport.getImported();
+            this.failed = deviceImport.getFailed();
+        }
+
+        private long processingMillis() {
+            return processingMillisBefore + (System.nanoTime() - startedAt) / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.devices.importer;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.ImportFormat;
+import com.example.devices.enums.State;
+import com.example.devices.exception.ErrorMessages;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the devices of an import file one line at a time, from the start or from a checkpoint, so memory stays
+ * the same whatever the size of the file. Blank lines are skipped. CSV fields may be quoted, with doubled quotes
+ * inside, but a field cannot span lines.
+ */
+public final class DeviceRowReader implements Closeable {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final String NAME_COLUMN = "name";
+    private static final String BRAND_COLUMN = "brand";
+    private static final String STATE_COLUMN = "state";
+
+    private final LineReader lineReader;
+    private final ImportFormat format;
+    private final ObjectReader deviceReader;
+    private long line;
+    // Positions of the name, brand and state columns of a CSV file
+    private int[] columns;
+
+    private DeviceRowReader(LineReader lineReader, ImportFormat format, ObjectReader deviceReader, long line) {
+        this.lineReader = lineReader;
+        this.format = format;
+        this.deviceReader = deviceReader;
+        this.line = line;
+    }
+
+    /**
+     * Opens the file after the given number of lines, which end at the given byte offset.
+     *
+     * @param deviceReader reads a {@link DeviceDto} from an NDJSON line
+     */
+    public static DeviceRowReader open(Path file, ImportFormat format, ObjectReader deviceReader,
+                                       long line, long offset) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(offset);
+        var reader = new DeviceRowReader(new LineReader(Channels.newInputStream(channel), offset), format,
+                deviceReader, line);
+        try {
+            if (format == ImportFormat.CSV) {
+                String header;
+                if (line == 0) {
+                    header = reader.lineReader.readLine();
+                    reader.line++;
+                } else {
+                    // Resuming, the header is read once more from the start
+                    try (var headerReader = new LineReader(Files.newInputStream(file), 0)) {
+                        header = headerReader.readLine();
+                    }
+                }
+                reader.columns = columns(header);
+            }
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The next device, or {@code null} at the end of the file.
+     */
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = lineReader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        return format == ImportFormat.CSV ? csvRow(text) : ndjsonRow(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lineReader.close();
+    }
+
+    private static int[] columns(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException(ErrorMessages.MISSING_IMPORT_COLUMNS_MESSAGE);
+        }
+        if (!header.isEmpty() && header.charAt(0) == BYTE_ORDER_MARK) {
+            header = header.substring(1);
+        }
+        var names = parseCsv(header).stream().map(name -> name.strip().toLowerCase(Locale.ROOT)).toList();
+        var positions = new int[]{names.indexOf(NAME_COLUMN), names.indexOf(BRAND_COLUMN), names.indexOf(STATE_COLUMN)};
+        for (var position : positions) {
+            if (position < 0) {
+                throw new IllegalArgumentException(ErrorMessages.MISSING_IMPORT_COLUMNS_MESSAGE);
+            }
+        }
+        return positions;
+    }
+
+    private ImportRow csvRow(String text) {
+        List<String> fields;
+        try {
+            fields = parseCsv(text);
+        } catch (IllegalArgumentException e) {
+            return failed(ErrorMessages.MALFORMED_IMPORT_ROW_MESSAGE);
+        }
+        var name = field(fields, columns[0]);
+        var brand = field(fields, columns[1]);
+        var state = field(fields, columns[2]);
+        var device = DeviceDto.builder().name(name).brand(brand);
+        if (state != null) {
+            try {
+                device.state(State.valueOf(state.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return failed(String.format(ErrorMessages.UNKNOWN_STATE_MESSAGE, state));
+            }
+        }
+        return new ImportRow(line, lineReader.offset(), device.build(), List.of());
+    }
+
+    private ImportRow ndjsonRow(String text) {
+        try {
+            DeviceDto device = deviceReader.readValue(text);
+            // The database assigns these
+            device.setId(null);
+            device.setCreationTime(null);
+            device.setVersion(null);
+            return new ImportRow(line, lineReader.offset(), device, List.of());
+        } catch (JsonProcessingException e) {
+            return failed(ErrorMessages.MALFORMED_IMPORT_ROW_MESSAGE);
+        }
+    }
+
+    private ImportRow failed(String error) {
+        return new ImportRow(line, lineReader.offset(), null, List.of(error));
+    }
+
+    private static String field(List<String> fields, int position) {
+        if (position >= fields.size()) {
+            return null;
+        }
+        var value = fields.get(position).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits an RFC 4180 line: fields separated by commas, optionally quoted, a quote inside a quoted field doubled.
+     */
+    static List<String> parseCsv(String text) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.devices.importer;
+
+import com.example.devices.dto.DeviceDto;
+
+import java.util.List;
+
+/**
+ * A device read from an import file, or why it could not be read.
+ *
+ * @param line      line of the file, counting from 1
+ * @param endOffset byte offset after the line, the checkpoint once the row is written
+ * @param device    the device, {@code null} when the row could not be read
+ * @param errors    why the row could not be read, empty when it could
+ */
+public record ImportRow(long line, long endOffset, DeviceDto device, List<String> errors) {
+}
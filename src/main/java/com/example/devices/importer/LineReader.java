@@ -0,0 +1,79 @@
+package com.example.devices.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 lines and counts the bytes read, the offset after a line is where reading resumes. A line ends
+ * with a line feed, a carriage return before it is dropped.
+ */
+final class LineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private byte[] line = new byte[256];
+    private int position;
+    private int limit;
+    private long offset;
+
+    LineReader(InputStream in, long offset) {
+        this.in = in;
+        this.offset = offset;
+    }
+
+    /**
+     * The next line, or {@code null} at the end of the input.
+     */
+    String readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (position == limit) {
+                position = 0;
+                limit = Math.max(in.read(buffer), 0);
+                if (limit == 0) {
+                    return length == 0 ? null : decode(length);
+                }
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            int count = position - start;
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(buffer, start, line, length, count);
+            length += count;
+            offset += count;
+            if (position < limit) {
+                position++;
+                offset++;
+                return decode(length);
+            }
+        }
+    }
+
+    /**
+     * Bytes read up to the end of the last line returned.
+     */
+    long offset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String decode(int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+}
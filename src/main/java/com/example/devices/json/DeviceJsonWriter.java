@@ -0,0 +1,105 @@
+package com.example.devices.json;
+
+import com.example.devices.entity.Device;
+import com.example.devices.pagination.DevicePage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes devices straight from the entities to a {@link JsonGenerator}, without an intermediate {@code DeviceDto}
+ * and without Jackson's bean introspection. The output is the JSON of {@code DeviceDto} and {@code DevicesDto}:
+ * same field order, nulls included and the creation time as an ISO-8601 string.
+ */
+@Component
+public class DeviceJsonWriter {
+
+    private static final SerializableString DEVICES = new SerializedString("devices");
+    private static final SerializableString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString BRAND = new SerializedString("brand");
+    private static final SerializableString STATE = new SerializedString("state");
+    private static final SerializableString CREATION_TIME = new SerializedString("creationTime");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    // Rough size of one encoded device, to size the buffer of a page once
+    private static final int DEVICE_SIZE_ESTIMATE = 160;
+
+    private final JsonFactory jsonFactory;
+
+    public DeviceJsonWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        return jsonFactory.createGenerator(outputStream);
+    }
+
+    public byte[] writeDevicePage(DevicePage page) {
+        return writeDevicePage(jsonFactory, page);
+    }
+
+    /**
+     * Writes the page with another Jackson backend, CBOR or Smile for example.
+     */
+    public byte[] writeDevicePage(JsonFactory factory, DevicePage page) {
+        var outputStream = new ByteArrayOutputStream(64 + page.devices().size() * DEVICE_SIZE_ESTIMATE);
+        try (var generator = factory.createGenerator(outputStream)) {
+            writeDevicePage(generator, page);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    public void writeDevicePage(JsonGenerator generator, DevicePage page) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(DEVICES);
+        generator.writeStartArray();
+        for (var device : page.devices()) {
+            writeDevice(generator, device);
+        }
+        generator.writeEndArray();
+        generator.writeFieldName(NEXT_CURSOR);
+        writeNullableString(generator, page.nextCursor());
+        generator.writeEndObject();
+    }
+
+    public void writeDevice(JsonGenerator generator, Device device) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        writeNullableString(generator, device.getId() == null ? null : device.getId().toString());
+        generator.writeFieldName(NAME);
+        writeNullableString(generator, device.getName());
+        generator.writeFieldName(BRAND);
+        writeNullableString(generator, device.getBrand());
+        generator.writeFieldName(STATE);
+        writeNullableString(generator, device.getState() == null ? null : device.getState().name());
+        generator.writeFieldName(CREATION_TIME);
+        writeNullableString(generator, device.getCreationTime() == null ? null : device.getCreationTime().toString());
+        generator.writeFieldName(VERSION);
+        if (device.getVersion() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(device.getVersion());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeNullableString(JsonGenerator generator, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+}
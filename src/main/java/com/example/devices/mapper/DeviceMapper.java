@@ -14,6 +14,8 @@ public interface DeviceMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "creationTime", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "modifiedAt", ignore = true)
     Device toEntity(DeviceDto dto);
 
     DeviceDto toDto(Device entity);
@@ -21,5 +23,7 @@ public interface DeviceMapper {
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "creationTime", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "modifiedAt", ignore = true)
     void updateDeviceFromDto(DeviceDto dto, @MappingTarget Device entity);
 }
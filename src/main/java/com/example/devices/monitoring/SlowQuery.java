@@ -0,0 +1,54 @@
+package com.example.devices.monitoring;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A statement that took at least the slow query threshold. {@code parameters} is null when the statement was not
+ * sampled, {@code plan} stays null until the background EXPLAIN finished, or when it was not captured.
+ */
+public class SlowQuery {
+
+    private final Instant executedAt;
+    private final long elapsedMillis;
+    private final String sql;
+    private final List<String> parameters;
+    private final String caller;
+    private volatile String plan;
+
+    SlowQuery(Instant executedAt, long elapsedMillis, String sql, List<String> parameters, String caller) {
+        this.executedAt = executedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.caller = caller;
+    }
+
+    public Instant getExecutedAt() {
+        return executedAt;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    void setPlan(String plan) {
+        this.plan = plan;
+    }
+}
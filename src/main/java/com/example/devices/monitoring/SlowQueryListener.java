@@ -0,0 +1,115 @@
+package com.example.devices.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Hands statements that took at least the slow query threshold to the {@link SlowQueryLog}.
+ * Every other statement only costs the elapsed time comparison; the caller, the bind parameters and the plan are
+ * only looked at once a statement turned out to be slow.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final String SERVICE_PACKAGE = "com.example.devices.service.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Supplier<SlowQueryLog> slowQueryLogSupplier;
+    private final DataSource dataSource;
+    private volatile SlowQueryLog slowQueryLog;
+
+    /**
+     * @param slowQueryLogSupplier looked up on the first statement, the data source is created before the log
+     * @param dataSource           the data source behind the proxy, used for EXPLAIN
+     */
+    public SlowQueryListener(Supplier<SlowQueryLog> slowQueryLogSupplier, DataSource dataSource) {
+        this.slowQueryLogSupplier = slowQueryLogSupplier;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        var slowQueryLog = slowQueryLog();
+        if (execInfo.getElapsedTime() < slowQueryLog.thresholdMillis() || queryInfoList.isEmpty()) {
+            return;
+        }
+        var properties = slowQueryLog.properties();
+        var sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining(";\n"));
+        // Batches are sampled with their first parameter set only
+        var parameters = ThreadLocalRandom.current().nextDouble() < properties.parameterSampleRate()
+                ? firstParameters(queryInfoList.getFirst())
+                : null;
+        var slowQuery = new SlowQuery(Instant.now(), execInfo.getElapsedTime(), sql,
+                parameters == null ? null : parameters.stream().map(SlowQueryListener::format).toList(),
+                caller());
+        slowQueryLog.add(slowQuery);
+        if (properties.explain() && parameters != null && !execInfo.isBatch() && queryInfoList.size() == 1
+                && isSelect(sql)) {
+            slowQueryLog.explainAsync(slowQuery, dataSource, parameters);
+        }
+    }
+
+    private SlowQueryLog slowQueryLog() {
+        var slowQueryLog = this.slowQueryLog;
+        if (slowQueryLog == null) {
+            slowQueryLog = slowQueryLogSupplier.get();
+            this.slowQueryLog = slowQueryLog;
+        }
+        return slowQueryLog;
+    }
+
+    /**
+     * @return the outermost {@code DeviceService} method on the stack, skipping Spring proxies, or null when the
+     * statement was not run on behalf of the service
+     */
+    static String caller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(SERVICE_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .reduce((inner, outer) -> outer)
+                .map(frame -> frame.getClassName().substring(SERVICE_PACKAGE.length()) + "."
+                        + frame.getMethodName())
+                .orElse(null));
+    }
+
+    private static List<Object> firstParameters(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        var operations = new ArrayList<>(queryInfo.getParametersList().getFirst());
+        operations.sort(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]));
+        var parameters = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            // setNull(index, sqlType) carries the type, not the value
+            parameters.add(ParameterSetOperation.isSetNullParameterOperation(operation) ? null
+                    : operation.getArgs()[1]);
+        }
+        return parameters;
+    }
+
+    private static String format(Object parameter) {
+        return parameter instanceof byte[] bytes ? "0x" + HexFormat.of().formatHex(bytes) : String.valueOf(parameter);
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.devices.monitoring;
+
+import com.example.devices.config.SlowQueryLogProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the last {@code capacity} slow statements and captures their EXPLAIN plans in the background.
+ * At most {@link #MAX_CONCURRENT_EXPLAINS} plans are captured at once, further ones are skipped rather than queued
+ * so a burst of slow statements does not add a burst of EXPLAINs on top.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "devices.slow-query-log", name = "enabled", matchIfMissing = true)
+public class SlowQueryLog {
+
+    static final int MAX_CONCURRENT_EXPLAINS = 2;
+
+    private final SlowQueryLogProperties properties;
+    private final long thresholdMillis;
+    private final ArrayDeque<SlowQuery> slowQueries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Semaphore explains = new Semaphore(MAX_CONCURRENT_EXPLAINS);
+    private final AtomicLong recordedCount = new AtomicLong();
+
+    public SlowQueryLog(SlowQueryLogProperties properties) {
+        this.properties = properties;
+        this.thresholdMillis = properties.threshold().toMillis();
+        this.slowQueries = new ArrayDeque<>(properties.capacity());
+    }
+
+    public long thresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public SlowQueryLogProperties properties() {
+        return properties;
+    }
+
+    public void add(SlowQuery slowQuery) {
+        recordedCount.incrementAndGet();
+        log.warn("Slow query took {} ms in {}: {}", slowQuery.getElapsedMillis(), slowQuery.getCaller(),
+                slowQuery.getSql());
+        lock.lock();
+        try {
+            if (slowQueries.size() == properties.capacity()) {
+                slowQueries.removeFirst();
+            }
+            slowQueries.addLast(slowQuery);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code EXPLAIN} for the statement with the given bind parameters on a virtual thread, going straight
+     * to {@code dataSource} so the EXPLAIN itself is not timed.
+     */
+    public void explainAsync(SlowQuery slowQuery, DataSource dataSource, List<Object> parameters) {
+        if (!explains.tryAcquire()) {
+            return;
+        }
+        Thread.ofVirtual().name("slow-query-explain").start(() -> {
+            try {
+                slowQuery.setPlan(explain(dataSource, slowQuery.getSql(), parameters));
+            } catch (SQLException e) {
+                log.debug("Could not explain slow query {}", slowQuery.getSql(), e);
+            } finally {
+                explains.release();
+            }
+        });
+    }
+
+    /**
+     * @return the recorded statements, newest first
+     */
+    public List<SlowQuery> slowQueries() {
+        lock.lock();
+        try {
+            var newestFirst = new ArrayList<SlowQuery>(slowQueries.size());
+            slowQueries.descendingIterator().forEachRemaining(newestFirst::add);
+            return newestFirst;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long recordedCount() {
+        return recordedCount.get();
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            slowQueries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String explain(DataSource dataSource, String sql, List<Object> parameters) throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            // Before the statement, the lazy proxy takes a replica connection for read-only ones only
+            connection.setReadOnly(true);
+            try (var statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (var resultSet = statement.executeQuery()) {
+                    var metaData = resultSet.getMetaData();
+                    var plan = new StringJoiner("\n");
+                    while (resultSet.next()) {
+                        var row = new StringJoiner(", ");
+                        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                            row.add(metaData.getColumnLabel(column) + "=" + resultSet.getString(column));
+                        }
+                        plan.add(row.toString());
+                    }
+                    return plan.toString();
+                }
+            }
+        }
+    }
+}
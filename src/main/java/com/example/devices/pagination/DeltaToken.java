@@ -0,0 +1,69 @@
+package com.example.devices.pagination;
+
+import com.example.devices.entity.Device;
+import com.example.devices.entity.DeviceTombstone;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position in the delta sync, i.e. the (modification time, id) of the last change a client received.
+ * Changes are ordered like MySQL orders the columns, ids compare as unsigned bytes. Clients only ever see the
+ * opaque {@link #encode() encoded} form.
+ */
+public record DeltaToken(Instant modifiedAt, UUID id) {
+
+    /**
+     * Before every change, a sync from it returns all devices.
+     */
+    public static final DeltaToken INITIAL = new DeltaToken(Instant.EPOCH, new UUID(0, 0));
+    // Sorts after every id, a token with it covers everything changed at its time
+    private static final UUID LAST_ID = new UUID(-1, -1);
+    public static final Comparator<DeltaToken> ORDER = Comparator.comparing(DeltaToken::modifiedAt)
+            .thenComparing(DeltaToken::id, (left, right) -> {
+                var most = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+                return most != 0 ? most : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+            });
+
+    private static final char SEPARATOR = '|';
+
+    public static DeltaToken of(Device device) {
+        return new DeltaToken(device.getModifiedAt(), device.getId());
+    }
+
+    public static DeltaToken of(DeviceTombstone tombstone) {
+        return new DeltaToken(tombstone.getDeletedAt(), tombstone.getId());
+    }
+
+    /**
+     * After every change up to and including {@code modifiedAt}.
+     */
+    public static DeltaToken upTo(Instant modifiedAt) {
+        return new DeltaToken(modifiedAt, LAST_ID);
+    }
+
+    public String encode() {
+        var raw = modifiedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DeltaToken decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidPageRequestException(ErrorMessages.INVALID_DELTA_TOKEN_MESSAGE);
+            }
+            return new DeltaToken(Instant.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidPageRequestException(ErrorMessages.INVALID_DELTA_TOKEN_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.devices.pagination;
+
+import com.example.devices.entity.Device;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position of a device list page, i.e. the (creationTime, id) of the last returned device.
+ * Clients only ever see the opaque {@link #encode() encoded} form.
+ */
+public record DeviceCursor(Instant creationTime, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static DeviceCursor of(Device device) {
+        return new DeviceCursor(device.getCreationTime(), device.getId());
+    }
+
+    public String encode() {
+        var raw = creationTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DeviceCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidPageRequestException(ErrorMessages.INVALID_CURSOR_MESSAGE);
+            }
+            return new DeviceCursor(Instant.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidPageRequestException(ErrorMessages.INVALID_CURSOR_MESSAGE);
+        }
+    }
+}
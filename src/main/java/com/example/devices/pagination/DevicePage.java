@@ -0,0 +1,11 @@
+package com.example.devices.pagination;
+
+import com.example.devices.entity.Device;
+
+import java.util.List;
+
+/**
+ * One page of devices as read from the database, {@code nextCursor} is null on the last page.
+ */
+public record DevicePage(List<Device> devices, String nextCursor) {
+}
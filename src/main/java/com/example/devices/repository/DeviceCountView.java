@@ -0,0 +1,6 @@
+package com.example.devices.repository;
+
+import com.example.devices.enums.State;
+
+public record DeviceCountView(String brand, State state, long count) {
+}
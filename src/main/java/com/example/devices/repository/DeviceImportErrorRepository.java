@@ -0,0 +1,22 @@
+package com.example.devices.repository;
+
+import com.example.devices.entity.DeviceImportError;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DeviceImportErrorRepository extends JpaRepository<DeviceImportError, Long> {
+
+    /**
+     * The rejected rows of an import from {@code afterLine} on, in file order.
+     */
+    @Query("SELECT e FROM DeviceImportError e WHERE e.importId = :importId AND e.line > :afterLine ORDER BY e.line")
+    List<DeviceImportError> findByImportId(@Param("importId") UUID importId, @Param("afterLine") long afterLine,
+                                           Limit limit);
+}
@@ -0,0 +1,38 @@
+package com.example.devices.repository;
+
+import com.example.devices.entity.DeviceImport;
+import com.example.devices.enums.ImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DeviceImportRepository extends JpaRepository<DeviceImport, UUID> {
+
+    List<DeviceImport> findByStatusIn(Collection<ImportStatus> statuses);
+
+    /**
+     * Moves the checkpoint past the rows of a batch and adds their outcome, in the transaction writing them.
+     */
+    @Modifying
+    @Query("UPDATE DeviceImport i SET i.checkpointLine = :line, i.checkpointOffset = :offset, " +
+            "i.imported = i.imported + :imported, i.failed = i.failed + :failed, " +
+            "i.processingMillis = :processingMillis " +
+            "WHERE i.id = :id")
+    int checkpoint(@Param("id") UUID id, @Param("line") long line, @Param("offset") long offset,
+                   @Param("imported") long imported, @Param("failed") long failed,
+                   @Param("processingMillis") long processingMillis);
+
+    @Modifying
+    @Query("UPDATE DeviceImport i SET i.status = :status, i.finishedAt = :finishedAt, i.failure = :failure " +
+            "WHERE i.id = :id")
+    int updateStatus(@Param("id") UUID id, @Param("status") ImportStatus status,
+                     @Param("finishedAt") Instant finishedAt, @Param("failure") String failure);
+}
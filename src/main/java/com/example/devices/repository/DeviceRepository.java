@@ -2,19 +2,230 @@ package com.example.devices.repository;
 
 import com.example.devices.entity.Device;
 import com.example.devices.enums.State;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface DeviceRepository extends JpaRepository<Device, UUID> {
+public interface DeviceRepository extends JpaRepository<Device, UUID>, JpaSpecificationExecutor<Device> {
 
+    /**
+     * Rows fetched per round trip while streaming. MySQL only honours it with {@code useCursorFetch=true}.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    // One query per filter combination: optional predicates like (:brand IS NULL OR d.brand = :brand)
+    // keep MySQL from picking the matching index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Device d ORDER BY d.creationTime, d.id")
+    Stream<Device> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Device d WHERE d.brand = :brand ORDER BY d.creationTime, d.id")
+    Stream<Device> streamByBrand(@Param("brand") String brand);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Device d WHERE d.state = :state ORDER BY d.creationTime, d.id")
+    Stream<Device> streamByState(@Param("state") State state);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Device d WHERE d.brand = :brand AND d.state = :state ORDER BY d.creationTime, d.id")
+    Stream<Device> streamByBrandAndState(@Param("brand") String brand, @Param("state") State state);
+
+    /**
+     * Streams what the search index needs of every device, as unmanaged views that never fill the persistence
+     * context however many devices there are.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT new com.example.devices.repository.DeviceSearchView(d.id, d.name, d.brand) FROM Device d")
+    Stream<DeviceSearchView> streamSearchViews();
+
+    // Bulk transitions lock their chunk with one query per filter combination as well. Under REPEATABLE READ a
+    // locking read locks every row it scans, so each one walks the index of its filter in (creationTime, id) order
+    // and stops at the chunk. d.state <> :targetState carries the patch rule that a device in use cannot be put in
+    // use again and skips devices already in the target state.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.devices.repository.DeviceStateView(d.id, d.brand, d.state, d.creationTime) " +
+            "FROM Device d " +
+            "WHERE d.state <> :targetState " +
+            "AND (d.creationTime > :after OR (d.creationTime = :after AND d.id > :afterId)) " +
+            "ORDER BY d.creationTime, d.id")
+    List<DeviceStateView> lockTransitionCandidates(@Param("targetState") State targetState,
+                                                   @Param("after") Instant after, @Param("afterId") UUID afterId,
+                                                   Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.devices.repository.DeviceStateView(d.id, d.brand, d.state, d.creationTime) " +
+            "FROM Device d " +
+            "WHERE d.brand = :brand " +
+            "AND d.state <> :targetState " +
+            "AND (d.creationTime > :after OR (d.creationTime = :after AND d.id > :afterId)) " +
+            "ORDER BY d.creationTime, d.id")
+    List<DeviceStateView> lockTransitionCandidatesByBrand(@Param("brand") String brand,
+                                                          @Param("targetState") State targetState,
+                                                          @Param("after") Instant after,
+                                                          @Param("afterId") UUID afterId, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.devices.repository.DeviceStateView(d.id, d.brand, d.state, d.creationTime) " +
+            "FROM Device d " +
+            "WHERE d.state = :state " +
+            "AND d.state <> :targetState " +
+            "AND (d.creationTime > :after OR (d.creationTime = :after AND d.id > :afterId)) " +
+            "ORDER BY d.creationTime, d.id")
+    List<DeviceStateView> lockTransitionCandidatesByState(@Param("state") State state,
+                                                          @Param("targetState") State targetState,
+                                                          @Param("after") Instant after,
+                                                          @Param("afterId") UUID afterId, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.devices.repository.DeviceStateView(d.id, d.brand, d.state, d.creationTime) " +
+            "FROM Device d " +
+            "WHERE d.brand = :brand " +
+            "AND d.state = :state " +
+            "AND d.state <> :targetState " +
+            "AND (d.creationTime > :after OR (d.creationTime = :after AND d.id > :afterId)) " +
+            "ORDER BY d.creationTime, d.id")
+    List<DeviceStateView> lockTransitionCandidatesByBrandAndState(@Param("brand") String brand,
+                                                                  @Param("state") State state,
+                                                                  @Param("targetState") State targetState,
+                                                                  @Param("after") Instant after,
+                                                                  @Param("afterId") UUID afterId, Limit limit);
+
+    /**
+     * Locks those of the given devices that a bulk transition to {@code targetState} would change, found by
+     * primary key so that only they are locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.devices.repository.DeviceStateView(d.id, d.brand, d.state, d.creationTime) " +
+            "FROM Device d " +
+            "WHERE d.id IN :ids " +
+            "AND d.state <> :targetState")
+    List<DeviceStateView> lockTransitionCandidatesByIds(@Param("ids") Collection<UUID> ids,
+                                                        @Param("targetState") State targetState);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.devices.repository.DeviceStateView(d.id, d.brand, d.state, d.creationTime) " +
+            "FROM Device d " +
+            "WHERE d.id IN :ids " +
+            "AND d.brand = :brand " +
+            "AND d.state <> :targetState")
+    List<DeviceStateView> lockTransitionCandidatesByIdsAndBrand(@Param("ids") Collection<UUID> ids,
+                                                                @Param("brand") String brand,
+                                                                @Param("targetState") State targetState);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.devices.repository.DeviceStateView(d.id, d.brand, d.state, d.creationTime) " +
+            "FROM Device d " +
+            "WHERE d.id IN :ids " +
+            "AND d.state = :state " +
+            "AND d.state <> :targetState")
+    List<DeviceStateView> lockTransitionCandidatesByIdsAndState(@Param("ids") Collection<UUID> ids,
+                                                                @Param("state") State state,
+                                                                @Param("targetState") State targetState);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.devices.repository.DeviceStateView(d.id, d.brand, d.state, d.creationTime) " +
+            "FROM Device d " +
+            "WHERE d.id IN :ids " +
+            "AND d.brand = :brand " +
+            "AND d.state = :state " +
+            "AND d.state <> :targetState")
+    List<DeviceStateView> lockTransitionCandidatesByIdsAndBrandAndState(@Param("ids") Collection<UUID> ids,
+                                                                        @Param("brand") String brand,
+                                                                        @Param("state") State state,
+                                                                        @Param("targetState") State targetState);
+
+    @Modifying
+    @Query("UPDATE Device d SET d.state = :targetState, d.version = d.version + 1, d.modifiedAt = :modifiedAt " +
+            "WHERE d.id IN :ids " +
+            "AND d.state <> :targetState")
+    int transitionState(@Param("ids") Collection<UUID> ids, @Param("targetState") State targetState,
+                        @Param("modifiedAt") Instant modifiedAt);
+
+    /**
+     * Moves the device from {@code from} to {@code to} in one conditional UPDATE, 0 when it is not in {@code from}
+     * anymore, or does not exist. Bumps the version so concurrent read-modify-write updates fail their version check.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Device d SET d.state = :to, d.version = d.version + 1, d.modifiedAt = :modifiedAt " +
+            "WHERE d.id = :id " +
+            "AND d.state = :from")
+    int compareAndSetState(@Param("id") UUID id, @Param("from") State from, @Param("to") State to,
+                           @Param("modifiedAt") Instant modifiedAt);
+
+    /**
+     * The devices modified after the delta position ({@code since}, {@code afterId}) up to {@code upTo}, in
+     * modification order, read along {@link Device#MODIFIED_AT_INDEX}.
+     */
     @Query("SELECT d FROM Device d " +
-            "WHERE (:brand IS NULL OR d.brand = :brand) " +
-            "AND (:state IS NULL OR d.state = :state)")
-    List<Device> findByBrandAndState(@Param("brand") String brand, @Param("state") State state);
+            "WHERE d.modifiedAt <= :upTo " +
+            "AND (d.modifiedAt > :since OR (d.modifiedAt = :since AND d.id > :afterId)) " +
+            "ORDER BY d.modifiedAt, d.id")
+    List<Device> findModifiedAfter(@Param("since") Instant since, @Param("afterId") UUID afterId,
+                                   @Param("upTo") Instant upTo, Limit limit);
+
+    /**
+     * Locks the next devices in {@code state} last modified before {@code before}, after the position
+     * ({@code after}, {@code afterId}), in modification order along {@link Device#STATE_MODIFIED_AT_INDEX}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Device d " +
+            "WHERE d.state = :state " +
+            "AND d.modifiedAt < :before " +
+            "AND (d.modifiedAt > :after OR (d.modifiedAt = :after AND d.id > :afterId)) " +
+            "ORDER BY d.modifiedAt, d.id")
+    List<Device> lockModifiedBefore(@Param("state") State state, @Param("before") Instant before,
+                                    @Param("after") Instant after, @Param("afterId") UUID afterId, Limit limit);
+
+    /**
+     * Deletes those of the given devices still in {@code state}, in one statement.
+     */
+    @Modifying
+    @Query("DELETE FROM Device d WHERE d.id IN :ids AND d.state = :state")
+    int deleteByIdsInState(@Param("ids") Collection<UUID> ids, @Param("state") State state);
+
+    /**
+     * Reads the version alone, answered from the primary key without loading the device.
+     */
+    @Query("SELECT d.version FROM Device d WHERE d.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT d.brand FROM Device d WHERE d.id = :id")
+    Optional<String> findBrandById(@Param("id") UUID id);
+
+    /**
+     * Counts the devices per brand and state, read from the brand and state index alone.
+     */
+    @Query("SELECT new com.example.devices.repository.DeviceCountView(d.brand, d.state, COUNT(d)) FROM Device d " +
+            "GROUP BY d.brand, d.state")
+    List<DeviceCountView> countByBrandAndState();
 }
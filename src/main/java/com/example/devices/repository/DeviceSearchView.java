@@ -0,0 +1,6 @@
+package com.example.devices.repository;
+
+import java.util.UUID;
+
+public record DeviceSearchView(UUID id, String name, String brand) {
+}
@@ -0,0 +1,71 @@
+package com.example.devices.repository;
+
+import com.example.devices.dto.DeviceFilter;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.pagination.DeviceCursor;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Building blocks for device list queries. Absent filters contribute no predicate at all,
+ * so every filter combination ends up as its own plain SQL statement.
+ */
+public final class DeviceSpecifications {
+
+    private DeviceSpecifications() {}
+
+    public static final Sort.Direction DEFAULT_DIRECTION = Sort.Direction.ASC;
+
+    public static Sort keysetSort(Sort.Direction direction) {
+        return Sort.by(direction, "creationTime", "id");
+    }
+
+    public static Specification<Device> matching(DeviceFilter filter) {
+        return Specification.where(hasBrand(filter.getBrand()))
+                .and(hasState(filter.getState()))
+                .and(createdFrom(filter.getCreatedFrom()))
+                .and(createdBefore(filter.getCreatedTo()));
+    }
+
+    public static Specification<Device> hasBrand(String brand) {
+        return brand == null ? null : (root, query, cb) -> cb.equal(root.get("brand"), brand);
+    }
+
+    public static Specification<Device> hasState(State state) {
+        return state == null ? null : (root, query, cb) -> cb.equal(root.get("state"), state);
+    }
+
+    public static Specification<Device> createdFrom(Instant from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("creationTime"), from);
+    }
+
+    public static Specification<Device> createdBefore(Instant to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("creationTime"), to);
+    }
+
+    /**
+     * Seeks past the given cursor in the (creationTime, id) order of the requested direction.
+     */
+    public static Specification<Device> after(DeviceCursor cursor, Sort.Direction direction) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<Instant> creationTime = root.get("creationTime");
+            Path<UUID> id = root.get("id");
+            if (direction.isDescending()) {
+                return cb.or(
+                        cb.lessThan(creationTime, cursor.creationTime()),
+                        cb.and(cb.equal(creationTime, cursor.creationTime()), cb.lessThan(id, cursor.id())));
+            }
+            return cb.or(
+                    cb.greaterThan(creationTime, cursor.creationTime()),
+                    cb.and(cb.equal(creationTime, cursor.creationTime()), cb.greaterThan(id, cursor.id())));
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.devices.repository;
+
+import com.example.devices.enums.State;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record DeviceStateView(UUID id, String brand, State state, Instant creationTime) {
+}
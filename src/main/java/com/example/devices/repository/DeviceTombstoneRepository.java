@@ -0,0 +1,44 @@
+package com.example.devices.repository;
+
+import com.example.devices.entity.DeviceTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DeviceTombstoneRepository extends JpaRepository<DeviceTombstone, UUID> {
+
+    /**
+     * Records the deletion of the device {@code id} for the delta sync.
+     */
+    default void recordDeleted(UUID id, Instant deletedAt) {
+        // Persisted, not merged: the tombstone is new and merging would look it up first
+        save(new DeviceTombstone(id, deletedAt));
+    }
+
+    /**
+     * The devices deleted after the delta position ({@code since}, {@code afterId}) up to {@code upTo}, in
+     * deletion order.
+     */
+    @Query("SELECT t FROM DeviceTombstone t " +
+            "WHERE t.deletedAt <= :upTo " +
+            "AND (t.deletedAt > :since OR (t.deletedAt = :since AND t.id > :afterId)) " +
+            "ORDER BY t.deletedAt, t.id")
+    List<DeviceTombstone> findDeletedAfter(@Param("since") Instant since, @Param("afterId") UUID afterId,
+                                           @Param("upTo") Instant upTo, Limit limit);
+
+    /**
+     * Deletes up to {@code limit} tombstones older than {@code before}, one short statement per chunk.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM device_tombstones WHERE deleted_at < :before ORDER BY deleted_at LIMIT :limit",
+            nativeQuery = true)
+    int deleteOlderThan(@Param("before") Instant before, @Param("limit") int limit);
+}
@@ -0,0 +1,140 @@
+package com.example.devices.retention;
+
+import com.example.devices.config.CacheConfig;
+import com.example.devices.config.RetentionProperties;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.mapper.DeviceMapper;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes the INACTIVE devices nobody modified for {@code devices.retention.inactive-after}. A purge walks them
+ * in modification order and deletes {@code chunk-size} at a time, each chunk in a short transaction of its own,
+ * then pauses so that the replicas catch up and writers waiting on the locked rows get their turn. A chunk is
+ * deleted as {@link com.example.devices.service.DeviceService#deleteDevice} deletes a device: locked, still
+ * INACTIVE, so never one in use, with a tombstone and a change event each.
+ */
+@Slf4j
+@Component
+public class DeviceRetentionPurge implements MeterBinder {
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceMapper deviceMapper;
+    private final DeviceTombstoneRepository tombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache devicesCache;
+    private final RetentionProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong purged = new AtomicLong();
+    private final AtomicLong runPurged = new AtomicLong();
+
+    public DeviceRetentionPurge(DeviceRepository deviceRepository, DeviceTombstoneRepository tombstoneRepository,
+                                DeviceMapper deviceMapper, TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher, CacheManager cacheManager,
+                                RetentionProperties properties) {
+        this.deviceRepository = deviceRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.deviceMapper = deviceMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.devicesCache = cacheManager.getCache(CacheConfig.DEVICES_CACHE);
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${devices.retention.interval:1h}")
+    public void purge() {
+        if (!properties.enabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            runPurged.set(0);
+            var before = Device.modificationTime().minus(properties.inactiveAfter());
+            var chunkSize = properties.chunkSize();
+            var after = Instant.EPOCH;
+            var afterId = new UUID(0, 0);
+            List<Device> deleted;
+            do {
+                var lastModifiedAt = after;
+                var lastId = afterId;
+                deleted = Objects.requireNonNull(transactionTemplate.execute(status -> deleteChunk(
+                        deviceRepository.lockModifiedBefore(State.INACTIVE, before, lastModifiedAt, lastId,
+                                Limit.of(chunkSize)))));
+                deleted.forEach(device -> devicesCache.evict(device.getId()));
+                runPurged.addAndGet(deleted.size());
+                purged.addAndGet(deleted.size());
+                if (!deleted.isEmpty()) {
+                    after = deleted.getLast().getModifiedAt();
+                    afterId = deleted.getLast().getId();
+                }
+            } while (deleted.size() == chunkSize && pause());
+            if (runPurged.get() > 0) {
+                log.info("Purged {} devices INACTIVE since before {}", runPurged.get(), before);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("devices.retention.purged", purged, AtomicLong::get)
+                .description("INACTIVE devices deleted past their retention")
+                .register(registry);
+        Gauge.builder("devices.retention.run.purged", runPurged, AtomicLong::get)
+                .description("Devices deleted by the running purge, or by the last one")
+                .register(registry);
+        Gauge.builder("devices.retention.running", running, value -> value.get() ? 1 : 0)
+                .description("Whether a retention purge is running")
+                .register(registry);
+    }
+
+    // The devices are locked and INACTIVE, so the guarded DELETE removes every one of them
+    private List<Device> deleteChunk(List<Device> devices) {
+        if (devices.isEmpty()) {
+            return devices;
+        }
+        deviceRepository.deleteByIdsInState(devices.stream().map(Device::getId).toList(), State.INACTIVE);
+        var deletedAt = Device.modificationTime();
+        for (var device : devices) {
+            tombstoneRepository.recordDeleted(device.getId(), deletedAt);
+            eventPublisher.publishEvent(DeviceChangedEvent.deleted(deviceMapper.toDto(device)));
+        }
+        return devices;
+    }
+
+    // False when interrupted, the rest is left to the next purge
+    private boolean pause() {
+        if (properties.pause().isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(properties.pause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
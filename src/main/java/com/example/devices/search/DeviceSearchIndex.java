@@ -0,0 +1,416 @@
+package com.example.devices.search;
+
+import com.example.devices.config.DeltaProperties;
+import com.example.devices.entity.Device;
+import com.example.devices.entity.DeviceTombstone;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.pagination.DeltaToken;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceSearchView;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the lower-cased name and brand of every device, built at startup and kept current from
+ * the committed changes. Both are indexed by their trigrams, which find any substring of three or more
+ * characters, and their words by their first one and two characters, which find shorter prefixes. Candidates
+ * are the devices holding every n-gram of the query; each is checked against the query itself and ranked,
+ * name before brand, exact before prefix before word prefix before substring.
+ * <p>
+ * Changes made through other instances are picked up by a scheduled refresh from the modification time and
+ * tombstones of the delta sync, once they are older than its settle window.
+ * <p>
+ * Devices are numbered, and every n-gram keeps the sorted numbers of its devices in a plain int array.
+ */
+@Slf4j
+@Component
+public class DeviceSearchIndex implements MeterBinder {
+
+    static final int GRAM_LENGTH = 3;
+    private static final char PREFIX_MARK = '^';
+    private static final int MATCH_SCORES = 4;
+    private static final int BUILD_BATCH = 1000;
+    private static final Duration BUILD_RETRY_DELAY = Duration.ofSeconds(10);
+    // Best first: better score, then shorter name, then name
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score)
+            .thenComparingInt(hit -> hit.name().length())
+            .thenComparing(Hit::name)
+            .thenComparing(Hit::id);
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceTombstoneRepository tombstoneRepository;
+    private final DeltaProperties deltaProperties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> documents = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private UUID[] ids = new UUID[1024];
+    private String[] names = new String[1024];
+    private String[] brands = new String[1024];
+    private int[] free = new int[16];
+    private int freeCount;
+    private int nextDocument;
+    // Devices changed while the index is built, what the build read of them may be older than the change
+    private Set<UUID> changedDuringBuild = new HashSet<>();
+    private volatile boolean ready;
+    // Changes up to here are in the index, only touched by the build and the refresh, which never overlap
+    private DeltaToken refreshedUpTo;
+
+    public DeviceSearchIndex(DeviceRepository deviceRepository, DeviceTombstoneRepository tombstoneRepository,
+                             DeltaProperties deltaProperties, PlatformTransactionManager transactionManager) {
+        this.deviceRepository = deviceRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.deltaProperties = deltaProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Builds the index without holding up startup; searches fail as not ready until it is built.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("search-index-build").start(this::build);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED, PATCHED -> index(event.id(), event.after().getName(), event.after().getBrand());
+            case DELETED -> remove(event.id());
+            // Neither name nor brand change with the state
+            case STATE_CHANGED -> {
+            }
+        }
+    }
+
+    public DeviceSearchResult search(String query, int limit) {
+        var normalized = normalize(query);
+        var prefixOnly = normalized.length() < GRAM_LENGTH;
+        var queryGrams = prefixOnly ? Set.of(PREFIX_MARK + normalized) : trigrams(normalized);
+        var best = new PriorityQueue<>(RANKING.reversed());
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            var lists = new ArrayList<Postings>(queryGrams.size());
+            for (var gram : queryGrams) {
+                var list = postings.get(gram);
+                if (Objects.isNull(list)) {
+                    return new DeviceSearchResult(List.of(), 0);
+                }
+                lists.add(list);
+            }
+            // Walk the rarest n-gram, look the others up
+            lists.sort(Comparator.comparingInt(Postings::size));
+            var rarest = lists.getFirst();
+            candidates:
+            for (int i = 0; i < rarest.size(); i++) {
+                var document = rarest.get(i);
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(document)) {
+                        continue candidates;
+                    }
+                }
+                var score = score(names[document], brands[document], normalized, prefixOnly);
+                if (score < 0) {
+                    continue;
+                }
+                total++;
+                best.offer(new Hit(ids[document], names[document], score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        var hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return new DeviceSearchResult(hits.stream().map(Hit::id).toList(), total);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("devices.search.documents", this, DeviceSearchIndex::size)
+                .description("Devices in the search index")
+                .register(registry);
+    }
+
+    /**
+     * Applies the changes and deletions committed since the last refresh, through any instance.
+     */
+    @Scheduled(fixedDelayString = "${devices.search.refresh-interval:30s}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        var upTo = Device.modificationTime().minus(deltaProperties.settle());
+        var page = Limit.of(BUILD_BATCH);
+        var position = refreshedUpTo;
+        List<Device> devices;
+        do {
+            var from = position;
+            devices = readOnlyTransaction.execute(status ->
+                    deviceRepository.findModifiedAfter(from.modifiedAt(), from.id(), upTo, page));
+            for (var device : Objects.requireNonNull(devices)) {
+                index(device.getId(), device.getName(), device.getBrand());
+                position = DeltaToken.of(device);
+            }
+        } while (devices.size() == BUILD_BATCH);
+        position = refreshedUpTo;
+        List<DeviceTombstone> tombstones;
+        do {
+            var from = position;
+            tombstones = readOnlyTransaction.execute(status ->
+                    tombstoneRepository.findDeletedAfter(from.modifiedAt(), from.id(), upTo, page));
+            for (var tombstone : Objects.requireNonNull(tombstones)) {
+                remove(tombstone.getId());
+                position = DeltaToken.of(tombstone);
+            }
+        } while (tombstones.size() == BUILD_BATCH);
+        refreshedUpTo = DeltaToken.upTo(upTo);
+    }
+
+    void build() {
+        var start = System.nanoTime();
+        // Whatever changes from here on, the first refresh reads it again
+        refreshedUpTo = DeltaToken.upTo(Device.modificationTime().minus(deltaProperties.settle()));
+        while (true) {
+            try {
+                load();
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Building the search index failed, retrying in {}", BUILD_RETRY_DELAY, e);
+                try {
+                    Thread.sleep(BUILD_RETRY_DELAY);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} devices for search in {} ms", size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void load() {
+        var batch = new ArrayList<DeviceSearchView>(BUILD_BATCH);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (var views = deviceRepository.streamSearchViews()) {
+                views.forEach(view -> {
+                    batch.add(view);
+                    if (batch.size() == BUILD_BATCH) {
+                        indexBuilt(batch);
+                        batch.clear();
+                    }
+                });
+            }
+        });
+        indexBuilt(batch);
+    }
+
+    private void indexBuilt(List<DeviceSearchView> views) {
+        lock.writeLock().lock();
+        try {
+            for (var view : views) {
+                if (!changedDuringBuild.contains(view.id())) {
+                    put(view.id(), view.name(), view.brand());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(UUID id, String name, String brand) {
+        lock.writeLock().lock();
+        try {
+            if (Objects.nonNull(changedDuringBuild)) {
+                changedDuringBuild.add(id);
+            }
+            put(id, name, brand);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            if (Objects.nonNull(changedDuringBuild)) {
+                changedDuringBuild.add(id);
+            }
+            var document = documents.remove(id);
+            if (Objects.isNull(document)) {
+                return;
+            }
+            for (var gram : grams(names[document], brands[document])) {
+                removePosting(gram, document);
+            }
+            ids[document] = null;
+            names[document] = null;
+            brands[document] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = document;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(UUID id, String name, String brand) {
+        var normalizedName = normalize(name);
+        var normalizedBrand = normalize(brand);
+        var document = documents.get(id);
+        Set<String> previousGrams = Set.of();
+        if (Objects.nonNull(document)) {
+            if (normalizedName.equals(names[document]) && normalizedBrand.equals(brands[document])) {
+                return;
+            }
+            previousGrams = grams(names[document], brands[document]);
+        } else {
+            document = allocate();
+            documents.put(id, document);
+            ids[document] = id;
+        }
+        var grams = grams(normalizedName, normalizedBrand);
+        for (var gram : previousGrams) {
+            if (!grams.contains(gram)) {
+                removePosting(gram, document);
+            }
+        }
+        for (var gram : grams) {
+            if (!previousGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(document);
+            }
+        }
+        names[document] = normalizedName;
+        brands[document] = normalizedBrand;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return free[--freeCount];
+        }
+        if (nextDocument == ids.length) {
+            var capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            brands = Arrays.copyOf(brands, capacity);
+        }
+        return nextDocument++;
+    }
+
+    private void removePosting(String gram, int document) {
+        var list = postings.get(gram);
+        if (Objects.nonNull(list)) {
+            list.remove(document);
+            if (list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static Set<String> grams(String name, String brand) {
+        var grams = new LinkedHashSet<String>();
+        for (var text : new String[]{name, brand}) {
+            grams.addAll(trigrams(text));
+            for (var word : text.split("[^\\p{L}\\p{N}]+")) {
+                for (int length = 1; length < GRAM_LENGTH && length <= word.length(); length++) {
+                    grams.add(PREFIX_MARK + word.substring(0, length));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> trigrams(String text) {
+        var trigrams = new LinkedHashSet<String>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Lower is better, -1 when the device does not match: name matches before brand matches, each ranked
+     * exact, prefix, word prefix, substring. Queries shorter than an n-gram only match prefixes.
+     */
+    static int score(String name, String brand, String query, boolean prefixOnly) {
+        var nameScore = fieldScore(name, query, prefixOnly);
+        if (nameScore >= 0) {
+            return nameScore;
+        }
+        var brandScore = fieldScore(brand, query, prefixOnly);
+        return brandScore < 0 ? -1 : MATCH_SCORES + brandScore;
+    }
+
+    private static int fieldScore(String text, String query, boolean prefixOnly) {
+        if (text.equals(query)) {
+            return 0;
+        }
+        if (text.startsWith(query)) {
+            return 1;
+        }
+        for (var index = text.indexOf(query); index >= 0; index = text.indexOf(query, index + 1)) {
+            if (!Character.isLetterOrDigit(text.charAt(index - 1))) {
+                return 2;
+            }
+        }
+        return !prefixOnly && text.contains(query) ? 3 : -1;
+    }
+
+    static String normalize(String text) {
+        return Objects.isNull(text) ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record Hit(UUID id, String name, int score) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.devices.search;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The ids of the best ranked matches, best first, and how many devices matched in total.
+ */
+public record DeviceSearchResult(List<UUID> ids, int total) {
+}
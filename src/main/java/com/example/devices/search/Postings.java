@@ -0,0 +1,48 @@
+package com.example.devices.search;
+
+import java.util.Arrays;
+
+/**
+ * The sorted document numbers of one n-gram in a growable int array, far smaller than a set of boxed numbers.
+ * Not thread-safe, the index guards it.
+ */
+final class Postings {
+
+    private int[] documents = new int[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return documents[index];
+    }
+
+    boolean contains(int document) {
+        return Arrays.binarySearch(documents, 0, size, document) >= 0;
+    }
+
+    void add(int document) {
+        var index = Arrays.binarySearch(documents, 0, size, document);
+        if (index >= 0) {
+            return;
+        }
+        var insertion = -index - 1;
+        if (size == documents.length) {
+            documents = Arrays.copyOf(documents, size + (size >> 1));
+        }
+        System.arraycopy(documents, insertion, documents, insertion + 1, size - insertion);
+        documents[insertion] = document;
+        size++;
+    }
+
+    void remove(int document) {
+        var index = Arrays.binarySearch(documents, 0, size, document);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(documents, index + 1, documents, index, size - index - 1);
+        size--;
+    }
+}
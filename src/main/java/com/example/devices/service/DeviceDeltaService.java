@@ -0,0 +1,19 @@
+package com.example.devices.service;
+
+import com.example.devices.dto.DeviceDeltaDto;
+
+public interface DeviceDeltaService {
+
+    /**
+     * The devices created, modified and deleted after the delta token, oldest change first, at most
+     * {@code limit} of them. Without a token every device is returned and no deleted ones. Fails with
+     * {@link com.example.devices.exception.DeltaTokenExpiredException} when the token is older than the
+     * tombstones of deleted devices are kept.
+     */
+    DeviceDeltaDto getDelta(String since, Integer limit);
+
+    /**
+     * Removes the tombstones past their retention in chunks, one transaction each.
+     */
+    void compactTombstones();
+}
@@ -0,0 +1,119 @@
+package com.example.devices.service;
+
+import com.example.devices.config.DeltaProperties;
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.dto.DeviceDeltaDto;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DeviceTombstoneDto;
+import com.example.devices.entity.Device;
+import com.example.devices.entity.DeviceTombstone;
+import com.example.devices.exception.DeltaTokenExpiredException;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.mapper.DeviceMapper;
+import com.example.devices.pagination.DeltaToken;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Serves the delta sync from the indexed modification time of the devices and the tombstones of deleted ones.
+ * Only changes older than the settle window are handed out, so a transaction that took its modification time
+ * early but committed late, or a replica that lags, cannot slip a change behind a token already returned.
+ */
+@Slf4j
+@Timed(value = DeviceServiceImpl.METRIC_NAME, description = "Device service operations")
+@Service
+public class DeviceDeltaServiceImpl implements DeviceDeltaService {
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceTombstoneRepository tombstoneRepository;
+    private final DeviceMapper deviceMapper;
+    private final PaginationProperties paginationProperties;
+    private final DeltaProperties deltaProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public DeviceDeltaServiceImpl(DeviceRepository deviceRepository, DeviceTombstoneRepository tombstoneRepository,
+                                  DeviceMapper deviceMapper, PaginationProperties paginationProperties,
+                                  DeltaProperties deltaProperties, TransactionTemplate transactionTemplate) {
+        this.deviceRepository = deviceRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.deviceMapper = deviceMapper;
+        this.paginationProperties = paginationProperties;
+        this.deltaProperties = deltaProperties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public DeviceDeltaDto getDelta(String since, Integer limit) {
+        var pageLimit = paginationProperties.resolveLimit(limit);
+        var now = Device.modificationTime();
+        var token = Objects.isNull(since) ? DeltaToken.INITIAL : DeltaToken.decode(since);
+        var fullSync = token.equals(DeltaToken.INITIAL);
+        if (!fullSync && token.modifiedAt().isBefore(now.minus(deltaProperties.tombstoneRetention()))) {
+            throw new DeltaTokenExpiredException(ErrorMessages.DELTA_TOKEN_EXPIRED_MESSAGE);
+        }
+        var upTo = now.minus(deltaProperties.settle());
+        // One extra row of each tells whether more changes wait beyond this page
+        var devices = deviceRepository.findModifiedAfter(token.modifiedAt(), token.id(), upTo, Limit.of(pageLimit + 1));
+        // A full sync starts from nothing, there is nothing deleted to tell about
+        var tombstones = fullSync ? List.<DeviceTombstone>of()
+                : tombstoneRepository.findDeletedAfter(token.modifiedAt(), token.id(), upTo, Limit.of(pageLimit + 1));
+
+        var changed = new ArrayList<DeviceDto>();
+        var deleted = new ArrayList<DeviceTombstoneDto>();
+        var last = token;
+        int d = 0;
+        int t = 0;
+        while (changed.size() + deleted.size() < pageLimit && (d < devices.size() || t < tombstones.size())) {
+            var device = d < devices.size() ? DeltaToken.of(devices.get(d)) : null;
+            var tombstone = t < tombstones.size() ? DeltaToken.of(tombstones.get(t)) : null;
+            if (tombstone == null || (device != null && DeltaToken.ORDER.compare(device, tombstone) < 0)) {
+                changed.add(deviceMapper.toDto(devices.get(d++)));
+                last = device;
+            } else {
+                deleted.add(new DeviceTombstoneDto(tombstone.id(), tombstone.modifiedAt()));
+                t++;
+                last = tombstone;
+            }
+        }
+        var hasMore = d < devices.size() || t < tombstones.size();
+        if (!hasMore && DeltaToken.ORDER.compare(last, DeltaToken.upTo(upTo)) < 0) {
+            // Everything up to the settle window has been seen, the next sync starts from there
+            last = DeltaToken.upTo(upTo);
+        }
+        return DeviceDeltaDto.builder()
+                .devices(changed)
+                .deleted(deleted)
+                .nextToken(last.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${devices.delta.compaction-interval:1h}")
+    @Override
+    public void compactTombstones() {
+        var before = Device.modificationTime().minus(deltaProperties.tombstoneRetention());
+        var chunk = deltaProperties.compactionChunk();
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = Objects.requireNonNull(
+                    transactionTemplate.execute(status -> tombstoneRepository.deleteOlderThan(before, chunk)));
+            removed += deleted;
+        } while (deleted == chunk);
+        if (removed > 0) {
+            log.info("Compacted {} device tombstones deleted before {}", removed, before);
+        }
+    }
+}
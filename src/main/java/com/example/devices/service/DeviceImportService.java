@@ -0,0 +1,31 @@
+package com.example.devices.service;
+
+import com.example.devices.dto.DeviceImportDto;
+import com.example.devices.dto.DeviceImportErrorDto;
+import com.example.devices.enums.ImportFormat;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+public interface DeviceImportService {
+
+    /**
+     * Writes the upload to disk as it arrives and queues its import, which runs in the background.
+     */
+    DeviceImportDto startImport(ImportFormat format, InputStream content);
+
+    DeviceImportDto getImport(UUID id);
+
+    /**
+     * The rejected rows of the import after the given line, in file order.
+     */
+    List<DeviceImportErrorDto> getImportErrors(UUID id, Long afterLine, Integer limit);
+
+    /**
+     * Continues a failed or interrupted import from its last checkpoint. Fails with
+     * {@link com.example.devices.exception.DeviceImportConflictException} when the import completed, is running
+     * or its file is not kept on this instance.
+     */
+    DeviceImportDto resumeImport(UUID id);
+}
@@ -0,0 +1,136 @@
+package com.example.devices.service;
+
+import com.example.devices.config.DeviceImportProperties;
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.dto.DeviceImportDto;
+import com.example.devices.dto.DeviceImportErrorDto;
+import com.example.devices.entity.DeviceImport;
+import com.example.devices.enums.ImportFormat;
+import com.example.devices.enums.ImportStatus;
+import com.example.devices.exception.DeviceImportConflictException;
+import com.example.devices.exception.DeviceImportNotFoundException;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.importer.DeviceImportRunner;
+import com.example.devices.repository.DeviceImportErrorRepository;
+import com.example.devices.repository.DeviceImportRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+@Timed(value = DeviceServiceImpl.METRIC_NAME, description = "Device service operations")
+@Service
+public class DeviceImportServiceImpl implements DeviceImportService {
+
+    private final DeviceImportRepository importRepository;
+    private final DeviceImportErrorRepository errorRepository;
+    private final DeviceImportRunner importRunner;
+    private final DeviceImportProperties importProperties;
+    private final PaginationProperties paginationProperties;
+
+    public DeviceImportServiceImpl(DeviceImportRepository importRepository,
+                                   DeviceImportErrorRepository errorRepository, DeviceImportRunner importRunner,
+                                   DeviceImportProperties importProperties,
+                                   PaginationProperties paginationProperties) {
+        this.importRepository = importRepository;
+        this.errorRepository = errorRepository;
+        this.importRunner = importRunner;
+        this.importProperties = importProperties;
+        this.paginationProperties = paginationProperties;
+    }
+
+    @Override
+    public DeviceImportDto startImport(ImportFormat format, InputStream content) {
+        try {
+            Files.createDirectories(importProperties.directory());
+            // Only a complete upload gets its import, a broken one leaves nothing behind
+            var upload = Files.createTempFile(importProperties.directory(), "upload-", ".tmp");
+            try {
+                var deviceImport = new DeviceImport();
+                deviceImport.setFormat(format);
+                deviceImport.setStatus(ImportStatus.QUEUED);
+                deviceImport.setSize(Files.copy(content, upload, StandardCopyOption.REPLACE_EXISTING));
+                deviceImport.setCreatedAt(Instant.now());
+                deviceImport = importRepository.save(deviceImport);
+                Files.move(upload, importRunner.fileOf(deviceImport.getId()), StandardCopyOption.ATOMIC_MOVE);
+                importRunner.submit(deviceImport.getId());
+                return toDto(deviceImport);
+            } finally {
+                Files.deleteIfExists(upload);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public DeviceImportDto getImport(UUID id) {
+        return toDto(findImport(id));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<DeviceImportErrorDto> getImportErrors(UUID id, Long afterLine, Integer limit) {
+        findImport(id);
+        return errorRepository.findByImportId(id, Objects.requireNonNullElse(afterLine, 0L),
+                        Limit.of(paginationProperties.resolveLimit(limit))).stream()
+                .map(error -> DeviceImportErrorDto.builder()
+                        .line(error.getLine())
+                        .errors(error.getErrors())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public DeviceImportDto resumeImport(UUID id) {
+        var deviceImport = findImport(id);
+        if (deviceImport.getStatus() == ImportStatus.COMPLETED || importRunner.isActive(id)) {
+            var status = importRunner.isActive(id) ? ImportStatus.RUNNING : deviceImport.getStatus();
+            throw new DeviceImportConflictException(String.format(ErrorMessages.DEVICE_IMPORT_NOT_RESUMABLE_MESSAGE,
+                    status.name().toLowerCase(Locale.ROOT)));
+        }
+        if (!Files.exists(importRunner.fileOf(id))) {
+            throw new DeviceImportConflictException(ErrorMessages.DEVICE_IMPORT_FILE_MISSING_MESSAGE);
+        }
+        importRunner.submit(id);
+        deviceImport.setStatus(ImportStatus.QUEUED);
+        deviceImport.setFinishedAt(null);
+        deviceImport.setFailure(null);
+        return toDto(deviceImport);
+    }
+
+    private DeviceImport findImport(UUID id) {
+        return importRepository.findById(id)
+                .orElseThrow(() -> new DeviceImportNotFoundException(ErrorMessages.DEVICE_IMPORT_NOT_FOUND_MESSAGE));
+    }
+
+    private static DeviceImportDto toDto(DeviceImport deviceImport) {
+        var rows = deviceImport.getImported() + deviceImport.getFailed();
+        var completed = deviceImport.getStatus() == ImportStatus.COMPLETED || deviceImport.getSize() == 0;
+        return DeviceImportDto.builder()
+                .id(deviceImport.getId())
+                .format(deviceImport.getFormat())
+                .status(deviceImport.getStatus())
+                .progress(completed ? 100 : deviceImport.getCheckpointOffset() * 100.0 / deviceImport.getSize())
+                .imported(deviceImport.getImported())
+                .failed(deviceImport.getFailed())
+                .rowsPerSecond(deviceImport.getProcessingMillis() == 0 ? 0
+                        : rows * 1000 / deviceImport.getProcessingMillis())
+                .createdAt(deviceImport.getCreatedAt())
+                .finishedAt(deviceImport.getFinishedAt())
+                .failure(deviceImport.getFailure())
+                .build();
+    }
+}
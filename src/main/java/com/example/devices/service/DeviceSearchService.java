@@ -0,0 +1,13 @@
+package com.example.devices.service;
+
+import com.example.devices.dto.DeviceSearchResultDto;
+
+public interface DeviceSearchService {
+
+    /**
+     * Finds the devices whose name or brand contains the query, or has a word starting with it when it is
+     * shorter than three characters, from the in-memory search index. Fails with
+     * {@link com.example.devices.exception.SearchIndexNotReadyException} while the index is built at startup.
+     */
+    DeviceSearchResultDto searchDevices(String query, Integer limit);
+}
@@ -0,0 +1,59 @@
+package com.example.devices.service;
+
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.dto.DeviceSearchResultDto;
+import com.example.devices.entity.Device;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.exception.InvalidPageRequestException;
+import com.example.devices.exception.SearchIndexNotReadyException;
+import com.example.devices.mapper.DeviceMapper;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.search.DeviceSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Timed(value = DeviceServiceImpl.METRIC_NAME, description = "Device service operations")
+@Service
+public class DeviceSearchServiceImpl implements DeviceSearchService {
+
+    private final DeviceSearchIndex searchIndex;
+    private final DeviceRepository deviceRepository;
+    private final DeviceMapper deviceMapper;
+    private final PaginationProperties paginationProperties;
+
+    public DeviceSearchServiceImpl(DeviceSearchIndex searchIndex, DeviceRepository deviceRepository,
+                                   DeviceMapper deviceMapper, PaginationProperties paginationProperties) {
+        this.searchIndex = searchIndex;
+        this.deviceRepository = deviceRepository;
+        this.deviceMapper = deviceMapper;
+        this.paginationProperties = paginationProperties;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public DeviceSearchResultDto searchDevices(String query, Integer limit) {
+        if (Objects.isNull(query) || query.isBlank()) {
+            throw new InvalidPageRequestException(ErrorMessages.BLANK_SEARCH_QUERY_MESSAGE);
+        }
+        if (!searchIndex.isReady()) {
+            throw new SearchIndexNotReadyException(ErrorMessages.SEARCH_INDEX_NOT_READY_MESSAGE);
+        }
+        var result = searchIndex.search(query, paginationProperties.resolveLimit(limit));
+        // The index ranks, the devices themselves come from the database by primary key
+        var devices = deviceRepository.findAllById(result.ids()).stream()
+                .collect(Collectors.toMap(Device::getId, Function.identity()));
+        return DeviceSearchResultDto.builder()
+                .devices(result.ids().stream()
+                        .map(devices::get)
+                        .filter(Objects::nonNull)
+                        .map(deviceMapper::toDto)
+                        .toList())
+                .total(result.total())
+                .build();
+    }
+}
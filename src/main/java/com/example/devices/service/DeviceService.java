@@ -1,22 +1,62 @@
 package com.example.devices.service;
 
+import com.example.devices.dto.BatchCreateResultDto;
+import com.example.devices.dto.BulkStateTransitionDto;
+import com.example.devices.dto.BulkStateTransitionResultDto;
 import com.example.devices.dto.DeviceDto;
-import com.example.devices.dto.DevicesDto;
+import com.example.devices.dto.DeviceFilter;
+import com.example.devices.entity.Device;
 import com.example.devices.enums.State;
+import com.example.devices.pagination.DevicePage;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface DeviceService {
 
     DeviceDto createDevice(DeviceDto deviceDto);
 
+    /**
+     * Creates the devices in batched transactions. Invalid or unsaveable devices are reported
+     * per item and do not prevent the others from being created.
+     */
+    BatchCreateResultDto createDevices(List<DeviceDto> deviceDtos);
+
     DeviceDto updateDevice(UUID id, DeviceDto deviceDto);
 
     DeviceDto patchDevice(UUID id, DeviceDto deviceDto);
 
+    /**
+     * Moves all matching devices to the target state with chunked UPDATE statements, reading only their id,
+     * brand and state.
+     */
+    BulkStateTransitionResultDto transitionDevicesState(BulkStateTransitionDto transition);
+
+    /**
+     * Moves the device from {@code from} to {@code to} only if it is still in {@code from}, atomically.
+     * Fails with {@link com.example.devices.exception.DeviceStateConflictException} when another client got there first.
+     */
+    void transitionDeviceState(UUID id, State from, State to);
+
     DeviceDto getDeviceById(UUID id);
 
-    DevicesDto getDevicesByFilters(String brand, State state);
+    /**
+     * Reads only the version of a device, from the device cache when it is there, to answer conditional requests
+     * without loading the device.
+     */
+    long getDeviceVersion(UUID id);
+
+    /**
+     * Reads one page of devices as entities, for callers that encode them directly instead of mapping to DTOs.
+     */
+    DevicePage getDevicePage(DeviceFilter filter);
+
+    /**
+     * Hands every matching device to the consumer one by one, straight from a database cursor,
+     * without collecting the result in memory. The device is detached once the consumer returns.
+     */
+    void exportDevices(String brand, State state, Consumer<Device> consumer);
 
     void deleteDevice(UUID id);
 
@@ -1,84 +1,311 @@
 package com.example.devices.service;
 
+import com.example.devices.brand.BrandDictionary;
+import com.example.devices.cache.DeviceCacheLoader;
+import com.example.devices.config.BulkOperationProperties;
+import com.example.devices.config.CacheConfig;
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.dto.BatchCreateResultDto;
+import com.example.devices.dto.BatchItemResultDto;
+import com.example.devices.dto.BulkStateTransitionDto;
+import com.example.devices.dto.BulkStateTransitionResultDto;
 import com.example.devices.dto.DeviceDto;
-import com.example.devices.dto.DevicesDto;
+import com.example.devices.dto.DeviceFilter;
 import com.example.devices.entity.Device;
+import com.example.devices.enums.BatchItemStatus;
+import com.example.devices.enums.ChangeType;
 import com.example.devices.enums.State;
+import com.example.devices.exception.BatchTooLargeException;
 import com.example.devices.exception.DeviceNotFoundException;
+import com.example.devices.exception.DeviceStateConflictException;
+import com.example.devices.exception.DeviceVersionMismatchException;
 import com.example.devices.exception.ErrorMessages;
 import com.example.devices.exception.IllegalDeviceStateException;
+import com.example.devices.event.DeviceChangedEvent;
 import com.example.devices.mapper.DeviceMapper;
+import com.example.devices.pagination.DeviceCursor;
+import com.example.devices.pagination.DevicePage;
 import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceSpecifications;
+import com.example.devices.repository.DeviceStateView;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import com.example.devices.validation.OnPut;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Every operation is timed as {@code devices.service}, tagged with its method and the exception it failed with.
+ */
+@Timed(value = DeviceServiceImpl.METRIC_NAME, description = "Device service operations")
 @Service
 public class DeviceServiceImpl implements DeviceService {
 
+    static final String METRIC_NAME = "devices.service";
+
     private final DeviceRepository deviceRepository;
+    private final DeviceTombstoneRepository tombstoneRepository;
     private final DeviceMapper deviceMapper;
+    private final PaginationProperties paginationProperties;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkOperationProperties bulkOperationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache devicesCache;
+    private final BrandDictionary brandDictionary;
+    private final DeviceCacheLoader deviceCacheLoader;
 
-    public DeviceServiceImpl(DeviceRepository deviceRepository, DeviceMapper deviceMapper) {
+    public DeviceServiceImpl(DeviceRepository deviceRepository, DeviceTombstoneRepository tombstoneRepository,
+                             DeviceMapper deviceMapper, PaginationProperties paginationProperties,
+                             EntityManager entityManager,
+                             Validator validator, TransactionTemplate transactionTemplate,
+                             BulkOperationProperties bulkOperationProperties, ApplicationEventPublisher eventPublisher,
+                             CacheManager cacheManager, BrandDictionary brandDictionary,
+                             DeviceCacheLoader deviceCacheLoader) {
         this.deviceRepository = deviceRepository;
+        this.tombstoneRepository = tombstoneRepository;
         this.deviceMapper = deviceMapper;
+        this.paginationProperties = paginationProperties;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkOperationProperties = bulkOperationProperties;
+        this.eventPublisher = eventPublisher;
+        this.devicesCache = cacheManager.getCache(CacheConfig.DEVICES_CACHE);
+        this.brandDictionary = brandDictionary;
+        this.deviceCacheLoader = deviceCacheLoader;
     }
 
+    @CachePut(cacheNames = CacheConfig.DEVICES_CACHE, key = "#result.id")
     @Transactional
     @Override
     public DeviceDto createDevice(DeviceDto deviceDto) {
-        var device = deviceMapper.toEntity(deviceDto);
-        var savedDevice = deviceRepository.save(device);
-        return deviceMapper.toDto(savedDevice);
+        var device = toEntity(deviceDto);
+        var createdDevice = deviceMapper.toDto(deviceRepository.save(device));
+        eventPublisher.publishEvent(DeviceChangedEvent.created(createdDevice));
+        return createdDevice;
+    }
+
+    @Override
+    public BatchCreateResultDto createDevices(List<DeviceDto> deviceDtos) {
+        if (deviceDtos.size() > bulkOperationProperties.maxBatchItems()) {
+            throw new BatchTooLargeException(
+                    String.format(ErrorMessages.BATCH_TOO_LARGE_MESSAGE, bulkOperationProperties.maxBatchItems()));
+        }
+        var results = new BatchItemResultDto[deviceDtos.size()];
+        var validIndexes = new ArrayList<Integer>(deviceDtos.size());
+        for (int index = 0; index < deviceDtos.size(); index++) {
+            // A null element of the JSON array is a rejected item, the validator refuses to look at it
+            if (Objects.isNull(deviceDtos.get(index))) {
+                results[index] = failedItem(index, List.of(ErrorMessages.BATCH_ITEM_NULL_MESSAGE));
+                continue;
+            }
+            var violations = validator.validate(deviceDtos.get(index), OnPut.class);
+            if (violations.isEmpty()) {
+                validIndexes.add(index);
+            } else {
+                results[index] = failedItem(index, violations.stream().map(ConstraintViolation::getMessage).toList());
+            }
+        }
+        var batchSize = bulkOperationProperties.batchSize();
+        for (int from = 0; from < validIndexes.size(); from += batchSize) {
+            var batch = validIndexes.subList(from, Math.min(from + batchSize, validIndexes.size()));
+            insertBatch(deviceDtos, batch, results);
+        }
+        var created = (int) Arrays.stream(results).filter(result -> result.getStatus() == BatchItemStatus.CREATED).count();
+        return BatchCreateResultDto.builder()
+                .created(created)
+                .failed(results.length - created)
+                .results(Arrays.asList(results))
+                .build();
     }
 
+    @CachePut(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
     @Transactional
     @Override
     public DeviceDto updateDevice(UUID id, DeviceDto deviceDto) {
+        // Registered before the device is read, so a new brand never waits for a connection while holding one
+        var brand = brandDictionary.register(deviceDto.getBrand());
         var device = deviceRepository.findById(id)
                 .orElseThrow(() -> new DeviceNotFoundException(ErrorMessages.DEVICE_NOT_FOUND_MESSAGE));
         if (Objects.equals(device.getState(), State.IN_USE) && Objects.equals(deviceDto.getState(), State.IN_USE)) {
             throw new IllegalDeviceStateException(ErrorMessages.CANNOT_UPDATE_DEVICE_IN_USE_NAME_AND_BRAND_MESSAGE);
         }
+        validateVersion(device, deviceDto);
+        var before = deviceMapper.toDto(device);
         var updatedDevice = deviceMapper.toEntity(deviceDto);
+        updatedDevice.setBrand(brand);
         updatedDevice.setId(id);
         updatedDevice.setCreationTime(device.getCreationTime());
-        return deviceMapper.toDto(deviceRepository.save(updatedDevice));
+        updatedDevice.setVersion(device.getVersion());
+        // Flushed so the returned and cached device carries the incremented version
+        var after = deviceMapper.toDto(deviceRepository.saveAndFlush(updatedDevice));
+        eventPublisher.publishEvent(new DeviceChangedEvent(ChangeType.UPDATED, id, before, after));
+        return after;
     }
 
+    @CachePut(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
     @Transactional
     @Override
     public DeviceDto patchDevice(UUID id, DeviceDto deviceDto) {
+        // Registered before the device is read, so a new brand never waits for a connection while holding one
+        var brand = brandDictionary.register(deviceDto.getBrand());
         var device = deviceRepository.findById(id)
                 .orElseThrow(() -> new DeviceNotFoundException(ErrorMessages.DEVICE_NOT_FOUND_MESSAGE));
         // Validate the state transition before updating
         validateDeviceState(device, deviceDto);
+        validateVersion(device, deviceDto);
 
+        var before = deviceMapper.toDto(device);
         deviceMapper.updateDeviceFromDto(deviceDto, device);
-        return deviceMapper.toDto(deviceRepository.save(device));
+        if (Objects.nonNull(brand)) {
+            device.setBrand(brand);
+        }
+        var after = deviceMapper.toDto(deviceRepository.saveAndFlush(device));
+        eventPublisher.publishEvent(new DeviceChangedEvent(ChangeType.PATCHED, id, before, after));
+        return after;
+    }
+
+    @Override
+    public BulkStateTransitionResultDto transitionDevicesState(BulkStateTransitionDto transition) {
+        var chunkSize = bulkOperationProperties.transitionChunkSize();
+        var brand = transition.getBrand();
+        resolveBrand(brand);
+        var state = transition.getCurrentState();
+        var targetState = transition.getTargetState();
+        long updated = 0;
+        int chunks = 0;
+        if (Objects.nonNull(transition.getIds()) && !transition.getIds().isEmpty()) {
+            var ids = List.copyOf(new LinkedHashSet<>(transition.getIds()));
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                var chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                var transitioned = transactionTemplate.execute(status -> transitionLocked(
+                        lockTransitionCandidates(chunk, brand, state, targetState), targetState));
+                invalidateCached(transitioned);
+                updated += transitioned.size();
+                chunks++;
+            }
+        } else {
+            // Walk the matching devices in creation order so every chunk is a short transaction of its own
+            var after = Instant.EPOCH;
+            var afterId = new UUID(0, 0);
+            List<DeviceStateView> transitioned;
+            do {
+                var lastCreationTime = after;
+                var lastId = afterId;
+                transitioned = transactionTemplate.execute(status -> transitionLocked(
+                        lockTransitionCandidates(brand, state, targetState, lastCreationTime, lastId,
+                                Limit.of(chunkSize)), targetState));
+                invalidateCached(transitioned);
+                if (transitioned.isEmpty()) {
+                    break;
+                }
+                updated += transitioned.size();
+                chunks++;
+                after = transitioned.getLast().creationTime();
+                afterId = transitioned.getLast().id();
+            } while (transitioned.size() == chunkSize);
+        }
+        return BulkStateTransitionResultDto.builder()
+                .updated(updated)
+                .chunks(chunks)
+                .build();
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
+    @Transactional
+    @Override
+    public void transitionDeviceState(UUID id, State from, State to) {
+        if (from == to) {
+            throw new IllegalDeviceStateException(ErrorMessages.SAME_STATE_TRANSITION_MESSAGE);
+        }
+        // One round trip when the transition wins, the lost race is told apart from a missing device afterwards
+        if (deviceRepository.compareAndSetState(id, from, to, Device.modificationTime()) == 0) {
+            if (!deviceRepository.existsById(id)) {
+                throw new DeviceNotFoundException(ErrorMessages.DEVICE_NOT_FOUND_MESSAGE);
+            }
+            throw new DeviceStateConflictException(String.format(ErrorMessages.DEVICE_STATE_CONFLICT_MESSAGE, from));
+        }
+        // Listeners count devices per brand, the device cache mostly knows it and a miss costs a primary key read
+        var cached = devicesCache.get(id, DeviceDto.class);
+        var brand = Objects.nonNull(cached) ? cached.getBrand() : deviceRepository.findBrandById(id).orElse(null);
+        eventPublisher.publishEvent(DeviceChangedEvent.stateChanged(id, brand, from, to));
     }
 
+    // Concurrent misses of the same id wait for one query instead of each sending it, see DeviceCacheLoader
+    @Transactional(readOnly = true)
     @Override
     public DeviceDto getDeviceById(UUID id) {
-        var device = deviceRepository.findById(id)
+        return deviceCacheLoader.get(id, () -> deviceRepository.findById(id)
+                .map(deviceMapper::toDto)
+                .orElseThrow(() -> new DeviceNotFoundException(ErrorMessages.DEVICE_NOT_FOUND_MESSAGE)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long getDeviceVersion(UUID id) {
+        // A cached device answers without a query, otherwise only the version is read
+        var cached = devicesCache.get(id, DeviceDto.class);
+        if (Objects.nonNull(cached) && Objects.nonNull(cached.getVersion())) {
+            return cached.getVersion();
+        }
+        return deviceRepository.findVersionById(id)
                 .orElseThrow(() -> new DeviceNotFoundException(ErrorMessages.DEVICE_NOT_FOUND_MESSAGE));
-        return deviceMapper.toDto(device);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public DevicesDto getDevicesByFilters(String brand, State state) {
-        List<Device> devices = deviceRepository.findByBrandAndState(brand, state);
-        return DevicesDto.builder()
-                .devices(devices.stream()
-                        .map(deviceMapper::toDto)
-                        .collect(Collectors.toList()))
-                .build();
+    public DevicePage getDevicePage(DeviceFilter filter) {
+        resolveBrand(filter.getBrand());
+        var limit = paginationProperties.resolveLimit(filter.getLimit());
+        var direction = Objects.requireNonNullElse(filter.getDirection(), DeviceSpecifications.DEFAULT_DIRECTION);
+        var cursor = Objects.isNull(filter.getCursor()) ? null : DeviceCursor.decode(filter.getCursor());
+        var specification = DeviceSpecifications.matching(filter)
+                .and(DeviceSpecifications.after(cursor, direction));
+        // One extra row tells whether a next page exists without issuing a COUNT query
+        List<Device> devices = deviceRepository.findBy(specification,
+                query -> query.sortBy(DeviceSpecifications.keysetSort(direction)).limit(limit + 1).all());
+        var hasNext = devices.size() > limit;
+        var page = hasNext ? devices.subList(0, limit) : devices;
+        return new DevicePage(page, hasNext ? DeviceCursor.of(page.getLast()).encode() : null);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportDevices(String brand, State state, Consumer<Device> consumer) {
+        resolveBrand(brand);
+        try (var devices = streamDevices(brand, state)) {
+            devices.forEach(device -> {
+                consumer.accept(device);
+                // Keep the persistence context from growing with the export
+                entityManager.detach(device);
+            });
+        }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
     @Transactional
     @Override
     public void deleteDevice(UUID id) {
@@ -88,6 +315,129 @@ public class DeviceServiceImpl implements DeviceService {
             throw new IllegalDeviceStateException(ErrorMessages.CANNOT_DELETE_DEVICE_IN_USE_MESSAGE);
         }
         deviceRepository.deleteById(id);
+        tombstoneRepository.recordDeleted(id, Device.modificationTime());
+        eventPublisher.publishEvent(DeviceChangedEvent.deleted(deviceMapper.toDto(device)));
+    }
+
+    private Stream<Device> streamDevices(String brand, State state) {
+        if (Objects.nonNull(brand) && Objects.nonNull(state)) {
+            return deviceRepository.streamByBrandAndState(brand, state);
+        }
+        if (Objects.nonNull(brand)) {
+            return deviceRepository.streamByBrand(brand);
+        }
+        if (Objects.nonNull(state)) {
+            return deviceRepository.streamByState(state);
+        }
+        return deviceRepository.streamAll();
+    }
+
+    private List<DeviceStateView> lockTransitionCandidates(String brand, State state, State targetState,
+                                                           Instant after, UUID afterId, Limit limit) {
+        if (Objects.nonNull(brand) && Objects.nonNull(state)) {
+            return deviceRepository.lockTransitionCandidatesByBrandAndState(brand, state, targetState, after, afterId,
+                    limit);
+        }
+        if (Objects.nonNull(brand)) {
+            return deviceRepository.lockTransitionCandidatesByBrand(brand, targetState, after, afterId, limit);
+        }
+        if (Objects.nonNull(state)) {
+            return deviceRepository.lockTransitionCandidatesByState(state, targetState, after, afterId, limit);
+        }
+        return deviceRepository.lockTransitionCandidates(targetState, after, afterId, limit);
+    }
+
+    private List<DeviceStateView> lockTransitionCandidates(List<UUID> ids, String brand, State state,
+                                                           State targetState) {
+        if (Objects.nonNull(brand) && Objects.nonNull(state)) {
+            return deviceRepository.lockTransitionCandidatesByIdsAndBrandAndState(ids, brand, state, targetState);
+        }
+        if (Objects.nonNull(brand)) {
+            return deviceRepository.lockTransitionCandidatesByIdsAndBrand(ids, brand, targetState);
+        }
+        if (Objects.nonNull(state)) {
+            return deviceRepository.lockTransitionCandidatesByIdsAndState(ids, state, targetState);
+        }
+        return deviceRepository.lockTransitionCandidatesByIds(ids, targetState);
+    }
+
+    private void insertBatch(List<DeviceDto> deviceDtos, List<Integer> batch, BatchItemResultDto[] results) {
+        try {
+            var created = transactionTemplate.execute(status -> insertDevices(
+                    batch.stream().map(index -> toEntity(deviceDtos.get(index))).toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                results[batch.get(i)] = createdItem(batch.get(i), created.get(i));
+            }
+        } catch (DataAccessException e) {
+            // The whole batch was rolled back, retry its devices one by one to isolate the offending ones
+            for (var index : batch) {
+                try {
+                    var created = transactionTemplate.execute(status ->
+                            insertDevices(List.of(toEntity(deviceDtos.get(index)))));
+                    results[index] = createdItem(index, created.getFirst());
+                } catch (DataAccessException itemException) {
+                    results[index] = failedItem(index, List.of(ErrorMessages.DEVICE_NOT_SAVED_MESSAGE));
+                }
+            }
+        }
+    }
+
+    // A transaction takes its connection at its first statement. Looking the brand of a filter up before that lets
+    // the converter bind it from memory, rather than wait for a second connection while holding the first
+    private void resolveBrand(String brand) {
+        if (Objects.nonNull(brand)) {
+            brandDictionary.idOf(brand);
+        }
+    }
+
+    private Device toEntity(DeviceDto deviceDto) {
+        return brandDictionary.registerBrandOf(deviceMapper.toEntity(deviceDto));
+    }
+
+    private List<DeviceDto> insertDevices(List<Device> devices) {
+        var created = deviceRepository.saveAllAndFlush(devices).stream()
+                .map(deviceMapper::toDto)
+                .toList();
+        created.forEach(device -> eventPublisher.publishEvent(DeviceChangedEvent.created(device)));
+        return created;
+    }
+
+    private List<DeviceStateView> transitionLocked(List<DeviceStateView> devices, State targetState) {
+        if (!devices.isEmpty()) {
+            deviceRepository.transitionState(devices.stream().map(DeviceStateView::id).toList(), targetState,
+                    Device.modificationTime());
+            devices.forEach(device -> eventPublisher.publishEvent(
+                    DeviceChangedEvent.stateChanged(device.id(), device.brand(), device.state(), targetState)));
+        }
+        return devices;
+    }
+
+    // Once the chunk committed, so a later chunk failing leaves no device of this one cached in its old state
+    private void invalidateCached(List<DeviceStateView> transitioned) {
+        transitioned.forEach(device -> deviceCacheLoader.invalidate(device.id()));
+    }
+
+    private static BatchItemResultDto createdItem(int index, DeviceDto device) {
+        return BatchItemResultDto.builder()
+                .index(index)
+                .status(BatchItemStatus.CREATED)
+                .device(device)
+                .build();
+    }
+
+    private static BatchItemResultDto failedItem(int index, List<String> errors) {
+        return BatchItemResultDto.builder()
+                .index(index)
+                .status(BatchItemStatus.FAILED)
+                .errors(errors)
+                .build();
+    }
+
+    private static void validateVersion(Device device, DeviceDto deviceDto) {
+        if (Objects.nonNull(deviceDto.getVersion()) && !Objects.equals(device.getVersion(), deviceDto.getVersion())) {
+            throw new DeviceVersionMismatchException(
+                    String.format(ErrorMessages.DEVICE_VERSION_MISMATCH_MESSAGE, deviceDto.getVersion()));
+        }
     }
 
     private void validateDeviceState(Device device, DeviceDto deviceDto) {
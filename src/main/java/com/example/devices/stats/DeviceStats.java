@@ -0,0 +1,184 @@
+package com.example.devices.stats;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DeviceStatsDto;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.repository.DeviceCountView;
+import com.example.devices.repository.DeviceRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Device counts per brand and state, kept up to date from the committed changes so that reading them takes no
+ * query. A scheduled GROUP BY on the primary corrects whatever drifted, like changes without a known brand.
+ * Brands compare case-insensitively, as MySQL groups them.
+ */
+@Slf4j
+@Component
+public class DeviceStats implements MeterBinder {
+
+    private static final State[] STATES = State.values();
+    // A reconcile raced by changes is retried this often before its counts are taken as they are
+    static final int RECONCILE_ATTEMPTS = 3;
+
+    private final DeviceRepository deviceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, AtomicLongArray> counts = new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+    // Changes count under the read lock, a reconcile replaces the counts under the write lock
+    private final ReentrantReadWriteLock countsLock = new ReentrantReadWriteLock();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong corrections = new AtomicLong();
+    private volatile Instant reconciledAt;
+
+    public DeviceStats(DeviceRepository deviceRepository, TransactionTemplate transactionTemplate) {
+        this.deviceRepository = deviceRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        countsLock.readLock().lock();
+        try {
+            changes.incrementAndGet();
+            count(event.before(), -1);
+            count(event.after(), 1);
+        } finally {
+            countsLock.readLock().unlock();
+        }
+    }
+
+    public DeviceStatsDto stats() {
+        if (Objects.isNull(reconciledAt)) {
+            reconcile();
+        }
+        var states = new EnumMap<State, Long>(State.class);
+        var brands = new TreeMap<String, Map<State, Long>>(String.CASE_INSENSITIVE_ORDER);
+        long total = 0;
+        countsLock.readLock().lock();
+        try {
+            for (var entry : counts.entrySet()) {
+                var brandStates = new EnumMap<State, Long>(State.class);
+                long brandTotal = 0;
+                for (var state : STATES) {
+                    var count = entry.getValue().get(state.ordinal());
+                    brandStates.put(state, count);
+                    states.merge(state, count, Long::sum);
+                    brandTotal += count;
+                }
+                if (brandTotal != 0) {
+                    brands.put(entry.getKey(), brandStates);
+                    total += brandTotal;
+                }
+            }
+        } finally {
+            countsLock.readLock().unlock();
+        }
+        for (var state : STATES) {
+            states.putIfAbsent(state, 0L);
+        }
+        return DeviceStatsDto.builder()
+                .total(total)
+                .states(states)
+                .brands(brands)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    /**
+     * Replaces the counts with those of the database. The counts are only taken when no change was counted
+     * while the query ran, as it may or may not have seen that change; after {@value #RECONCILE_ATTEMPTS} raced
+     * attempts they are taken anyway and the next reconcile corrects the rest.
+     */
+    @Scheduled(fixedDelayString = "${devices.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+                var changesBefore = changes.get();
+                // Read-write, so the query runs on the primary and never counts from a lagging replica
+                List<DeviceCountView> rows = transactionTemplate.execute(status -> deviceRepository.countByBrandAndState());
+                countsLock.writeLock().lock();
+                try {
+                    if (changes.get() == changesBefore || attempt == RECONCILE_ATTEMPTS) {
+                        replaceCounts(Objects.requireNonNull(rows));
+                        reconciledAt = Instant.now();
+                        return;
+                    }
+                } finally {
+                    countsLock.writeLock().unlock();
+                }
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("devices.stats.corrections", corrections, AtomicLong::get)
+                .description("Device counts a reconcile found off and corrected")
+                .register(registry);
+    }
+
+    private void count(DeviceDto device, int delta) {
+        // Left to the reconcile, a bulk change of a device deleted meanwhile may not know its brand
+        if (Objects.isNull(device) || Objects.isNull(device.getBrand()) || Objects.isNull(device.getState())) {
+            return;
+        }
+        counts.computeIfAbsent(device.getBrand(), brand -> new AtomicLongArray(STATES.length))
+                .addAndGet(device.getState().ordinal(), delta);
+    }
+
+    private void replaceCounts(List<DeviceCountView> rows) {
+        var reconciled = new TreeMap<String, long[]>(String.CASE_INSENSITIVE_ORDER);
+        for (var row : rows) {
+            if (Objects.isNull(row.brand()) || Objects.isNull(row.state())) {
+                continue;
+            }
+            reconciled.computeIfAbsent(row.brand(), brand -> new long[STATES.length])[row.state().ordinal()] += row.count();
+        }
+        long corrected = 0;
+        for (var entry : counts.entrySet()) {
+            var actual = reconciled.getOrDefault(entry.getKey(), new long[STATES.length]);
+            for (var state : STATES) {
+                if (entry.getValue().get(state.ordinal()) != actual[state.ordinal()]) {
+                    corrected++;
+                }
+            }
+        }
+        for (var entry : reconciled.entrySet()) {
+            if (!counts.containsKey(entry.getKey())) {
+                for (var count : entry.getValue()) {
+                    corrected += count != 0 ? 1 : 0;
+                }
+            }
+        }
+        counts.clear();
+        reconciled.forEach((brand, stateCounts) -> counts.put(brand, new AtomicLongArray(stateCounts)));
+        // The first reconcile loads the counts, it corrects nothing
+        if (Objects.nonNull(reconciledAt) && corrected > 0) {
+            corrections.addAndGet(corrected);
+            log.debug("Corrected {} device counts", corrected);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.devices.brand;
+
+import com.example.devices.entity.Device;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+class BrandDictionaryTest {
+
+    // The brands table, rows of id, name and name key
+    private final List<Object[]> brands = new ArrayList<>();
+    private final List<String> statements = new ArrayList<>();
+    private final DataSource dataSource = Mockito.mock(DataSource.class);
+    private BrandDictionary brandDictionary;
+
+    @BeforeEach
+    void beforeEach() throws SQLException {
+        brands.add(new Object[]{1, "Nokia", "nokia"});
+        Mockito.when(dataSource.getConnection()).thenAnswer(invocation -> connection());
+        brandDictionary = new BrandDictionary(dataSource);
+    }
+
+    @Test
+    void register_whenBrandKnownInOtherCase_thenCanonicalNameReturnedTest() {
+        Assertions.assertThat(brandDictionary.register("NOKIA"))
+                .isEqualTo("Nokia");
+        Assertions.assertThat(statements)
+                .containsExactly(BrandDictionary.SELECT_ALL);
+    }
+
+    @Test
+    void register_whenBrandNew_thenInsertedAndSharedTest() {
+        var registered = brandDictionary.register("Apple");
+
+        Assertions.assertThat(brands)
+                .hasSize(2);
+        Assertions.assertThat(brandDictionary.idOf("apple"))
+                .isEqualTo(2);
+        Assertions.assertThat(brandDictionary.nameOf(2))
+                .isSameAs(registered);
+    }
+
+    @Test
+    void registerBrandOf_whenBrandKnownInOtherCase_thenDeviceGetsCanonicalNameTest() {
+        var device = Device.builder().name("3310").brand("NOKIA").build();
+
+        Assertions.assertThat(brandDictionary.registerBrandOf(device).getBrand())
+                .isEqualTo("Nokia");
+    }
+
+    @Test
+    void idOf_whenBrandNotRegistered_thenUnknownIdTest() {
+        Assertions.assertThat(brandDictionary.idOf("apple"))
+                .isEqualTo(BrandDictionary.UNKNOWN_ID);
+        Assertions.assertThat(brands)
+                .hasSize(1);
+    }
+
+    @Test
+    void idOf_whenBrandFoundMissingBefore_thenDatabaseNotAskedAgainTest() {
+        brandDictionary.idOf("apple");
+
+        Assertions.assertThat(brandDictionary.idOf("Apple"))
+                .isEqualTo(BrandDictionary.UNKNOWN_ID);
+        Assertions.assertThat(statements)
+                .containsExactly(BrandDictionary.SELECT_ALL, BrandDictionary.SELECT_BY_KEY);
+    }
+
+    @Test
+    void register_whenBrandFoundMissingBefore_thenRegisteredAndFoundTest() {
+        brandDictionary.idOf("apple");
+
+        brandDictionary.register("Apple");
+
+        Assertions.assertThat(brandDictionary.idOf("apple"))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void idOf_whenBrandRegisteredElsewhere_thenReadFromDatabaseTest() {
+        brandDictionary.idOf("nokia");
+        brands.add(new Object[]{2, "Apple", "apple"});
+
+        Assertions.assertThat(brandDictionary.idOf("Apple"))
+                .isEqualTo(2);
+        Assertions.assertThat(statements)
+                .containsExactly(BrandDictionary.SELECT_ALL, BrandDictionary.SELECT_BY_KEY);
+    }
+
+    @Test
+    void nameOf_whenCalledTwice_thenSameInstanceReturnedTest() {
+        Assertions.assertThat(brandDictionary.nameOf(1))
+                .isSameAs(brandDictionary.nameOf(1));
+        Assertions.assertThat(brandDictionary.nameOf(null))
+                .isNull();
+    }
+
+    @Test
+    void nameOf_whenBrandDoesNotExist_thenIllegalStateExceptionThrownTest() {
+        Assertions.assertThatThrownBy(() -> brandDictionary.nameOf(7))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void register_whenDatabaseUnavailable_thenDataAccessExceptionThrownTest() throws SQLException {
+        Mockito.when(dataSource.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+
+        Assertions.assertThatThrownBy(() -> brandDictionary.register("Apple"))
+                .isInstanceOf(DataAccessException.class);
+    }
+
+    @Test
+    void convertToDatabaseColumn_whenBrandGiven_thenIdReturnedTest() {
+        var converter = new BrandConverter(brandDictionary);
+
+        Assertions.assertThat(converter.convertToDatabaseColumn("nokia"))
+                .isEqualTo(1);
+        Assertions.assertThat(converter.convertToEntityAttribute(1))
+                .isEqualTo("Nokia");
+        Assertions.assertThat(converter.convertToDatabaseColumn(null))
+                .isNull();
+    }
+
+    private Connection connection() throws SQLException {
+        var connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString()))
+                .thenAnswer(invocation -> statement(invocation.getArgument(0)));
+        return connection;
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        statements.add(sql);
+        var parameters = new Object[2];
+        var statement = Mockito.mock(PreparedStatement.class);
+        Mockito.doAnswer(invocation -> parameters[invocation.<Integer>getArgument(0) - 1] = invocation.getArgument(1))
+                .when(statement).setObject(Mockito.anyInt(), Mockito.any());
+        Mockito.when(statement.executeUpdate()).thenAnswer(invocation -> {
+            brands.add(new Object[]{brands.size() + 1, parameters[0], parameters[1]});
+            return 1;
+        });
+        Mockito.when(statement.executeQuery()).thenAnswer(invocation -> resultSet(brands.stream()
+                .filter(row -> sql.equals(BrandDictionary.SELECT_ALL)
+                        || sql.equals(BrandDictionary.SELECT_BY_ID) && Objects.equals(row[0], parameters[0])
+                        || sql.equals(BrandDictionary.SELECT_BY_KEY) && Objects.equals(row[2], parameters[0]))
+                .iterator()));
+        return statement;
+    }
+
+    private static ResultSet resultSet(Iterator<Object[]> rows) throws SQLException {
+        var current = new Object[1][];
+        var resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> {
+            current[0] = rows.hasNext() ? rows.next() : null;
+            return current[0] != null;
+        });
+        Mockito.when(resultSet.getInt(1)).thenAnswer(invocation -> current[0][0]);
+        Mockito.when(resultSet.getString(2)).thenAnswer(invocation -> current[0][1]);
+        Mockito.when(resultSet.getString(3)).thenAnswer(invocation -> current[0][2]);
+        return resultSet;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.devices.cache;
+
+import com.example.devices.config.CacheConfig;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+class DeviceCacheLoaderTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.DEVICES_CACHE);
+    private final DeviceCacheLoader deviceCacheLoader = new DeviceCacheLoader(cacheManager);
+    private final UUID id = UUID.randomUUID();
+
+    @Test
+    void get_whenDeviceCached_thenLoaderNotCalledTest() {
+        var cached = device("5530");
+        cacheManager.getCache(CacheConfig.DEVICES_CACHE).put(id, cached);
+
+        Assertions.assertThat(deviceCacheLoader.get(id, () -> {
+                    throw new AssertionError("loaded");
+                }))
+                .isSameAs(cached);
+    }
+
+    @Test
+    void get_whenDeviceChangedWhileLoading_thenLoadedDeviceNotCachedTest() {
+        var loaded = deviceCacheLoader.get(id, () -> {
+            deviceCacheLoader.onDeviceChanged(DeviceChangedEvent.deleted(device("5530")));
+            return device("5530");
+        });
+
+        Assertions.assertThat(loaded.getName())
+                .isEqualTo("5530");
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.DEVICES_CACHE).get(id))
+                .isNull();
+    }
+
+    @Test
+    void get_whenRequestedAfterChange_thenEarlierLoadNotJoinedTest() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var earlier = executor.submit(() -> deviceCacheLoader.get(id, () -> {
+                started.countDown();
+                await(release);
+                return device("5530");
+            }));
+            started.await();
+            deviceCacheLoader.onDeviceChanged(DeviceChangedEvent.deleted(device("5530")));
+
+            Assertions.assertThat(deviceCacheLoader.get(id, () -> device("3310")).getName())
+                    .isEqualTo("3310");
+            release.countDown();
+            Assertions.assertThat(earlier.get().getName())
+                    .isEqualTo("5530");
+        }
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.DEVICES_CACHE).get(id, DeviceDto.class))
+                .isNotEqualTo(device("5530"));
+    }
+
+    @Test
+    void get_whenInTransaction_thenPutRightAwayTest() {
+        var loader = new DeviceCacheLoader(new TransactionAwareCacheManagerProxy(cacheManager));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            loader.get(id, () -> device("5530"));
+
+            Assertions.assertThat(cacheManager.getCache(CacheConfig.DEVICES_CACHE).get(id))
+                    .isNotNull();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidate_whenDeviceCached_thenEvictedTest() {
+        cacheManager.getCache(CacheConfig.DEVICES_CACHE).put(id, device("5530"));
+        var generation = deviceCacheLoader.generationOf(id);
+
+        deviceCacheLoader.invalidate(id);
+
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.DEVICES_CACHE).get(id))
+                .isNull();
+        Assertions.assertThat(deviceCacheLoader.generationOf(id))
+                .isGreaterThan(generation);
+    }
+
+    private DeviceDto device(String name) {
+        return DeviceDto.builder()
+                .id(id)
+                .name(name)
+                .brand("nokia")
+                .state(State.AVAILABLE)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
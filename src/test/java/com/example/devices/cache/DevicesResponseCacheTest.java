@@ -0,0 +1,203 @@
+package com.example.devices.cache;
+
+import com.example.devices.config.ListCacheProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DeviceFilter;
+import com.example.devices.dto.DevicesDto;
+import com.example.devices.encoding.DeviceFormat;
+import com.example.devices.encoding.DevicePageEncoder;
+import com.example.devices.encoding.DeviceProtobufCodec;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.json.DeviceJsonWriter;
+import com.example.devices.pagination.DevicePage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.luben.zstd.Zstd;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+class DevicesResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final DeviceFilter filter = DeviceFilter.builder().brand("nokia").build();
+    private final AtomicInteger loads = new AtomicInteger();
+    private DevicesResponseCache devicesResponseCache;
+    private DevicePage devicePage;
+
+    @BeforeEach
+    void beforeEach() {
+        devicesResponseCache = new DevicesResponseCache(new DevicePageEncoder(new DeviceJsonWriter(objectMapper), new DeviceProtobufCodec()),
+                new ListCacheProperties(DataSize.ofMegabytes(1), DataSize.ofBytes(0)));
+        devicePage = new DevicePage(List.of(Device.builder().id(UUID.randomUUID()).name("5530").brand("nokia")
+                .state(State.AVAILABLE).build()), null);
+    }
+
+    @Test
+    void get_whenCalledTwice_thenLoadedOnceTest() {
+        var first = devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+        var second = devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+
+        Assertions.assertThat(second)
+                .isSameAs(first);
+        Assertions.assertThat(loads.get())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_whenSameFilterMissedConcurrently_thenLoadedOnceTest() throws Exception {
+        var release = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                executor.submit(() -> devicesResponseCache.get(filter, DeviceFormat.JSON, () -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return loader().get();
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        Assertions.assertThat(loads.get())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_whenFormatsDiffer_thenEachFormatLoadedAndCachedSeparatelyTest() {
+        var json = devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+        var protobuf = devicesResponseCache.get(filter, DeviceFormat.PROTOBUF, loader());
+
+        Assertions.assertThat(protobuf.body())
+                .isNotEqualTo(json.body());
+        Assertions.assertThat(devicesResponseCache.get(filter, DeviceFormat.PROTOBUF, loader()))
+                .isSameAs(protobuf);
+        Assertions.assertThat(loads.get())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void get_whenDeviceChanged_thenResponseLoadedAgainTest() {
+        devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+        devicesResponseCache.onDeviceChanged(DeviceChangedEvent.deleted(DeviceDto.builder().id(UUID.randomUUID()).build()));
+        devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+
+        Assertions.assertThat(loads.get())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void eTag_whenDeviceOfOtherBrandChanged_thenETagKeptTest() {
+        var eTag = devicesResponseCache.eTag(filter, DeviceFormat.JSON);
+
+        devicesResponseCache.onDeviceChanged(DeviceChangedEvent.created(
+                DeviceDto.builder().id(UUID.randomUUID()).brand("samsung").state(State.AVAILABLE).build()));
+        Assertions.assertThat(devicesResponseCache.eTag(filter, DeviceFormat.JSON))
+                .isEqualTo(eTag);
+        Assertions.assertThat(devicesResponseCache.eTag(DeviceFilter.builder().state(State.AVAILABLE).build(), DeviceFormat.JSON))
+                .isNotEqualTo(eTag);
+    }
+
+    @Test
+    void eTag_whenDevicesOfSeveralBrandsChangedTogether_thenEveryBrandETagChangedTest() {
+        var samsung = DeviceFilter.builder().brand("samsung").build();
+        var nokiaETag = devicesResponseCache.eTag(filter, DeviceFormat.JSON);
+        var samsungETag = devicesResponseCache.eTag(samsung, DeviceFormat.JSON);
+        var inactive = DeviceFilter.builder().state(State.INACTIVE).build();
+        var inactiveETag = devicesResponseCache.eTag(inactive, DeviceFormat.JSON);
+
+        devicesResponseCache.onDevicesChanged(List.of(
+                DeviceChangedEvent.stateChanged(UUID.randomUUID(), "nokia", State.AVAILABLE, State.IN_USE),
+                DeviceChangedEvent.stateChanged(UUID.randomUUID(), "samsung", State.AVAILABLE, State.IN_USE)));
+        Assertions.assertThat(devicesResponseCache.eTag(filter, DeviceFormat.JSON))
+                .isNotEqualTo(nokiaETag);
+        Assertions.assertThat(devicesResponseCache.eTag(samsung, DeviceFormat.JSON))
+                .isNotEqualTo(samsungETag);
+        Assertions.assertThat(devicesResponseCache.eTag(inactive, DeviceFormat.JSON))
+                .isEqualTo(inactiveETag);
+    }
+
+    @Test
+    void eTag_whenStateChangedWithoutBrand_thenBrandFiltersInStateChangedTest() {
+        var inUse = DeviceFilter.builder().brand("nokia").state(State.IN_USE).build();
+        var inactive = DeviceFilter.builder().brand("nokia").state(State.INACTIVE).build();
+        var inUseETag = devicesResponseCache.eTag(inUse, DeviceFormat.JSON);
+        var inactiveETag = devicesResponseCache.eTag(inactive, DeviceFormat.JSON);
+        var brandETag = devicesResponseCache.eTag(filter, DeviceFormat.JSON);
+
+        devicesResponseCache.onDeviceChanged(
+                DeviceChangedEvent.stateChanged(UUID.randomUUID(), null, State.AVAILABLE, State.IN_USE));
+        Assertions.assertThat(devicesResponseCache.eTag(inUse, DeviceFormat.JSON))
+                .isNotEqualTo(inUseETag);
+        Assertions.assertThat(devicesResponseCache.eTag(inactive, DeviceFormat.JSON))
+                .isEqualTo(inactiveETag);
+        Assertions.assertThat(devicesResponseCache.eTag(filter, DeviceFormat.JSON))
+                .isNotEqualTo(brandETag);
+    }
+
+    @Test
+    void get_whenResponseLoaded_thenBodyAndCompressedBodiesEncodeSameJsonTest() throws IOException {
+        var response = devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(response.gzippedBody()))) {
+            Assertions.assertThat(gzip.readAllBytes())
+                    .isEqualTo(response.body());
+        }
+        Assertions.assertThat(Zstd.decompress(response.zstdBody(), response.body().length))
+                .isEqualTo(response.body());
+        Assertions.assertThat(objectMapper.readValue(response.body(), DevicesDto.class).getDevices())
+                .extracting(DeviceDto::getName)
+                .containsExactly("5530");
+    }
+
+    @Test
+    void get_whenResponseSmallerThanCompressionMinSize_thenNoCompressedBodiesTest() {
+        devicesResponseCache = new DevicesResponseCache(new DevicePageEncoder(new DeviceJsonWriter(objectMapper), new DeviceProtobufCodec()),
+                new ListCacheProperties(DataSize.ofMegabytes(1), DataSize.ofKilobytes(2)));
+
+        var response = devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+        Assertions.assertThat(response.gzippedBody())
+                .isNull();
+        Assertions.assertThat(response.zstdBody())
+                .isNull();
+    }
+
+    @Test
+    void bindTo_whenResponsesServed_thenHitsAndMissesReportedTest() {
+        var registry = new SimpleMeterRegistry();
+        devicesResponseCache.bindTo(registry);
+
+        devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+        devicesResponseCache.get(filter, DeviceFormat.JSON, loader());
+        Assertions.assertThat(registry.get("cache.gets").tag("cache", DevicesResponseCache.CACHE_NAME)
+                        .tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        Assertions.assertThat(registry.get("cache.gets").tag("cache", DevicesResponseCache.CACHE_NAME)
+                        .tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    private Supplier<DevicePage> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return devicePage;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.devices.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void load_whenSameKeyLoadedConcurrently_thenLoaderRunsOnceTest() throws Exception {
+        var release = new CountDownLatch(1);
+        var results = new ArrayList<Future<Integer>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> singleFlight.load("nokia", () -> {
+                    await(release);
+                    return loads.incrementAndGet();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        for (var result : results) {
+            Assertions.assertThat(result.get())
+                    .isEqualTo(1);
+        }
+        Assertions.assertThat(singleFlight.inFlightCount())
+                .isZero();
+    }
+
+    @Test
+    void load_whenPreviousLoadFinished_thenLoaderRunsAgainTest() {
+        singleFlight.load("nokia", loads::incrementAndGet);
+
+        Assertions.assertThat(singleFlight.load("nokia", loads::incrementAndGet))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void load_whenLoaderFails_thenWaitingCallersGetSameExceptionTest() throws Exception {
+        var release = new CountDownLatch(1);
+        var failure = new IllegalStateException("database down");
+        var results = new ArrayList<Future<Integer>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                results.add(executor.submit(() -> singleFlight.load("nokia", () -> {
+                    await(release);
+                    throw failure;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        for (var result : results) {
+            Assertions.assertThatThrownBy(result::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCause(failure);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
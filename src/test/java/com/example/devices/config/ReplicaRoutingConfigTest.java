@@ -0,0 +1,29 @@
+package com.example.devices.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+class ReplicaRoutingConfigTest {
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void replicaRoutingPostProcessor_whenDataSource_thenMadeLazyTest() throws Exception {
+        var postProcessor = ReplicaRoutingConfig.replicaRoutingPostProcessor(false,
+                Mockito.mock(ObjectProvider.class), Mockito.mock(ObjectProvider.class));
+        var dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(Mockito.mock(Connection.class));
+
+        var bean = postProcessor.postProcessAfterInitialization(dataSource, "dataSource");
+
+        Assertions.assertThat(bean)
+                .isInstanceOf(LazyConnectionDataSourceProxy.class);
+        Assertions.assertThat(postProcessor.postProcessAfterInitialization(bean, "dataSource"))
+                .isSameAs(bean);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.devices.config;
+
+import com.example.devices.monitoring.SlowQueryLog;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+
+class SlowQueryLogConfigTest {
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<SlowQueryLog> slowQueryLog = Mockito.mock(ObjectProvider.class);
+
+    @Test
+    void postProcessAfterInitialization_whenDataSource_thenWrappedInProxyTest() {
+        var postProcessor = SlowQueryLogConfig.slowQueryDataSourcePostProcessor(slowQueryLog);
+
+        var bean = postProcessor.postProcessAfterInitialization(Mockito.mock(DataSource.class), "dataSource");
+
+        Assertions.assertThat(bean)
+                .isInstanceOf(ProxyDataSource.class);
+        Mockito.verifyNoInteractions(slowQueryLog);
+    }
+
+    @Test
+    void postProcessAfterInitialization_whenAlreadyProxied_thenReturnedAsIsTest() {
+        var postProcessor = SlowQueryLogConfig.slowQueryDataSourcePostProcessor(slowQueryLog);
+        var proxy = new ProxyDataSource(Mockito.mock(DataSource.class));
+
+        Assertions.assertThat(postProcessor.postProcessAfterInitialization(proxy, "dataSource"))
+                .isSameAs(proxy);
+    }
+
+    @Test
+    void postProcessAfterInitialization_whenOtherBean_thenReturnedAsIsTest() {
+        var postProcessor = SlowQueryLogConfig.slowQueryDataSourcePostProcessor(slowQueryLog);
+        var bean = new Object();
+
+        Assertions.assertThat(postProcessor.postProcessAfterInitialization(bean, "other"))
+                .isSameAs(bean);
+    }
+}
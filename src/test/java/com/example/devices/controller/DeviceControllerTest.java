@@ -1,27 +1,73 @@
 package com.example.devices.controller;
 
+import com.example.devices.cache.DevicesResponseCache;
+import com.example.devices.config.ListCacheProperties;
+import com.example.devices.dto.BatchCreateResultDto;
+import com.example.devices.dto.BatchItemResultDto;
+import com.example.devices.dto.BulkStateTransitionDto;
+import com.example.devices.dto.BulkStateTransitionResultDto;
+import com.example.devices.dto.DeviceDeltaDto;
 import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DeviceFilter;
+import com.example.devices.dto.DeviceImportDto;
+import com.example.devices.dto.DeviceSearchResultDto;
+import com.example.devices.dto.DeviceStatsDto;
+import com.example.devices.dto.DeviceTombstoneDto;
 import com.example.devices.dto.DevicesDto;
+import com.example.devices.encoding.DeviceFormat;
+import com.example.devices.encoding.DevicePageEncoder;
+import com.example.devices.encoding.DeviceProtobufCodec;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.BatchItemStatus;
+import com.example.devices.enums.ImportFormat;
+import com.example.devices.enums.ImportStatus;
 import com.example.devices.enums.State;
+import com.example.devices.exception.DeltaTokenExpiredException;
+import com.example.devices.exception.DeviceImportConflictException;
+import com.example.devices.exception.DeviceStateConflictException;
+import com.example.devices.exception.DeviceVersionMismatchException;
+import com.example.devices.exception.ErrorMessages;
 import com.example.devices.exception.IllegalDeviceStateException;
+import com.example.devices.feed.DeviceChangeFeed;
+import com.example.devices.json.DeviceJsonWriter;
+import com.example.devices.pagination.DevicePage;
+import com.example.devices.service.DeviceDeltaService;
+import com.example.devices.service.DeviceImportService;
+import com.example.devices.service.DeviceSearchService;
 import com.example.devices.service.DeviceService;
+import com.example.devices.stats.DeviceStats;
 import com.example.devices.utils.SerializationUtil;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.github.luben.zstd.Zstd;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 @WebMvcTest(DeviceController.class)
 class DeviceControllerTest {
@@ -30,15 +76,41 @@ class DeviceControllerTest {
     private MockMvc mockMvc;
     @MockitoBean
     private DeviceService deviceService;
+    @MockitoBean
+    private DeviceChangeFeed deviceChangeFeed;
+    @MockitoBean
+    private DeviceDeltaService deviceDeltaService;
+    @MockitoBean
+    private DeviceStats deviceStats;
+    @MockitoBean
+    private DeviceSearchService deviceSearchService;
+    @MockitoBean
+    private DeviceImportService deviceImportService;
+    @Autowired
+    private DevicesResponseCache devicesResponseCache;
 
     private static final String DEVICES = "/api/devices";
     private static final String DEVICES_BY_ID = DEVICES + "/{id}";
+    private static final String DEVICES_TRANSITION = DEVICES_BY_ID + "/transition";
+    private static final String DEVICES_EXPORT = DEVICES + "/export";
+    private static final String DEVICES_CHANGES = DEVICES + "/changes";
+    private static final String DEVICES_DELTA = DEVICES + "/delta";
+    private static final String DEVICES_STATS = DEVICES + "/stats";
+    private static final String DEVICES_SEARCH = DEVICES + "/search";
+    private static final String DEVICES_IMPORTS = DEVICES + "/imports";
     private static final UUID RANDOM_UUID = UUID.randomUUID();
     private static final Instant TIME_STAMP = Instant.now();
     private DeviceDto deviceDto;
 
+    @TestConfiguration
+    @EnableConfigurationProperties(ListCacheProperties.class)
+    @Import({DevicesResponseCache.class, DevicePageEncoder.class, DeviceJsonWriter.class, DeviceProtobufCodec.class})
+    static class ResponseCacheTestConfig {
+    }
+
     @BeforeEach
     void beforeEach() {
+        devicesResponseCache.invalidateAll();
         this.deviceDto = DeviceDto.builder()
                 .name("5530")
                 .brand("nokia")
@@ -73,13 +145,65 @@ class DeviceControllerTest {
         );
     }
 
+    @Test
+    void createDevices_whenBatchPosted_thenPerItemResultsAnd200StatusTest() throws Exception {
+        var result = BatchCreateResultDto.builder()
+                .created(1)
+                .failed(1)
+                .results(List.of(
+                        BatchItemResultDto.builder().index(0).status(BatchItemStatus.CREATED).device(this.deviceDto).build(),
+                        BatchItemResultDto.builder().index(1).status(BatchItemStatus.FAILED).errors(List.of("Name is required")).build()))
+                .build();
+        var invalidDto = DeviceDto.builder().brand("nokia").state(State.AVAILABLE).build();
+        Mockito.when(deviceService.createDevices(List.of(this.deviceDto, invalidDto)))
+                .thenReturn(result);
+
+        mockMvc.perform(MockMvcRequestBuilders.post(DEVICES + "/batch")
+                        .content(SerializationUtil.serializeObject(List.of(this.deviceDto, invalidDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].status").value("FAILED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].errors[0]").value("Name is required"));
+    }
+
+    @Test
+    void transitionDevicesState_whenFilterProvided_thenUpdatedCountAnd200StatusTest() throws Exception {
+        var transition = BulkStateTransitionDto.builder()
+                .brand("nokia")
+                .currentState(State.AVAILABLE)
+                .targetState(State.INACTIVE)
+                .build();
+        Mockito.when(deviceService.transitionDevicesState(transition))
+                .thenReturn(BulkStateTransitionResultDto.builder().updated(42).chunks(1).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post(DEVICES + "/transitions")
+                        .content(SerializationUtil.serializeObject(transition))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.updated").value(42));
+    }
+
+    @Test
+    void transitionDevicesState_whenNoFilterProvided_then400StatusTest() throws Exception {
+        var transition = BulkStateTransitionDto.builder()
+                .targetState(State.INACTIVE)
+                .build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post(DEVICES + "/transitions")
+                        .content(SerializationUtil.serializeObject(transition))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verifyNoInteractions(deviceService);
+    }
+
     @Test
     void getAllDevices_whenDevicesExist_thenReturnDeviceListAnd200StatusTest() throws Exception {
         this.deviceDto.setId(RANDOM_UUID);
         this.deviceDto.setCreationTime(TIME_STAMP);
         var devicesDto = DevicesDto.builder().devices(List.of(this.deviceDto)).build();
-        Mockito.when(deviceService.getDevicesByFilters(null, null))
-                .thenReturn(devicesDto);
+        Mockito.when(deviceService.getDevicePage(DeviceFilter.builder().build()))
+                .thenReturn(new DevicePage(List.of(toDevice(this.deviceDto)), null));
         var responseBody = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andReturn().getResponse().getContentAsString();
@@ -93,6 +217,303 @@ class DeviceControllerTest {
         );
     }
 
+    @Test
+    void getAllDevices_whenPagingParametersProvided_thenFilterPassedToServiceAndNextCursorReturnedTest() throws Exception {
+        var expectedFilter = DeviceFilter.builder()
+                .brand("nokia")
+                .state(State.AVAILABLE)
+                .createdFrom(TIME_STAMP)
+                .limit(10)
+                .cursor("cursor")
+                .direction(Sort.Direction.DESC)
+                .build();
+        Mockito.when(deviceService.getDevicePage(expectedFilter))
+                .thenReturn(new DevicePage(List.of(toDevice(this.deviceDto)), "next"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES)
+                        .param("brand", "nokia")
+                        .param("state", "AVAILABLE")
+                        .param("createdFrom", TIME_STAMP.toString())
+                        .param("limit", "10")
+                        .param("cursor", "cursor")
+                        .param("direction", "DESC"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getAllDevices_whenRequestedTwice_thenSecondResponseServedFromCacheTest() throws Exception {
+        Mockito.when(deviceService.getDevicePage(DeviceFilter.builder().build()))
+                .thenReturn(new DevicePage(List.of(toDevice(this.deviceDto)), null));
+
+        var first = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY,
+                        HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsString();
+        var second = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertEquals(first, second);
+        Mockito.verify(deviceService, Mockito.times(1)).getDevicePage(DeviceFilter.builder().build());
+    }
+
+    @Test
+    void getAllDevices_whenIfNoneMatchesCurrentETag_then304WithoutQueryTest() throws Exception {
+        Mockito.when(deviceService.getDevicePage(DeviceFilter.builder().brand("nokia").build()))
+                .thenReturn(new DevicePage(List.of(toDevice(this.deviceDto)), null));
+        var eTag = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES).param("brand", "nokia"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES).param("brand", "nokia")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+        Mockito.verify(deviceService, Mockito.times(1)).getDevicePage(Mockito.any());
+    }
+
+    @Test
+    void getAllDevices_whenGzipAcceptedAndResponseLarge_thenGzippedBodyReturnedTest() throws Exception {
+        var devices = IntStream.range(0, 100)
+                .mapToObj(i -> Device.builder().id(UUID.randomUUID()).name("device-" + i).brand("nokia")
+                        .state(State.AVAILABLE).creationTime(TIME_STAMP).build())
+                .toList();
+        Mockito.when(deviceService.getDevicePage(DeviceFilter.builder().build()))
+                .thenReturn(new DevicePage(devices, null));
+
+        var body = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            var responseActual = SerializationUtil.deserializeJsonString(
+                    new String(gzip.readAllBytes(), StandardCharsets.UTF_8), DevicesDto.class);
+            Assertions.assertEquals(100, responseActual.getDevices().size());
+        }
+    }
+
+    @Test
+    void getAllDevices_whenZstdAndGzipAccepted_thenZstdBodyReturnedTest() throws Exception {
+        var devices = IntStream.range(0, 100)
+                .mapToObj(i -> Device.builder().id(UUID.randomUUID()).name("device-" + i).brand("nokia")
+                        .state(State.AVAILABLE).creationTime(TIME_STAMP).build())
+                .toList();
+        Mockito.when(deviceService.getDevicePage(DeviceFilter.builder().build()))
+                .thenReturn(new DevicePage(devices, null));
+
+        var body = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "zstd"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var responseActual = SerializationUtil.deserializeJsonString(
+                new String(Zstd.decompress(body, (int) Zstd.getFrameContentSize(body)), StandardCharsets.UTF_8),
+                DevicesDto.class);
+        Assertions.assertEquals(100, responseActual.getDevices().size());
+    }
+
+    @Test
+    void getAllDevices_whenProtobufAccepted_thenProtobufBodyReturnedTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        Mockito.when(deviceService.getDevicePage(DeviceFilter.builder().build()))
+                .thenReturn(new DevicePage(List.of(toDevice(this.deviceDto)), null));
+
+        var body = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES)
+                        .header(HttpHeaders.ACCEPT, "application/x-protobuf, application/json;q=0.5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(DeviceFormat.PROTOBUF.mediaType()))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Assertions.assertEquals(RANDOM_UUID, new DeviceProtobufCodec().decode(body).getDevices().getFirst().getId());
+    }
+
+    @Test
+    void getDeviceById_whenCborAccepted_thenCborBodyReturnedTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        Mockito.when(deviceService.getDeviceById(RANDOM_UUID))
+                .thenReturn(this.deviceDto);
+
+        var body = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_BY_ID, RANDOM_UUID)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var cborMapper = CBORMapper.builder().findAndAddModules().build();
+        Assertions.assertEquals(RANDOM_UUID, cborMapper.readValue(body, DeviceDto.class).getId());
+    }
+
+    @Test
+    void exportDevices_whenNdjsonAccepted_thenOneDevicePerLineStreamedTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        stubExport(this.deviceDto, this.deviceDto);
+
+        var mvcResult = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_EXPORT)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        var responseBody = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        var lines = responseBody.lines().toList();
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertEquals(RANDOM_UUID, SerializationUtil.deserializeJsonString(lines.getFirst(), DeviceDto.class).getId());
+    }
+
+    @Test
+    void exportDevices_whenOnlyJsonAccepted_thenJsonArrayStreamedTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        stubExport(this.deviceDto, this.deviceDto);
+
+        var mvcResult = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_EXPORT)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(RANDOM_UUID.toString()));
+    }
+
+    @Test
+    void streamDeviceChanges_whenLastEventIdGiven_thenSubscribedFromItAndEventsStreamedTest() throws Exception {
+        var emitter = new SseEmitter();
+        Mockito.when(deviceChangeFeed.subscribe("nokia", State.IN_USE, "run-5"))
+                .thenReturn(emitter);
+
+        var mvcResult = mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_CHANGES)
+                        .param("brand", "nokia")
+                        .param("state", "IN_USE")
+                        .header("Last-Event-ID", "run-5")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().id("run-6").data("{\"type\":\"CREATED\"}", MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.content().string("id:run-6\ndata:{\"type\":\"CREATED\"}\n\n"));
+    }
+
+    @Test
+    void getDelta_whenTokenGiven_thenChangedAndDeletedDevicesReturnedTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        var deletedId = UUID.randomUUID();
+        Mockito.when(deviceDeltaService.getDelta("token", 50))
+                .thenReturn(DeviceDeltaDto.builder()
+                        .devices(List.of(this.deviceDto))
+                        .deleted(List.of(new DeviceTombstoneDto(deletedId, TIME_STAMP)))
+                        .nextToken("next")
+                        .hasMore(true)
+                        .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_DELTA)
+                        .param("since", "token")
+                        .param("limit", "50"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.devices[0].id").value(RANDOM_UUID.toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deleted[0].id").value(deletedId.toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextToken").value("next"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getDelta_whenTokenExpired_thenReturn410Test() throws Exception {
+        Mockito.when(deviceDeltaService.getDelta("old", null))
+                .thenThrow(new DeltaTokenExpiredException(ErrorMessages.DELTA_TOKEN_EXPIRED_MESSAGE));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_DELTA)
+                        .param("since", "old"))
+                .andExpect(MockMvcResultMatchers.status().isGone());
+    }
+
+    @Test
+    void getDeviceStats_whenCalled_thenCountsReturnedTest() throws Exception {
+        Mockito.when(deviceStats.stats())
+                .thenReturn(DeviceStatsDto.builder()
+                        .total(3)
+                        .states(Map.of(State.IN_USE, 3L))
+                        .brands(Map.of("nokia", Map.of(State.IN_USE, 3L)))
+                        .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_STATS))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.brands.nokia.IN_USE").value(3));
+    }
+
+    @Test
+    void searchDevices_whenQueryGiven_thenRankedDevicesReturnedTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        Mockito.when(deviceSearchService.searchDevices("553", 10))
+                .thenReturn(DeviceSearchResultDto.builder()
+                        .devices(List.of(this.deviceDto))
+                        .total(1)
+                        .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_SEARCH)
+                        .param("q", "553")
+                        .param("limit", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.devices[0].id").value(RANDOM_UUID.toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(1));
+    }
+
+    @Test
+    void importDevices_whenCsvBodyPosted_thenImportAcceptedWithLocationTest() throws Exception {
+        Mockito.when(deviceImportService.startImport(Mockito.eq(ImportFormat.CSV), Mockito.any()))
+                .thenReturn(DeviceImportDto.builder().id(RANDOM_UUID).status(ImportStatus.QUEUED).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post(DEVICES_IMPORTS)
+                        .contentType("text/csv; charset=utf-8")
+                        .content("name,brand,state\n5530,nokia,AVAILABLE\n"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION,
+                        "http://localhost/api/devices/imports/" + RANDOM_UUID))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void importDevices_whenMultipartFileNamedNdjson_thenNdjsonImportStartedTest() throws Exception {
+        Mockito.when(deviceImportService.startImport(Mockito.eq(ImportFormat.NDJSON), Mockito.any()))
+                .thenReturn(DeviceImportDto.builder().id(RANDOM_UUID).status(ImportStatus.QUEUED).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.multipart(DEVICES_IMPORTS)
+                        .file(new MockMultipartFile("file", "fleet.ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                                "{\"name\":\"5530\"}\n".getBytes(StandardCharsets.UTF_8))))
+                .andExpect(MockMvcResultMatchers.status().isAccepted());
+    }
+
+    @Test
+    void importDevices_whenNeitherCsvNorNdjson_then415ReturnedTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(DEVICES_IMPORTS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(MockMvcResultMatchers.status().isUnsupportedMediaType())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0]")
+                        .value(ErrorMessages.UNSUPPORTED_IMPORT_FORMAT_MESSAGE));
+        Mockito.verifyNoInteractions(deviceImportService);
+    }
+
+    @Test
+    void resumeImport_whenCompleted_then409ReturnedTest() throws Exception {
+        Mockito.when(deviceImportService.resumeImport(RANDOM_UUID))
+                .thenThrow(new DeviceImportConflictException(
+                        String.format(ErrorMessages.DEVICE_IMPORT_NOT_RESUMABLE_MESSAGE, "completed")));
+
+        mockMvc.perform(MockMvcRequestBuilders.post(DEVICES_IMPORTS + "/{id}/resume", RANDOM_UUID))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
     @Test
     void getDeviceById_whendeviceExist_thenReturnDeviceDtoAnd200StatusTest() throws Exception {
         this.deviceDto.setId(RANDOM_UUID);
@@ -105,6 +526,85 @@ class DeviceControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(RANDOM_UUID.toString()));
     }
 
+    @Test
+    void getDeviceById_whenDeviceHasVersion_thenVersionReturnedAsETagTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        this.deviceDto.setVersion(2L);
+        Mockito.when(deviceService.getDeviceById(RANDOM_UUID))
+                .thenReturn(this.deviceDto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_BY_ID, RANDOM_UUID))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2-json\""))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void getDeviceById_whenCborAccepted_thenCborWithItsOwnETagReturnedTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        this.deviceDto.setVersion(2L);
+        Mockito.when(deviceService.getDeviceById(RANDOM_UUID))
+                .thenReturn(this.deviceDto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_BY_ID, RANDOM_UUID)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2-cbor\""))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void getDeviceById_whenIfNoneMatchesETagOfOtherFormat_thenDeviceReturnedTest() throws Exception {
+        this.deviceDto.setId(RANDOM_UUID);
+        this.deviceDto.setVersion(2L);
+        Mockito.when(deviceService.getDeviceVersion(RANDOM_UUID))
+                .thenReturn(2L);
+        Mockito.when(deviceService.getDeviceById(RANDOM_UUID))
+                .thenReturn(this.deviceDto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_BY_ID, RANDOM_UUID)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-json\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2-cbor\""));
+    }
+
+    @Test
+    void getDeviceById_whenIfNoneMatchesCurrentVersion_then304WithoutLoadingDeviceTest() throws Exception {
+        Mockito.when(deviceService.getDeviceVersion(RANDOM_UUID))
+                .thenReturn(2L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(DEVICES_BY_ID, RANDOM_UUID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-json\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(deviceService, Mockito.never()).getDeviceById(RANDOM_UUID);
+    }
+
+    @Test
+    void transitionDeviceState_whenTransitionWins_thenEmptyResponseBodyAnd204ReturnedTest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(DEVICES_TRANSITION, RANDOM_UUID)
+                        .param("from", "AVAILABLE")
+                        .param("to", "IN_USE"))
+                .andExpect(MockMvcResultMatchers.status().isNoContent())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(deviceService).transitionDeviceState(RANDOM_UUID, State.AVAILABLE, State.IN_USE);
+    }
+
+    @Test
+    void transitionDeviceState_whenRaceLost_then409ReturnedTest() throws Exception {
+        Mockito.doThrow(new DeviceStateConflictException("message"))
+                .when(deviceService).transitionDeviceState(RANDOM_UUID, State.AVAILABLE, State.IN_USE);
+
+        mockMvc.perform(MockMvcRequestBuilders.post(DEVICES_TRANSITION, RANDOM_UUID)
+                        .param("from", "AVAILABLE")
+                        .param("to", "IN_USE"))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0]").value("message"));
+    }
+
     @Test
     void deleteDevice_whenExistedDeviceDeleted_thenEmptyResponseBodyAnd204ReturnedTest() throws Exception {
         Mockito.doNothing().when(deviceService).deleteDevice(RANDOM_UUID);
@@ -146,4 +646,65 @@ class DeviceControllerTest {
                 () -> Assertions.assertEquals(deviceDtoResponseExpected.getCreationTime(), responseObject.getCreationTime())
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateDevice_whenIfMatchGiven_thenVersionExpectedAndNewETagReturnedTest() throws Exception {
+        var expected = SerializationUtil.deepCopy(this.deviceDto, DeviceDto.class);
+        expected.setVersion(3L);
+        var updated = SerializationUtil.deepCopy(this.deviceDto, DeviceDto.class);
+        updated.setVersion(4L);
+        Mockito.when(deviceService.updateDevice(RANDOM_UUID, expected)).thenReturn(updated);
+
+        mockMvc.perform(MockMvcRequestBuilders.put(DEVICES_BY_ID, RANDOM_UUID)
+                        .header(HttpHeaders.IF_MATCH, "\"3-json\"")
+                        .content(SerializationUtil.serializeObject(this.deviceDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4-json\""));
+    }
+
+    @Test
+    void updateDevice_whenIfMatchIsBareVersion_thenVersionExpectedTest() throws Exception {
+        var expected = SerializationUtil.deepCopy(this.deviceDto, DeviceDto.class);
+        expected.setVersion(3L);
+        Mockito.when(deviceService.updateDevice(RANDOM_UUID, expected)).thenReturn(expected);
+
+        mockMvc.perform(MockMvcRequestBuilders.put(DEVICES_BY_ID, RANDOM_UUID)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(SerializationUtil.serializeObject(this.deviceDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void patchDevice_whenIfMatchOutdated_then412ReturnedTest() throws Exception {
+        Mockito.when(deviceService.patchDevice(Mockito.eq(RANDOM_UUID), Mockito.any()))
+                .thenThrow(new DeviceVersionMismatchException("message"));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch(DEVICES_BY_ID, RANDOM_UUID)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content("{\"name\":\"3310\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    private void stubExport(DeviceDto... devices) {
+        Mockito.doAnswer(invocation -> {
+            Consumer<Device> consumer = invocation.getArgument(2);
+            for (var device : devices) {
+                consumer.accept(toDevice(device));
+            }
+            return null;
+        }).when(deviceService).exportDevices(Mockito.isNull(), Mockito.isNull(), Mockito.any());
+    }
+
+    private static Device toDevice(DeviceDto deviceDto) {
+        return Device.builder()
+                .id(deviceDto.getId())
+                .name(deviceDto.getName())
+                .brand(deviceDto.getBrand())
+                .state(deviceDto.getState())
+                .creationTime(deviceDto.getCreationTime())
+                .build();
+    }
+}
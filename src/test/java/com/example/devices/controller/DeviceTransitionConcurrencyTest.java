@@ -0,0 +1,80 @@
+package com.example.devices.controller;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.State;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Hundreds of clients try to check out the same device at once, exactly one of them may win.
+ * Runs against a real MySQL; skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DeviceTransitionConcurrencyTest {
+
+    private static final int CLIENTS = 300;
+    private static final int DEVICES = 10;
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void transitionDeviceState_whenClientsCheckOutConcurrently_thenExactlyOneCheckoutPerDeviceTest() throws Exception {
+        for (int i = 0; i < DEVICES; i++) {
+            var device = restTemplate.postForObject("/api/devices",
+                    DeviceDto.builder().name("device-" + i).brand("nokia").state(State.AVAILABLE).build(),
+                    DeviceDto.class);
+
+            var statuses = checkOutConcurrently(device.getId());
+            Assertions.assertThat(statuses)
+                    .filteredOn(status -> status.isSameCodeAs(HttpStatus.NO_CONTENT))
+                    .hasSize(1);
+            Assertions.assertThat(statuses)
+                    .filteredOn(status -> status.isSameCodeAs(HttpStatus.CONFLICT))
+                    .hasSize(CLIENTS - 1);
+            Assertions.assertThat(restTemplate.getForObject("/api/devices/{id}", DeviceDto.class, device.getId())
+                            .getState())
+                    .isEqualTo(State.IN_USE);
+        }
+    }
+
+    private ArrayList<HttpStatusCode> checkOutConcurrently(UUID id) throws Exception {
+        var start = new CountDownLatch(1);
+        var responses = new ArrayList<Future<HttpStatusCode>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < CLIENTS; client++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return restTemplate.postForEntity("/api/devices/{id}/transition?from=AVAILABLE&to=IN_USE",
+                            null, Void.class, id).getStatusCode();
+                }));
+            }
+            start.countDown();
+        }
+        var statuses = new ArrayList<HttpStatusCode>();
+        for (var response : responses) {
+            statuses.add(response.get());
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.devices.datasource;
+
+import com.example.devices.config.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+class ReplicaPoolTest {
+
+    private static final ReplicaRoutingProperties PROPERTIES = new ReplicaRoutingProperties(true, List.of(),
+            Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(2), 10, Duration.ofSeconds(1));
+
+    @Test
+    void checkReplicas_whenLagWithinMaxLag_thenHealthyTest() throws Exception {
+        var replica = new ReplicaNode("replica-0", replicaStatus(true, 3L));
+
+        new ReplicaPool(PROPERTIES, List.of(replica)).checkReplicas();
+
+        Assertions.assertThat(replica.isHealthy())
+                .isTrue();
+        Assertions.assertThat(replica.lagSeconds())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void checkReplicas_whenLagAboveMaxLag_thenEjectedTest() throws Exception {
+        var replica = healthy(new ReplicaNode("replica-0", replicaStatus(true, 6L)));
+
+        new ReplicaPool(PROPERTIES, List.of(replica)).checkReplicas();
+
+        Assertions.assertThat(replica.isHealthy())
+                .isFalse();
+        Assertions.assertThat(replica.lagSeconds())
+                .isEqualTo(6);
+    }
+
+    @Test
+    void checkReplicas_whenReplicationStopped_thenEjectedTest() throws Exception {
+        var replica = healthy(new ReplicaNode("replica-0", replicaStatus(true, null)));
+
+        new ReplicaPool(PROPERTIES, List.of(replica)).checkReplicas();
+
+        Assertions.assertThat(replica.isHealthy())
+                .isFalse();
+        Assertions.assertThat(replica.lagSeconds())
+                .isEqualTo(-1);
+    }
+
+    @Test
+    void checkReplicas_whenNotReplicating_thenHealthyTest() throws Exception {
+        var replica = new ReplicaNode("replica-0", replicaStatus(false, null));
+
+        new ReplicaPool(PROPERTIES, List.of(replica)).checkReplicas();
+
+        Assertions.assertThat(replica.isHealthy())
+                .isTrue();
+        Assertions.assertThat(replica.lagSeconds())
+                .isZero();
+    }
+
+    @Test
+    void checkReplicas_whenUnreachable_thenEjectedTest() throws Exception {
+        var dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        var replica = healthy(new ReplicaNode("replica-0", dataSource));
+
+        new ReplicaPool(PROPERTIES, List.of(replica)).checkReplicas();
+
+        Assertions.assertThat(replica.isHealthy())
+                .isFalse();
+    }
+
+    @Test
+    void nextHealthy_whenSomeEjected_thenHealthyTakenInTurnTest() {
+        var first = healthy(new ReplicaNode("replica-0", Mockito.mock(DataSource.class)));
+        var ejected = new ReplicaNode("replica-1", Mockito.mock(DataSource.class));
+        var third = healthy(new ReplicaNode("replica-2", Mockito.mock(DataSource.class)));
+        var replicaPool = new ReplicaPool(PROPERTIES, List.of(first, ejected, third));
+
+        Assertions.assertThat(List.of(replicaPool.nextHealthy(), replicaPool.nextHealthy(), replicaPool.nextHealthy(),
+                        replicaPool.nextHealthy()))
+                .containsExactly(first, third, third, first);
+    }
+
+    @Test
+    void nextHealthy_whenAllEjected_thenNullTest() {
+        var replicaPool = new ReplicaPool(PROPERTIES,
+                List.of(new ReplicaNode("replica-0", Mockito.mock(DataSource.class))));
+
+        Assertions.assertThat(replicaPool.nextHealthy())
+                .isNull();
+    }
+
+    @Test
+    void bindTo_whenChecked_thenHealthAndLagPerReplicaTest() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var replicaPool = new ReplicaPool(PROPERTIES,
+                List.of(new ReplicaNode("replica-0", replicaStatus(true, 2L))));
+        replicaPool.bindTo(registry);
+
+        replicaPool.checkReplicas();
+
+        Assertions.assertThat(registry.get("devices.datasource.replica.healthy").tag("replica", "replica-0")
+                        .gauge().value())
+                .isEqualTo(1);
+        Assertions.assertThat(registry.get("devices.datasource.replica.lag").tag("replica", "replica-0")
+                        .gauge().value())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void destroy_whenCreatedFromProperties_thenPoolsClosedTest() {
+        var properties = new ReplicaRoutingProperties(true,
+                List.of(new ReplicaRoutingProperties.Replica("jdbc:mysql://localhost:1/mydatabase", null, null)),
+                Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(2), 1, Duration.ofMillis(250));
+        var dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUsername("myuser");
+        dataSourceProperties.setPassword("secret");
+        var replicaPool = new ReplicaPool(properties, dataSourceProperties);
+        var dataSource = (HikariDataSource) replicaPool.replicas().getFirst().dataSource();
+
+        replicaPool.destroy();
+
+        Assertions.assertThat(dataSource.getUsername())
+                .isEqualTo("myuser");
+        Assertions.assertThat(dataSource.isReadOnly())
+                .isTrue();
+        Assertions.assertThat(dataSource.isClosed())
+                .isTrue();
+    }
+
+    static ReplicaNode healthy(ReplicaNode replica) {
+        replica.admit();
+        return replica;
+    }
+
+    private static DataSource replicaStatus(boolean replicating, Long lag) throws Exception {
+        var dataSource = Mockito.mock(DataSource.class);
+        var connection = Mockito.mock(Connection.class);
+        var statement = Mockito.mock(Statement.class);
+        var resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery(ReplicaNode.REPLICA_STATUS_QUERY)).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(replicating);
+        Mockito.when(resultSet.getObject(ReplicaNode.LAG_COLUMN, Long.class)).thenReturn(lag);
+        return dataSource;
+    }
+}
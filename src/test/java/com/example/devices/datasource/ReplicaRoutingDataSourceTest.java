@@ -0,0 +1,193 @@
+package com.example.devices.datasource;
+
+import com.example.devices.cache.DeviceCacheLoader;
+import com.example.devices.cache.DevicesResponseCache;
+import com.example.devices.config.CacheConfig;
+import com.example.devices.config.ReplicaRoutingProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final ReplicaRoutingProperties PROPERTIES = new ReplicaRoutingProperties(true, List.of(),
+            Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(2), 10, Duration.ofSeconds(1));
+
+    private final DataSource primary = Mockito.mock(DataSource.class);
+    private final Connection primaryConnection = Mockito.mock(Connection.class);
+    private final DataSource replicaDataSource = Mockito.mock(DataSource.class);
+    private final Connection replicaConnection = Mockito.mock(Connection.class);
+    private final ReplicaNode replica = ReplicaPoolTest.healthy(new ReplicaNode("replica-0", replicaDataSource));
+    private final ReplicaPool replicaPool = new ReplicaPool(PROPERTIES, List.of(replica));
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(PROPERTIES);
+    private final ReplicaRoutingDataSource routingDataSource =
+            new ReplicaRoutingDataSource(primary, () -> replicaPool, () -> readYourWrites);
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getConnection_whenReplicaHealthy_thenReplicaConnectionTest() throws Exception {
+        Mockito.when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+
+        Assertions.assertThat(routingDataSource.getConnection())
+                .isSameAs(replicaConnection);
+    }
+
+    @Test
+    void getConnection_whenClientWroteRecently_thenPrimaryConnectionTest() throws Exception {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+        inRequestOf("client-a");
+        readYourWrites.onDeviceChanged(DeviceChangedEvent.created(device()));
+
+        Assertions.assertThat(routingDataSource.getConnection())
+                .isSameAs(primaryConnection);
+
+        inRequestOf("client-b");
+        Assertions.assertThat(routingDataSource.getConnection())
+                .isSameAs(replicaConnection);
+    }
+
+    @Test
+    void getConnection_whenNoHealthyReplica_thenPrimaryConnectionTest() throws Exception {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        replica.eject("test");
+
+        Assertions.assertThat(routingDataSource.getConnection())
+                .isSameAs(primaryConnection);
+        Mockito.verifyNoInteractions(replicaDataSource);
+    }
+
+    @Test
+    void getConnection_whenReplicaFailsToConnect_thenEjectedAndPrimaryConnectionTest() throws Exception {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replicaDataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        Assertions.assertThat(routingDataSource.getConnection())
+                .isSameAs(primaryConnection);
+        Assertions.assertThat(replica.isHealthy())
+                .isFalse();
+    }
+
+    @Test
+    void isSticky_whenOutsideOfRequest_thenFalseTest() {
+        readYourWrites.onDeviceChanged(DeviceChangedEvent.created(device()));
+
+        Assertions.assertThat(readYourWrites.isSticky())
+                .isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void postProcessAfterInitialization_whenDataSource_thenLazyProxyTest() throws Exception {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        var postProcessor = new ReplicaRoutingPostProcessor(true,
+                Mockito.mock(ObjectProvider.class), Mockito.mock(ObjectProvider.class));
+
+        Assertions.assertThat(postProcessor.postProcessAfterInitialization(primary, "dataSource"))
+                .isInstanceOfSatisfying(LazyConnectionDataSourceProxy.class, proxy -> Assertions
+                        .assertThat(proxy.getTargetDataSource())
+                        .isSameAs(primary));
+        Assertions.assertThat(postProcessor.postProcessAfterInitialization("bean", "bean"))
+                .isEqualTo("bean");
+    }
+
+    @Test
+    void onDeviceChanged_whenDelayPassed_thenCachesInvalidatedAgainTest() {
+        var taskScheduler = Mockito.mock(TaskScheduler.class);
+        var cacheManager = new ConcurrentMapCacheManager(CacheConfig.DEVICES_CACHE);
+        var devicesResponseCache = Mockito.mock(DevicesResponseCache.class);
+        var event = DeviceChangedEvent.created(device());
+        cacheManager.getCache(CacheConfig.DEVICES_CACHE).put(event.id(), event.after());
+
+        new ReplicaCacheInvalidator(taskScheduler, new DeviceCacheLoader(cacheManager), devicesResponseCache,
+                PROPERTIES).onDeviceChanged(event);
+
+        var task = ArgumentCaptor.forClass(Runnable.class);
+        var startTime = ArgumentCaptor.forClass(Instant.class);
+        Mockito.verify(taskScheduler).schedule(task.capture(), startTime.capture());
+        Assertions.assertThat(startTime.getValue())
+                .isAfter(Instant.now().plusSeconds(6));
+        task.getValue().run();
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.DEVICES_CACHE).get(event.id()))
+                .isNull();
+        Mockito.verify(devicesResponseCache).onDevicesChanged(List.of(event));
+    }
+
+    @Test
+    void onDeviceChanged_whenChangedInTransaction_thenOneTaskScheduledOnCommitTest() {
+        var taskScheduler = Mockito.mock(TaskScheduler.class);
+        var cacheManager = new ConcurrentMapCacheManager(CacheConfig.DEVICES_CACHE);
+        var devicesResponseCache = Mockito.mock(DevicesResponseCache.class);
+        var invalidator = new ReplicaCacheInvalidator(taskScheduler, new DeviceCacheLoader(cacheManager),
+                devicesResponseCache, PROPERTIES);
+        var first = DeviceChangedEvent.created(device());
+        var second = DeviceChangedEvent.created(device());
+        cacheManager.getCache(CacheConfig.DEVICES_CACHE).put(first.id(), first.after());
+        cacheManager.getCache(CacheConfig.DEVICES_CACHE).put(second.id(), second.after());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            invalidator.onDeviceChanged(first);
+            invalidator.onDeviceChanged(second);
+            Mockito.verifyNoInteractions(taskScheduler);
+            for (var synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        var task = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(taskScheduler).schedule(task.capture(), Mockito.any(Instant.class));
+        task.getValue().run();
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.DEVICES_CACHE).get(first.id()))
+                .isNull();
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.DEVICES_CACHE).get(second.id()))
+                .isNull();
+        Mockito.verify(devicesResponseCache).onDevicesChanged(List.of(first, second));
+        Assertions.assertThat(TransactionSynchronizationManager.getResourceMap())
+                .isEmpty();
+    }
+
+    private static void inRequestOf(String client) {
+        var request = new MockHttpServletRequest();
+        request.addHeader(ReadYourWrites.CLIENT_ID_HEADER, client);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DeviceDto device() {
+        return DeviceDto.builder()
+                .id(UUID.randomUUID())
+                .name("phone")
+                .brand("nokia")
+                .state(State.AVAILABLE)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.devices.datasource;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DevicesDto;
+import com.example.devices.enums.State;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+/**
+ * Routes reads between a primary and a second MySQL standing in for its replica. The stand-in does not replicate,
+ * so which of the two answered shows in what a read finds. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReplicaRoutingIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> PRIMARY = new MySQLContainer<>("mysql:8.4");
+
+    @Container
+    static final MySQLContainer<?> REPLICA = new MySQLContainer<>("mysql:8.4");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ReplicaPool replicaPool;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("devices.datasource.replicas.enabled", () -> "true");
+        registry.add("devices.datasource.replicas.health-check-interval", () -> "200ms");
+        registry.add("devices.datasource.replicas.nodes[0].url", REPLICA::getJdbcUrl);
+        // SHOW REPLICA STATUS needs the REPLICATION CLIENT privilege
+        registry.add("devices.datasource.replicas.nodes[0].username", () -> "root");
+        registry.add("devices.datasource.replicas.nodes[0].password", REPLICA::getPassword);
+    }
+
+    @Test
+    void getDevices_whenClientWroteRecently_thenPrimaryElseReplicaTest() throws Exception {
+        copySchemaToReplica();
+        awaitHealthyReplica();
+
+        var created = restTemplate.exchange("/api/devices", HttpMethod.POST, new HttpEntity<>(
+                DeviceDto.builder().name("phone").brand("routed").state(State.AVAILABLE).build(),
+                client("writer")), DeviceDto.class);
+        Assertions.assertThat(created.getStatusCode().is2xxSuccessful())
+                .isTrue();
+
+        Assertions.assertThat(devices("/api/devices?brand=routed&state=AVAILABLE", "writer").getDevices())
+                .extracting(DeviceDto::getName)
+                .containsExactly("phone");
+        Assertions.assertThat(devices("/api/devices?brand=routed", "reader").getDevices())
+                .isEmpty();
+    }
+
+    private DevicesDto devices(String url, String client) {
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(client(client)), DevicesDto.class)
+                .getBody();
+    }
+
+    private static HttpHeaders client(String client) {
+        var headers = new HttpHeaders();
+        headers.set(ReadYourWrites.CLIENT_ID_HEADER, client);
+        return headers;
+    }
+
+    private static void copySchemaToReplica() throws Exception {
+        try (var primary = PRIMARY.createConnection("");
+             var statement = primary.createStatement();
+             var replica = REPLICA.createConnection("");
+             var replicaStatement = replica.createStatement()) {
+            // The devices refer to the brands, which have to exist first
+            for (var table : new String[]{"brands", "devices"}) {
+                try (var resultSet = statement.executeQuery("SHOW CREATE TABLE " + table)) {
+                    resultSet.next();
+                    replicaStatement.execute(resultSet.getString(2));
+                }
+            }
+        }
+    }
+
+    private void awaitHealthyReplica() throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (replicaPool.nextHealthy() == null && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertThat(replicaPool.nextHealthy())
+                .isNotNull();
+    }
+}
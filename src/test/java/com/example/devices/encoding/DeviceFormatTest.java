@@ -0,0 +1,46 @@
+package com.example.devices.encoding;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+class DeviceFormatTest {
+
+    @Test
+    void negotiate_whenFormatAccepted_thenFormatReturnedTest() {
+        Assertions.assertThat(DeviceFormat.negotiate("application/cbor"))
+                .isEqualTo(DeviceFormat.CBOR);
+        Assertions.assertThat(DeviceFormat.negotiate("application/x-jackson-smile"))
+                .isEqualTo(DeviceFormat.SMILE);
+        Assertions.assertThat(DeviceFormat.negotiate("application/x-protobuf"))
+                .isEqualTo(DeviceFormat.PROTOBUF);
+    }
+
+    @Test
+    void negotiate_whenSeveralFormatsAccepted_thenHighestQualityReturnedTest() {
+        Assertions.assertThat(DeviceFormat.negotiate("application/json;q=0.5, application/cbor"))
+                .isEqualTo(DeviceFormat.CBOR);
+        Assertions.assertThat(DeviceFormat.negotiate("application/x-protobuf;q=0, */*"))
+                .isEqualTo(DeviceFormat.JSON);
+    }
+
+    @Test
+    void negotiate_whenNothingSupportedAccepted_thenJsonReturnedTest() {
+        Assertions.assertThat(DeviceFormat.negotiate(null))
+                .isEqualTo(DeviceFormat.JSON);
+        Assertions.assertThat(DeviceFormat.negotiate("text/html"))
+                .isEqualTo(DeviceFormat.JSON);
+        Assertions.assertThat(DeviceFormat.negotiate("not a media type"))
+                .isEqualTo(DeviceFormat.JSON);
+    }
+
+    @Test
+    void negotiate_whenAcceptedFormatNotAmongGiven_thenNextAcceptedReturnedTest() {
+        Assertions.assertThat(DeviceFormat.negotiate("application/x-protobuf, application/cbor;q=0.5",
+                        EnumSet.of(DeviceFormat.JSON, DeviceFormat.CBOR)))
+                .isEqualTo(DeviceFormat.CBOR);
+        Assertions.assertThat(DeviceFormat.negotiate("application/x-protobuf", EnumSet.of(DeviceFormat.JSON)))
+                .isEqualTo(DeviceFormat.JSON);
+    }
+}
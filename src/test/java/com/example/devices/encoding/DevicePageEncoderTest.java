@@ -0,0 +1,59 @@
+package com.example.devices.encoding;
+
+import com.example.devices.dto.DevicesDto;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.json.DeviceJsonWriter;
+import com.example.devices.pagination.DevicePage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+class DevicePageEncoderTest {
+
+    private final DevicePageEncoder devicePageEncoder = new DevicePageEncoder(
+            new DeviceJsonWriter(new ObjectMapper()), new DeviceProtobufCodec());
+    private final DevicePage page = new DevicePage(List.of(Device.builder()
+            .id(UUID.randomUUID())
+            .name("5530")
+            .brand("nokia")
+            .state(State.AVAILABLE)
+            .creationTime(Instant.parse("2025-03-29T20:40:24.177257Z"))
+            .version(1L)
+            .build()), "next");
+
+    @Test
+    void encode_whenCbor_thenDecodedLikeJsonTest() throws IOException {
+        assertDecodedLikeJson(CBORMapper.builder().findAndAddModules().build(), DeviceFormat.CBOR);
+    }
+
+    @Test
+    void encode_whenSmile_thenDecodedLikeJsonTest() throws IOException {
+        assertDecodedLikeJson(SmileMapper.builder().findAndAddModules().build(), DeviceFormat.SMILE);
+    }
+
+    @Test
+    void encode_whenProtobuf_thenDecodedLikeJsonTest() throws IOException {
+        Assertions.assertThat(new DeviceProtobufCodec().decode(devicePageEncoder.encode(page, DeviceFormat.PROTOBUF)))
+                .isEqualTo(json());
+    }
+
+    private void assertDecodedLikeJson(ObjectMapper binaryMapper, DeviceFormat format) throws IOException {
+        var body = devicePageEncoder.encode(page, format);
+
+        Assertions.assertThat(binaryMapper.readValue(body, DevicesDto.class))
+                .isEqualTo(json());
+    }
+
+    private DevicesDto json() throws IOException {
+        return new ObjectMapper().findAndRegisterModules()
+                .readValue(devicePageEncoder.encode(page, DeviceFormat.JSON), DevicesDto.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.devices.encoding;
+
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.pagination.DevicePage;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+class DeviceProtobufCodecTest {
+
+    private final DeviceProtobufCodec deviceProtobufCodec = new DeviceProtobufCodec();
+    private final Device device = Device.builder()
+            .id(UUID.randomUUID())
+            .name("5530 \"classic\" ✓")
+            .brand("nokia")
+            .state(State.INACTIVE)
+            .creationTime(Instant.parse("2025-03-29T20:40:24.177257Z"))
+            .version(7L)
+            .build();
+
+    @Test
+    void encode_whenDecoded_thenSameDevicesAndCursorTest() throws IOException {
+        var page = new DevicePage(List.of(device, Device.builder().name("3310").build()), "next");
+
+        var devices = deviceProtobufCodec.decode(deviceProtobufCodec.encode(page));
+
+        Assertions.assertThat(devices.getNextCursor())
+                .isEqualTo("next");
+        Assertions.assertThat(devices.getDevices())
+                .hasSize(2);
+        var decoded = devices.getDevices().getFirst();
+        Assertions.assertThat(decoded.getId()).isEqualTo(device.getId());
+        Assertions.assertThat(decoded.getName()).isEqualTo(device.getName());
+        Assertions.assertThat(decoded.getBrand()).isEqualTo(device.getBrand());
+        Assertions.assertThat(decoded.getState()).isEqualTo(device.getState());
+        Assertions.assertThat(decoded.getCreationTime()).isEqualTo(device.getCreationTime());
+        Assertions.assertThat(decoded.getVersion()).isEqualTo(device.getVersion());
+        Assertions.assertThat(devices.getDevices().getLast().getId()).isNull();
+    }
+
+    @Test
+    void encode_whenLastPage_thenNoCursorFieldWrittenTest() throws IOException {
+        var input = CodedInputStream.newInstance(deviceProtobufCodec.encode(new DevicePage(List.of(device), null)));
+
+        var fields = 0;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            Assertions.assertThat(WireFormat.getTagFieldNumber(tag))
+                    .isEqualTo(1);
+            input.skipField(tag);
+            fields++;
+        }
+        Assertions.assertThat(fields)
+                .isEqualTo(1);
+    }
+
+    @Test
+    void decode_whenUnknownFieldPresent_thenFieldSkippedTest() throws IOException {
+        var bytes = deviceProtobufCodec.encode(new DevicePage(List.of(), "next"));
+        // field 15, varint 1, as a newer schema could add it
+        var withUnknownField = new byte[bytes.length + 2];
+        withUnknownField[0] = (byte) WireFormat.makeTag(15, WireFormat.WIRETYPE_VARINT);
+        withUnknownField[1] = 1;
+        System.arraycopy(bytes, 0, withUnknownField, 2, bytes.length);
+
+        Assertions.assertThat(deviceProtobufCodec.decode(withUnknownField).getNextCursor())
+                .isEqualTo("next");
+    }
+}
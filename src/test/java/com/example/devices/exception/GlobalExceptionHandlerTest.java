@@ -1,13 +1,26 @@
 package com.example.devices.exception;
 
+import com.example.devices.datasource.ReplicaRoutingPostProcessor;
+import com.example.devices.dto.error.GeneralErrorResponse;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
 import java.time.Instant;
 import java.util.List;
 
@@ -77,4 +90,192 @@ class GlobalExceptionHandlerTest {
                     .isBefore(Instant.now());
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInvalidPageRequestException() {
+        var response = globalExceptionHandler.invalidPageRequestException(new InvalidPageRequestException("message"));
+        SoftAssertions.assertSoftly(softAssertion -> {
+            softAssertion.assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+            var responseBody = response.getBody();
+            org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+            softAssertion.assertThat(responseBody.getStatus())
+                    .isEqualTo(HttpStatus.BAD_REQUEST.value());
+            softAssertion.assertThat(responseBody.getErrors())
+                    .containsExactly("message");
+        });
+    }
+
+    @Test
+    void testBatchTooLargeException() {
+        var response = globalExceptionHandler.batchTooLargeException(new BatchTooLargeException("message"));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of("message"));
+    }
+
+    @Test
+    void testDeviceStateConflictException() {
+        var response = globalExceptionHandler.deviceStateConflictException(new DeviceStateConflictException("message"));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of("message"));
+    }
+
+    @Test
+    void testDeviceVersionMismatchException() {
+        var response = globalExceptionHandler.deviceVersionMismatchException(new DeviceVersionMismatchException("message"));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of("message"));
+    }
+
+    @Test
+    void testDeltaTokenExpiredException() {
+        var response = globalExceptionHandler.deltaTokenExpiredException(
+                new DeltaTokenExpiredException(ErrorMessages.DELTA_TOKEN_EXPIRED_MESSAGE));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.GONE);
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of(ErrorMessages.DELTA_TOKEN_EXPIRED_MESSAGE));
+    }
+
+    @Test
+    void testOptimisticLockingFailureException() {
+        var response = globalExceptionHandler.optimisticLockingFailureException(
+                new ObjectOptimisticLockingFailureException("Device", "id"));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of(ErrorMessages.DEVICE_CONCURRENTLY_MODIFIED_MESSAGE));
+    }
+
+    @Test
+    void testCannotCreateTransactionException() {
+        var response = globalExceptionHandler.connectionUnavailableException(
+                new CannotCreateTransactionException("Connection is not available"));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        org.assertj.core.api.Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                .isEqualTo("1");
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of(ErrorMessages.SERVICE_BUSY_MESSAGE));
+    }
+
+    @Test
+    void testDataAccessResourceFailureException() {
+        var response = globalExceptionHandler.connectionUnavailableException(
+                new DataAccessResourceFailureException("Unable to acquire JDBC Connection"));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        org.assertj.core.api.Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                .isEqualTo("1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPoolExhaustedBehindLazyConnectionProxy() throws Exception {
+        var pool = Mockito.mock(DataSource.class);
+        // The proxy reads the connection defaults at startup, the pool is exhausted afterwards
+        Mockito.when(pool.getConnection())
+                .thenReturn(Mockito.mock(Connection.class))
+                .thenThrow(new SQLTransientConnectionException(
+                        "HikariPool-1 - Connection is not available, request timed out after 30000ms."));
+        var dataSource = (DataSource) new ReplicaRoutingPostProcessor(false,
+                Mockito.mock(ObjectProvider.class), Mockito.mock(ObjectProvider.class))
+                .postProcessAfterInitialization(pool, "dataSource");
+        var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // The transaction begins without a connection, the pool is only asked at the first statement
+        var thrown = org.assertj.core.api.Assertions.catchRuntimeException(() -> transactionTemplate
+                .executeWithoutResult(status -> jdbcTemplate.queryForObject("SELECT 1", Integer.class)));
+        org.assertj.core.api.Assertions.assertThat(thrown)
+                .isNotInstanceOf(CannotCreateTransactionException.class)
+                .hasRootCauseInstanceOf(SQLTransientConnectionException.class);
+        var response = globalExceptionHandler.connectionUnavailableException(thrown);
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        org.assertj.core.api.Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                .isEqualTo("1");
+    }
+
+    @Test
+    void testTooManySubscribersException() {
+        var response = globalExceptionHandler.tooManySubscribersException(
+                new TooManySubscribersException(ErrorMessages.TOO_MANY_SUBSCRIBERS_MESSAGE));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        org.assertj.core.api.Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                .isEqualTo("10");
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of(ErrorMessages.TOO_MANY_SUBSCRIBERS_MESSAGE));
+    }
+
+    @Test
+    void testSearchIndexNotReadyException() {
+        var response = globalExceptionHandler.searchIndexNotReadyException(
+                new SearchIndexNotReadyException(ErrorMessages.SEARCH_INDEX_NOT_READY_MESSAGE));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        org.assertj.core.api.Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                .isEqualTo("10");
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of(ErrorMessages.SEARCH_INDEX_NOT_READY_MESSAGE));
+    }
+
+    @Test
+    void testDeviceImportNotFoundException() {
+        var response = globalExceptionHandler.deviceImportNotFoundException(
+                new DeviceImportNotFoundException(ErrorMessages.DEVICE_IMPORT_NOT_FOUND_MESSAGE));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of(ErrorMessages.DEVICE_IMPORT_NOT_FOUND_MESSAGE));
+    }
+
+    @Test
+    void testDeviceImportConflictException() {
+        var response = globalExceptionHandler.deviceImportConflictException(
+                new DeviceImportConflictException(ErrorMessages.DEVICE_IMPORT_FILE_MISSING_MESSAGE));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of(ErrorMessages.DEVICE_IMPORT_FILE_MISSING_MESSAGE));
+    }
+
+    @Test
+    void testUnsupportedImportFormatException() {
+        var response = globalExceptionHandler.unsupportedImportFormatException(
+                new UnsupportedImportFormatException(ErrorMessages.UNSUPPORTED_IMPORT_FORMAT_MESSAGE));
+        org.assertj.core.api.Assertions.assertThat(response.getStatusCode())
+                .isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        org.assertj.core.api.Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .extracting(GeneralErrorResponse::getErrors)
+                .isEqualTo(List.of(ErrorMessages.UNSUPPORTED_IMPORT_FORMAT_MESSAGE));
+    }
+}
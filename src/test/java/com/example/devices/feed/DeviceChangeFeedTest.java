@@ -0,0 +1,192 @@
+package com.example.devices.feed;
+
+import com.example.devices.config.ChangeFeedProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.ChangeFeedOverflow;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.exception.TooManySubscribersException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+class DeviceChangeFeedTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private DeviceChangeFeed deviceChangeFeed = feed(2, ChangeFeedOverflow.DISCONNECT);
+
+    @AfterEach
+    void closeSubscriptions() {
+        deviceChangeFeed.destroy();
+    }
+
+    @Test
+    void onDeviceChanged_whenSubscribedToState_thenOnlyChangesTouchingItSentTest() throws Exception {
+        var sent = new LinkedBlockingQueue<String>();
+        deviceChangeFeed.subscribe(emitter(sent, null), null, State.IN_USE, null);
+
+        deviceChangeFeed.onDeviceChanged(DeviceChangedEvent.created(device("nokia", State.AVAILABLE)));
+        var checkedOut = UUID.randomUUID();
+        deviceChangeFeed.onDeviceChanged(DeviceChangedEvent.stateChanged(checkedOut, null, State.AVAILABLE, State.IN_USE));
+
+        Assertions.assertThat(nextEvent(sent))
+                .contains("\"type\":\"STATE_CHANGED\"", checkedOut.toString());
+        Assertions.assertThat(sent.poll(100, TimeUnit.MILLISECONDS))
+                .isNull();
+    }
+
+    @Test
+    void subscribe_whenLastEventIdInLog_thenMissedMatchingChangesReplayedTest() throws Exception {
+        var first = new LinkedBlockingQueue<String>();
+        deviceChangeFeed.subscribe(emitter(first, null), "nokia", null, null);
+        deviceChangeFeed.onDeviceChanged(DeviceChangedEvent.created(device("nokia", State.AVAILABLE)));
+        var lastEventId = nextEvent(first).lines().findFirst().orElseThrow().substring("id:".length());
+
+        var missed = device("nokia", State.INACTIVE);
+        deviceChangeFeed.onDeviceChanged(DeviceChangedEvent.created(device("apple", State.AVAILABLE)));
+        deviceChangeFeed.onDeviceChanged(DeviceChangedEvent.created(missed));
+        var resumed = new LinkedBlockingQueue<String>();
+        deviceChangeFeed.subscribe(emitter(resumed, null), "NOKIA", null, lastEventId);
+
+        Assertions.assertThat(nextEvent(resumed))
+                .contains(missed.getId().toString());
+        Assertions.assertThat(resumed.poll(100, TimeUnit.MILLISECONDS))
+                .isNull();
+    }
+
+    @Test
+    void subscribe_whenLastEventIdUnknown_thenResetEventTest() throws Exception {
+        var sent = new LinkedBlockingQueue<String>();
+
+        deviceChangeFeed.subscribe(emitter(sent, null), null, null, "earlier-run-42");
+
+        Assertions.assertThat(nextEvent(sent))
+                .contains("event:" + DeviceChangeFeed.RESET_EVENT);
+    }
+
+    @Test
+    void subscribe_whenMaxSubscribersReached_thenTooManySubscribersTest() {
+        deviceChangeFeed = feed(2, ChangeFeedOverflow.DISCONNECT, 1);
+        deviceChangeFeed.subscribe(emitter(new LinkedBlockingQueue<>(), null), null, null, null);
+
+        Assertions.assertThatThrownBy(() -> deviceChangeFeed.subscribe(null, null, null))
+                .isInstanceOf(TooManySubscribersException.class);
+    }
+
+    @Test
+    void onDeviceChanged_whenSubscriberTooSlowAndDisconnectPolicy_thenStreamCompletedTest() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        deviceChangeFeed.bindTo(registry);
+        var release = new CountDownLatch(1);
+        var emitter = emitter(new LinkedBlockingQueue<>(), release);
+        deviceChangeFeed.subscribe(emitter, null, null, null);
+
+        for (int i = 0; i < 4; i++) {
+            deviceChangeFeed.onDeviceChanged(DeviceChangedEvent.created(device("nokia", State.AVAILABLE)));
+        }
+        release.countDown();
+
+        Mockito.verify(emitter, Mockito.timeout(5000)).complete();
+        Assertions.assertThat(registry.get("devices.change_feed.disconnected").functionCounter().count())
+                .isEqualTo(1);
+        awaitNoSubscribers();
+    }
+
+    @Test
+    void onDeviceChanged_whenSubscriberTooSlowAndDropOldestPolicy_thenNewestChangesSentTest() throws Exception {
+        deviceChangeFeed = feed(2, ChangeFeedOverflow.DROP_OLDEST);
+        var registry = new SimpleMeterRegistry();
+        deviceChangeFeed.bindTo(registry);
+        var sent = new LinkedBlockingQueue<String>();
+        var release = new CountDownLatch(1);
+        deviceChangeFeed.subscribe(emitter(sent, release), null, null, null);
+
+        var devices = new DeviceDto[5];
+        for (int i = 0; i < devices.length; i++) {
+            devices[i] = device("nokia", State.AVAILABLE);
+            deviceChangeFeed.onDeviceChanged(DeviceChangedEvent.created(devices[i]));
+        }
+        release.countDown();
+
+        // The first change may have been taken before the subscriber stalled, the two newest always arrive
+        var received = new StringBuilder();
+        while (!received.toString().contains(devices[4].getId().toString())) {
+            received.append(nextEvent(sent));
+        }
+        Assertions.assertThat(received.toString())
+                .contains(devices[3].getId().toString(), devices[4].getId().toString())
+                .doesNotContain(devices[2].getId().toString());
+        Assertions.assertThat(registry.get("devices.change_feed.dropped").functionCounter().count())
+                .isPositive();
+    }
+
+    private DeviceChangeFeed feed(int buffer, ChangeFeedOverflow overflow) {
+        return feed(buffer, overflow, 10);
+    }
+
+    private DeviceChangeFeed feed(int buffer, ChangeFeedOverflow overflow, int maxSubscribers) {
+        return new DeviceChangeFeed(new ChangeFeedProperties(100, maxSubscribers, buffer, overflow,
+                Duration.ofSeconds(15), Duration.ofMinutes(30)), objectMapper);
+    }
+
+    /**
+     * An emitter collecting what it sends, every send waits for {@code release} when given.
+     */
+    private static SseEmitter emitter(BlockingQueue<String> sent, CountDownLatch release) {
+        var emitter = Mockito.mock(SseEmitter.class);
+        try {
+            Mockito.doAnswer(invocation -> {
+                if (release != null) {
+                    release.await();
+                }
+                SseEmitter.SseEventBuilder event = invocation.getArgument(0);
+                sent.add(event.build().stream()
+                        .map(data -> data.getData().toString())
+                        .collect(Collectors.joining()));
+                return null;
+            }).when(emitter).send(ArgumentMatchers.any(SseEmitter.SseEventBuilder.class));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return emitter;
+    }
+
+    private static String nextEvent(BlockingQueue<String> sent) throws InterruptedException {
+        var event = sent.poll(5, TimeUnit.SECONDS);
+        Assertions.assertThat(event)
+                .isNotNull();
+        return event;
+    }
+
+    private void awaitNoSubscribers() throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (deviceChangeFeed.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertThat(deviceChangeFeed.subscriberCount())
+                .isZero();
+    }
+
+    private static DeviceDto device(String brand, State state) {
+        return DeviceDto.builder()
+                .id(UUID.randomUUID())
+                .name("phone")
+                .brand(brand)
+                .state(state)
+                .build();
+    }
+}
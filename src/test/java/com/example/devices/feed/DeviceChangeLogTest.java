@@ -0,0 +1,59 @@
+package com.example.devices.feed;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DeviceChangeLogTest {
+
+    private final DeviceChangeLog changeLog = new DeviceChangeLog(3);
+
+    @Test
+    void after_whenSequenceInLog_thenFollowingChangesTest() {
+        append(4);
+
+        Assertions.assertThat(changeLog.after(2))
+                .extracting(DeviceChange::sequence)
+                .containsExactly(3L, 4L);
+        Assertions.assertThat(changeLog.after(4))
+                .isEmpty();
+    }
+
+    @Test
+    void after_whenOldestDroppedChangeIsLastSeen_thenAllKeptChangesTest() {
+        append(4);
+
+        Assertions.assertThat(changeLog.after(1))
+                .extracting(DeviceChange::sequence)
+                .containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void after_whenChangesAfterSequenceDropped_thenNullTest() {
+        append(4);
+
+        Assertions.assertThat(changeLog.after(0))
+                .isNull();
+    }
+
+    @Test
+    void after_whenSequenceNotHandedOut_thenNullTest() {
+        append(2);
+
+        Assertions.assertThat(changeLog.after(3))
+                .isNull();
+        Assertions.assertThat(changeLog.after(-1))
+                .isNull();
+    }
+
+    @Test
+    void after_whenEmptyAndNothingSeen_thenEmptyTest() {
+        Assertions.assertThat(changeLog.after(0))
+                .isEmpty();
+    }
+
+    private void append(int count) {
+        for (int i = 0; i < count; i++) {
+            changeLog.append(null, null, "{}");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.devices.id;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class UuidV7Test {
+
+    @Test
+    void next_whenGenerated_thenVersion7AndRfcVariantTest() {
+        var uuid = UuidV7.next();
+        Assertions.assertThat(uuid.version())
+                .isEqualTo(7);
+        Assertions.assertThat(uuid.variant())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void next_whenGenerated_thenTimestampIsCurrentTimeTest() {
+        var before = System.currentTimeMillis();
+        var uuid = UuidV7.next();
+        Assertions.assertThat(UuidV7.timestamp(uuid))
+                .isGreaterThanOrEqualTo(before)
+                .isLessThanOrEqualTo(System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void next_whenGeneratedInBurst_thenStrictlyIncreasingAndUniqueTest() {
+        var uuids = new ArrayList<UUID>();
+        IntStream.range(0, 100_000).forEach(i -> uuids.add(UuidV7.next()));
+
+        Assertions.assertThat(uuids)
+                .isSortedAccordingTo(Comparator.naturalOrder());
+        Assertions.assertThat(new HashSet<>(uuids))
+                .hasSize(uuids.size());
+    }
+
+    @Test
+    void of_whenFieldsGiven_thenLaidOutAsRfc9562Test() {
+        var uuid = UuidV7.of(0x0123_4567_89ABL, 0xCDE, -1L);
+        Assertions.assertThat(uuid.toString())
+                .isEqualTo("01234567-89ab-7cde-bfff-ffffffffffff");
+    }
+
+    @Test
+    void generate_whenCalledByHibernate_thenUuidV7ReturnedTest() {
+        var id = (UUID) new UuidV7Generator().generate(null, null, null, null);
+        Assertions.assertThat(id.version())
+                .isEqualTo(7);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.devices.importer;
+
+import com.example.devices.brand.BrandDictionary;
+import com.example.devices.config.DeviceImportProperties;
+import com.example.devices.entity.Device;
+import com.example.devices.entity.DeviceImport;
+import com.example.devices.entity.DeviceImportError;
+import com.example.devices.enums.ImportFormat;
+import com.example.devices.enums.ImportStatus;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.repository.DeviceImportErrorRepository;
+import com.example.devices.repository.DeviceImportRepository;
+import com.example.devices.repository.DeviceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceImportRunnerTest {
+
+    private static final String CSV = "name,brand,state\n5530,nokia,AVAILABLE\n3310,nokia,IN_USE\n1100,nokia,AVAILABLE\n";
+
+    @Mock
+    private DeviceImportRepository importRepository;
+    @Mock
+    private DeviceImportErrorRepository errorRepository;
+    @Mock
+    private DeviceRepository deviceRepository;
+    @Mock
+    private BrandDictionary brandDictionary;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @TempDir
+    private Path directory;
+
+    private final UUID id = UUID.randomUUID();
+    private DeviceImportRunner importRunner;
+    private DeviceImport deviceImport;
+
+    @BeforeEach
+    void beforeEach() {
+        importRunner = new DeviceImportRunner(importRepository, errorRepository, deviceRepository,
+                new DeviceMapperImpl(), brandDictionary, Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), eventPublisher,
+                new DeviceImportProperties(directory, 2, 1, 1), new ObjectMapper());
+        Mockito.lenient().when(brandDictionary.register(Mockito.any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.lenient().when(brandDictionary.registerBrandOf(Mockito.any()))
+                .thenCallRealMethod();
+        Mockito.lenient().when(deviceRepository.saveAllAndFlush(Mockito.<List<Device>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        deviceImport = new DeviceImport();
+        deviceImport.setId(id);
+        deviceImport.setFormat(ImportFormat.CSV);
+        deviceImport.setStatus(ImportStatus.QUEUED);
+        Mockito.when(importRepository.findById(id)).thenReturn(Optional.of(deviceImport));
+    }
+
+    @Test
+    void run_whenRowsValid_thenWrittenInBatchesWithCheckpointsTest() throws IOException {
+        var file = Files.writeString(importRunner.fileOf(id), CSV);
+        var size = Files.size(file);
+
+        importRunner.run(id);
+        Mockito.verify(deviceRepository, Mockito.times(2)).saveAllAndFlush(Mockito.<List<Device>>any());
+        Mockito.verify(importRepository).checkpoint(Mockito.eq(id), Mockito.eq(3L), Mockito.anyLong(),
+                Mockito.eq(2L), Mockito.eq(0L), Mockito.anyLong());
+        Mockito.verify(importRepository).checkpoint(Mockito.eq(id), Mockito.eq(4L), Mockito.eq(size),
+                Mockito.eq(1L), Mockito.eq(0L), Mockito.anyLong());
+        Mockito.verify(eventPublisher, Mockito.times(3)).publishEvent(Mockito.any(DeviceChangedEvent.class));
+        Mockito.verify(importRepository).updateStatus(Mockito.eq(id), Mockito.eq(ImportStatus.COMPLETED),
+                Mockito.any(), Mockito.isNull());
+        Assertions.assertThat(file)
+                .doesNotExist();
+    }
+
+    @Test
+    void run_whenRowsInvalid_thenRejectedRowsCountedAndFirstKeptTest() throws IOException {
+        Files.writeString(importRunner.fileOf(id), "name,brand,state\n,nokia,AVAILABLE\n3310,,IN_USE\n");
+
+        importRunner.run(id);
+        var captor = ArgumentCaptor.<List<DeviceImportError>>captor();
+        Mockito.verify(errorRepository).saveAll(captor.capture());
+        Assertions.assertThat(captor.getValue())
+                .singleElement()
+                .extracting(DeviceImportError::getLine, DeviceImportError::getErrors)
+                .containsExactly(2L, "Name is required");
+        Mockito.verify(importRepository).checkpoint(Mockito.eq(id), Mockito.eq(3L), Mockito.anyLong(),
+                Mockito.eq(0L), Mockito.eq(2L), Mockito.anyLong());
+    }
+
+    @Test
+    void run_whenBatchRejectedByDatabase_thenRowsWrittenOneByOneTest() throws IOException {
+        Files.writeString(importRunner.fileOf(id), "name,brand,state\n5530,nokia,AVAILABLE\n" + "x".repeat(300) + ",nokia,IN_USE\n");
+        Mockito.when(deviceRepository.saveAllAndFlush(Mockito.<List<Device>>any()))
+                .thenThrow(new DataIntegrityViolationException("Data too long"))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataIntegrityViolationException("Data too long"));
+
+        importRunner.run(id);
+        Mockito.verify(importRepository).checkpoint(Mockito.eq(id), Mockito.eq(2L), Mockito.anyLong(),
+                Mockito.eq(1L), Mockito.eq(0L), Mockito.anyLong());
+        Mockito.verify(importRepository).checkpoint(Mockito.eq(id), Mockito.eq(3L), Mockito.anyLong(),
+                Mockito.eq(0L), Mockito.eq(1L), Mockito.anyLong());
+        var captor = ArgumentCaptor.<List<DeviceImportError>>captor();
+        Mockito.verify(errorRepository).saveAll(captor.capture());
+        Assertions.assertThat(captor.getValue())
+                .extracting(DeviceImportError::getErrors)
+                .containsExactly(ErrorMessages.DEVICE_NOT_SAVED_MESSAGE);
+    }
+
+    @Test
+    void run_whenCheckpointSaved_thenImportContinuesAfterItTest() throws IOException {
+        Files.writeString(importRunner.fileOf(id), CSV);
+        deviceImport.setStatus(ImportStatus.FAILED);
+        deviceImport.setCheckpointLine(3);
+        deviceImport.setCheckpointOffset("name,brand,state\n5530,nokia,AVAILABLE\n3310,nokia,IN_USE\n".length());
+        deviceImport.setImported(2);
+
+        importRunner.run(id);
+        var captor = ArgumentCaptor.<List<Device>>captor();
+        Mockito.verify(deviceRepository).saveAllAndFlush(captor.capture());
+        Assertions.assertThat(captor.getValue())
+                .extracting(Device::getName)
+                .containsExactly("1100");
+        Mockito.verify(importRepository).updateStatus(id, ImportStatus.RUNNING, null, null);
+    }
+
+    @Test
+    void run_whenFileMissing_thenImportFailedTest() {
+        importRunner.run(id);
+        Mockito.verify(importRepository).updateStatus(Mockito.eq(id), Mockito.eq(ImportStatus.FAILED),
+                Mockito.any(), Mockito.anyString());
+        Mockito.verifyNoInteractions(deviceRepository);
+    }
+
+    @Test
+    void run_whenImportCompleted_thenNothingDoneTest() {
+        deviceImport.setStatus(ImportStatus.COMPLETED);
+
+        importRunner.run(id);
+        Mockito.verify(importRepository, Mockito.never()).updateStatus(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.devices.importer;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.ImportFormat;
+import com.example.devices.enums.State;
+import com.example.devices.exception.ErrorMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class DeviceRowReaderTest {
+
+    private static final ObjectReader DEVICE_READER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .readerFor(DeviceDto.class);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void next_whenCsvGiven_thenDevicesReadByHeaderTest() throws IOException {
+        var rows = readAll(ImportFormat.CSV, "\uFEFFState,Name,Brand,Color\r\nAVAILABLE,5530,nokia,red\r\n\r\n" +
+                "in_use,\"3310, \"\"classic\"\"\",Nokia,\r\n");
+
+        Assertions.assertThat(rows)
+                .extracting(ImportRow::line)
+                .containsExactly(2L, 4L);
+        Assertions.assertThat(rows)
+                .extracting(ImportRow::device)
+                .containsExactly(
+                        DeviceDto.builder().name("5530").brand("nokia").state(State.AVAILABLE).build(),
+                        DeviceDto.builder().name("3310, \"classic\"").brand("Nokia").state(State.IN_USE).build());
+    }
+
+    @Test
+    void next_whenCsvRowInvalid_thenRowReportedWithErrorTest() throws IOException {
+        var rows = readAll(ImportFormat.CSV, "name,brand,state\n5530,nokia,BROKEN\n\"5530,nokia,AVAILABLE\n5530,,\n");
+
+        Assertions.assertThat(rows)
+                .extracting(ImportRow::errors)
+                .containsExactly(
+                        List.of(String.format(ErrorMessages.UNKNOWN_STATE_MESSAGE, "BROKEN")),
+                        List.of(ErrorMessages.MALFORMED_IMPORT_ROW_MESSAGE),
+                        List.of());
+        Assertions.assertThat(rows.getLast().device())
+                .isEqualTo(DeviceDto.builder().name("5530").build());
+    }
+
+    @Test
+    void open_whenCsvHeaderLacksColumn_thenIllegalArgumentExceptionThrownTest() throws IOException {
+        var file = write("name,brand\n5530,nokia\n");
+
+        Assertions.assertThatThrownBy(() -> DeviceRowReader.open(file, ImportFormat.CSV, DEVICE_READER, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(ErrorMessages.MISSING_IMPORT_COLUMNS_MESSAGE);
+    }
+
+    @Test
+    void open_whenResumedFromCheckpoint_thenRowsAfterItReadTest() throws IOException {
+        var file = write("name,brand,state\n5530,nokia,AVAILABLE\n3310,nokia,IN_USE\n");
+        ImportRow first;
+        try (var reader = DeviceRowReader.open(file, ImportFormat.CSV, DEVICE_READER, 0, 0)) {
+            first = reader.next();
+        }
+
+        try (var reader = DeviceRowReader.open(file, ImportFormat.CSV, DEVICE_READER, first.line(), first.endOffset())) {
+            var next = reader.next();
+            Assertions.assertThat(next.line())
+                    .isEqualTo(3);
+            Assertions.assertThat(next.device().getName())
+                    .isEqualTo("3310");
+            Assertions.assertThat(next.endOffset())
+                    .isEqualTo(Files.size(file));
+            Assertions.assertThat(reader.next())
+                    .isNull();
+        }
+    }
+
+    @Test
+    void next_whenNdjsonGiven_thenDevicesReadWithoutAssignedFieldsTest() throws IOException {
+        var rows = readAll(ImportFormat.NDJSON, "{\"name\":\"5530\",\"brand\":\"nokia\",\"state\":\"AVAILABLE\"," +
+                "\"id\":\"5def1285-6885-4002-b95c-a6b3fcc67956\",\"version\":3}\n{\"name\":\"3310\",\"state\":\"BROKEN\"}\n" +
+                "{\"name\":\"ünï\",\"brand\":\"nokia\",\"state\":\"IN_USE\"}");
+
+        Assertions.assertThat(rows.getFirst().device())
+                .isEqualTo(DeviceDto.builder().name("5530").brand("nokia").state(State.AVAILABLE).build());
+        Assertions.assertThat(rows.get(1).errors())
+                .containsExactly(ErrorMessages.MALFORMED_IMPORT_ROW_MESSAGE);
+        Assertions.assertThat(rows.getLast().device().getName())
+                .isEqualTo("ünï");
+    }
+
+    @Test
+    void readLine_whenLongerThanBuffer_thenWholeLineReadTest() throws IOException {
+        var name = "x".repeat(200_000);
+
+        var rows = readAll(ImportFormat.CSV, "name,brand,state\n" + name + ",nokia,AVAILABLE\n");
+        Assertions.assertThat(rows.getFirst().device().getName())
+                .isEqualTo(name);
+    }
+
+    private List<ImportRow> readAll(ImportFormat format, String content) throws IOException {
+        var rows = new ArrayList<ImportRow>();
+        try (var reader = DeviceRowReader.open(write(content), format, DEVICE_READER, 0, 0)) {
+            for (var row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(directory, "devices", ".import"), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.devices.json;
+
+import com.example.devices.dto.DevicesDto;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.mapper.DeviceMapper;
+import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.pagination.DevicePage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+class DeviceJsonWriterTest {
+
+    // Configured like the ObjectMapper Spring Boot builds for the application
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final DeviceMapper deviceMapper = new DeviceMapperImpl();
+    private final DeviceJsonWriter deviceJsonWriter = new DeviceJsonWriter(objectMapper);
+    private final Device device = Device.builder()
+            .id(UUID.randomUUID())
+            .name("5530 \"classic\"")
+            .brand("nokia")
+            .state(State.IN_USE)
+            .creationTime(Instant.parse("2025-03-29T20:40:24.177257Z"))
+            .build();
+
+    @Test
+    void writeDevicePage_whenPageWritten_thenSameJsonAsDevicesDtoTest() throws IOException {
+        var page = new DevicePage(List.of(device, Device.builder().name("3310").build()), "next");
+        var expected = objectMapper.writeValueAsString(DevicesDto.builder()
+                .devices(page.devices().stream().map(deviceMapper::toDto).toList())
+                .nextCursor(page.nextCursor())
+                .build());
+
+        Assertions.assertThat(new String(deviceJsonWriter.writeDevicePage(page), StandardCharsets.UTF_8))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void writeDevice_whenWrittenToGenerator_thenSameJsonAsDeviceDtoTest() throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        try (var generator = deviceJsonWriter.createGenerator(outputStream)) {
+            deviceJsonWriter.writeDevice(generator, device);
+        }
+
+        Assertions.assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(deviceMapper.toDto(device)));
+    }
+}
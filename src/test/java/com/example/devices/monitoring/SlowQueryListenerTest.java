@@ -0,0 +1,96 @@
+package com.example.devices.monitoring;
+
+import com.example.devices.config.SlowQueryLogProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+class SlowQueryListenerTest {
+
+    private final DataSource dataSource = Mockito.mock(DataSource.class);
+
+    @Test
+    void afterQuery_whenFasterThanThreshold_thenNotRecordedTest() throws Exception {
+        var slowQueryLog = slowQueryLog(1);
+
+        new SlowQueryListener(() -> slowQueryLog, dataSource).afterQuery(execution(199), List.of(query()));
+
+        Assertions.assertThat(slowQueryLog.slowQueries())
+                .isEmpty();
+    }
+
+    @Test
+    void afterQuery_whenSlowAndSampled_thenRecordedWithParametersInIndexOrderTest() throws Exception {
+        var slowQueryLog = Mockito.spy(slowQueryLog(1));
+        Mockito.doNothing().when(slowQueryLog).explainAsync(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+
+        new SlowQueryListener(() -> slowQueryLog, dataSource).afterQuery(execution(250), List.of(query()));
+
+        Assertions.assertThat(slowQueryLog.slowQueries())
+                .singleElement()
+                .satisfies(slowQuery -> {
+                    Assertions.assertThat(slowQuery.getSql())
+                            .isEqualTo("select * from devices where id=? and brand=?");
+                    Assertions.assertThat(slowQuery.getElapsedMillis())
+                            .isEqualTo(250);
+                    Assertions.assertThat(slowQuery.getParameters())
+                            .containsExactly("0x0a0b", "nokia");
+                });
+        Mockito.verify(slowQueryLog).explainAsync(ArgumentMatchers.any(), ArgumentMatchers.eq(dataSource),
+                ArgumentMatchers.any());
+    }
+
+    @Test
+    void afterQuery_whenSlowAndNotSampled_thenRecordedWithoutParametersOrPlanTest() throws Exception {
+        var slowQueryLog = Mockito.spy(slowQueryLog(0));
+
+        new SlowQueryListener(() -> slowQueryLog, dataSource).afterQuery(execution(250), List.of(query()));
+
+        Assertions.assertThat(slowQueryLog.slowQueries())
+                .singleElement()
+                .extracting(SlowQuery::getParameters)
+                .isNull();
+        Mockito.verify(slowQueryLog, Mockito.never()).explainAsync(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+    }
+
+    @Test
+    void caller_whenNotCalledFromService_thenNullTest() {
+        Assertions.assertThat(SlowQueryListener.caller())
+                .isNull();
+    }
+
+    private static SlowQueryLog slowQueryLog(double parameterSampleRate) {
+        return new SlowQueryLog(new SlowQueryLogProperties(true, Duration.ofMillis(200), parameterSampleRate, 10,
+                true));
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        var execution = new ExecutionInfo();
+        execution.setElapsedTime(elapsedMillis);
+        return execution;
+    }
+
+    private static QueryInfo query() throws NoSuchMethodException {
+        var query = new QueryInfo("select * from devices where id=? and brand=?");
+        var parameters = new ArrayList<ParameterSetOperation>();
+        parameters.add(new ParameterSetOperation(
+                PreparedStatement.class.getMethod("setString", int.class, String.class), new Object[]{2, "nokia"}));
+        parameters.add(new ParameterSetOperation(
+                PreparedStatement.class.getMethod("setBytes", int.class, byte[].class),
+                new Object[]{1, new byte[]{10, 11}}));
+        query.getParametersList().add(parameters);
+        return query;
+    }
+}
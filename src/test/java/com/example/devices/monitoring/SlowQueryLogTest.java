@@ -0,0 +1,103 @@
+package com.example.devices.monitoring;
+
+import com.example.devices.config.SlowQueryLogProperties;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+class SlowQueryLogTest {
+
+    private final SlowQueryLog slowQueryLog =
+            new SlowQueryLog(new SlowQueryLogProperties(true, Duration.ofMillis(200), 1, 2, true));
+
+    @Test
+    void add_whenCapacityExceeded_thenOldestDroppedAndNewestFirstTest() {
+        slowQueryLog.add(slowQuery("select 1"));
+        slowQueryLog.add(slowQuery("select 2"));
+        slowQueryLog.add(slowQuery("select 3"));
+
+        Assertions.assertThat(slowQueryLog.slowQueries())
+                .extracting(SlowQuery::getSql)
+                .containsExactly("select 3", "select 2");
+        Assertions.assertThat(slowQueryLog.recordedCount())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void clear_whenCalled_thenNoSlowQueriesTest() {
+        slowQueryLog.add(slowQuery("select 1"));
+
+        new SlowQueryEndpoint(slowQueryLog).clear();
+
+        Assertions.assertThat(new SlowQueryEndpoint(slowQueryLog).slowQueries())
+                .isEmpty();
+    }
+
+    @Test
+    void explainAsync_whenPlanReturned_thenPlanSetWithParametersBoundTest() throws Exception {
+        var statement = Mockito.mock(PreparedStatement.class);
+        var dataSource = dataSource(statement);
+        var slowQuery = slowQuery("select * from devices where brand=?");
+
+        slowQueryLog.explainAsync(slowQuery, dataSource, List.of("nokia"));
+
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (slowQuery.getPlan() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertThat(slowQuery.getPlan())
+                .isEqualTo("key=idx_devices_brand_creation_time");
+        Mockito.verify(statement).setObject(1, "nokia");
+    }
+
+    @Test
+    void explainAsync_whenBehindLazyProxyWithReplica_thenExplainedOnReplicaTest() throws Exception {
+        var statement = Mockito.mock(PreparedStatement.class);
+        var primary = Mockito.mock(DataSource.class);
+        Mockito.when(primary.getConnection()).thenReturn(Mockito.mock(Connection.class));
+        var lazyDataSource = new LazyConnectionDataSourceProxy(primary);
+        lazyDataSource.setReadOnlyDataSource(dataSource(statement));
+        var slowQuery = slowQuery("select * from devices where brand=?");
+
+        slowQueryLog.explainAsync(slowQuery, lazyDataSource, List.of("nokia"));
+
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (slowQuery.getPlan() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertThat(slowQuery.getPlan())
+                .isEqualTo("key=idx_devices_brand_creation_time");
+        // Once, when the proxy read the connection defaults
+        Mockito.verify(primary, Mockito.times(1)).getConnection();
+    }
+
+    private static DataSource dataSource(PreparedStatement statement) throws Exception {
+        var dataSource = Mockito.mock(DataSource.class);
+        var connection = Mockito.mock(Connection.class);
+        var resultSet = Mockito.mock(ResultSet.class);
+        var metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.prepareStatement("EXPLAIN select * from devices where brand=?")).thenReturn(statement);
+        Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenReturn(true, false);
+        Mockito.when(resultSet.getString(1)).thenReturn("idx_devices_brand_creation_time");
+        Mockito.when(metaData.getColumnCount()).thenReturn(1);
+        Mockito.when(metaData.getColumnLabel(1)).thenReturn("key");
+        return dataSource;
+    }
+
+    private static SlowQuery slowQuery(String sql) {
+        return new SlowQuery(Instant.now(), 250, sql, List.of(), null);
+    }
+}
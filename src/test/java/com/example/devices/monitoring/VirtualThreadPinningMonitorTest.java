@@ -0,0 +1,56 @@
+package com.example.devices.monitoring;
+
+import com.example.devices.config.PinningMonitorProperties;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final VirtualThreadPinningMonitor monitor =
+            new VirtualThreadPinningMonitor(new PinningMonitorProperties(true, Duration.ofMillis(10)));
+    private final Object lock = new Object();
+
+    @AfterEach
+    void afterEach() {
+        monitor.stop();
+    }
+
+    @Test
+    void start_whenStartedAndStopped_thenRunningStateFollowsTest() {
+        monitor.start();
+        Assertions.assertThat(monitor.isRunning())
+                .isTrue();
+        monitor.stop();
+        Assertions.assertThat(monitor.isRunning())
+                .isFalse();
+    }
+
+    @Test
+    void onPinned_whenVirtualThreadSleepsInSynchronized_thenPinningCountedTest() throws InterruptedException {
+        // Since JDK 24 virtual threads unmount inside synchronized and are no longer pinned by it
+        Assumptions.assumeTrue(Runtime.version().feature() < 24);
+        monitor.start();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // JFR hands events to the stream about once per second
+        var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (monitor.pinnedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        Assertions.assertThat(monitor.pinnedCount())
+                .isPositive();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.devices.pagination;
+
+import com.example.devices.exception.InvalidPageRequestException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+class DeltaTokenTest {
+
+    private static final Instant TIME = Instant.parse("2025-03-29T20:40:24.177257Z");
+
+    @Test
+    void decode_whenTokenEncoded_thenSamePositionReturnedTest() {
+        var token = new DeltaToken(TIME, UUID.randomUUID());
+        Assertions.assertThat(DeltaToken.decode(token.encode()))
+                .isEqualTo(token);
+    }
+
+    @Test
+    void decode_whenTokenMalformed_thenExceptionThrownTest() {
+        var invalidTime = Base64.getUrlEncoder().encodeToString(("yesterday|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPageRequestException.class,
+                () -> DeltaToken.decode("%%%"));
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPageRequestException.class,
+                () -> DeltaToken.decode(invalidTime));
+    }
+
+    @Test
+    void order_whenIdsDifferInSign_thenComparedAsUnsignedBytesTest() {
+        var low = new DeltaToken(TIME, UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff"));
+        var high = new DeltaToken(TIME, UUID.fromString("80000000-0000-0000-0000-000000000000"));
+        Assertions.assertThat(DeltaToken.ORDER.compare(low, high))
+                .isNegative();
+        Assertions.assertThat(DeltaToken.ORDER.compare(high, DeltaToken.upTo(TIME)))
+                .isNegative();
+        Assertions.assertThat(DeltaToken.ORDER.compare(DeltaToken.upTo(TIME), new DeltaToken(TIME.plusNanos(1000), low.id())))
+                .isNegative();
+    }
+}
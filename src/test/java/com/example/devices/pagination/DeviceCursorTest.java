@@ -0,0 +1,36 @@
+package com.example.devices.pagination;
+
+import com.example.devices.exception.InvalidPageRequestException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+class DeviceCursorTest {
+
+    @Test
+    void decode_whenCursorEncoded_thenSamePositionReturnedTest() {
+        var cursor = new DeviceCursor(Instant.parse("2025-03-29T20:40:24.177257Z"), UUID.randomUUID());
+        Assertions.assertThat(DeviceCursor.decode(cursor.encode()))
+                .isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_whenCursorNotBase64_thenExceptionThrownTest() {
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPageRequestException.class,
+                () -> DeviceCursor.decode("%%%"));
+    }
+
+    @Test
+    void decode_whenCursorContentMalformed_thenExceptionThrownTest() {
+        var withoutSeparator = Base64.getUrlEncoder().encodeToString("garbage".getBytes(StandardCharsets.UTF_8));
+        var invalidTime = Base64.getUrlEncoder().encodeToString(("yesterday|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPageRequestException.class,
+                () -> DeviceCursor.decode(withoutSeparator));
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPageRequestException.class,
+                () -> DeviceCursor.decode(invalidTime));
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.devices.repository;
+
+import com.example.devices.brand.BrandConverter;
+import com.example.devices.brand.BrandDictionary;
+import com.example.devices.dto.DeviceFilter;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.pagination.DeviceCursor;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * Guards the index use of the device queries against a real MySQL; skipped when Docker is not available. Every
+ * test runs a repository query, captures the SELECT Hibernate sent with its bind parameters and EXPLAINs that
+ * statement, so a query that drifts back to a form MySQL cannot use an index for fails here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BrandDictionary.class, BrandConverter.class, DeviceRepositoryExplainTest.StatementCaptureConfig.class})
+class DeviceRepositoryExplainTest {
+
+    private static final int DEVICES = 5000;
+    private static final int BRANDS = 20;
+    private static final String BRAND = "brand-1";
+    private static final int PAGE_LIMIT = 101;
+    private static final List<QueryInfo> SELECTS = new CopyOnWriteArrayList<>();
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DeviceRepository deviceRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private Instant now;
+
+    @BeforeEach
+    void beforeEach() {
+        now = Instant.now();
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM devices", Long.class) > 0) {
+            return;
+        }
+        var states = State.values();
+        jdbcTemplate.batchUpdate("INSERT INTO brands (id, name, name_key) VALUES (?, ?, ?)",
+                IntStream.rangeClosed(1, BRANDS)
+                        .mapToObj(i -> new Object[]{i, "brand-" + i, "brand-" + i})
+                        .toList());
+        jdbcTemplate.batchUpdate("INSERT INTO devices (id, device_name, brand_id, state, creation_time, modified_at) " +
+                        "VALUES (UUID_TO_BIN(UUID()), ?, ?, ?, ?, ?)",
+                IntStream.range(0, DEVICES)
+                        .mapToObj(i -> new Object[]{"device-" + i, i % BRANDS + 1, states[i % states.length].name(),
+                                Timestamp.from(now.minusSeconds(i)), Timestamp.from(now.minusSeconds(i))})
+                        .toList());
+        jdbcTemplate.execute("ANALYZE TABLE devices");
+    }
+
+    @Test
+    void explain_whenPageFilteredByBrandAndState_thenBrandStateIndexUsedTest() {
+        var plan = explain(() -> findPage(DeviceFilter.builder().brand(BRAND).state(State.IN_USE).build()));
+        assertIndexUsed(plan, Device.BRAND_STATE_INDEX);
+    }
+
+    @Test
+    void explain_whenPageFilteredByBrand_thenBrandIndexUsedTest() {
+        var plan = explain(() -> findPage(DeviceFilter.builder().brand(BRAND).build()));
+        assertIndexUsed(plan, Device.BRAND_INDEX);
+    }
+
+    @Test
+    void explain_whenPageFilteredByState_thenStateIndexUsedTest() {
+        var plan = explain(() -> findPage(DeviceFilter.builder().state(State.AVAILABLE).build()));
+        assertIndexUsed(plan, Device.STATE_INDEX);
+    }
+
+    @Test
+    void explain_whenPageUnfiltered_thenCreationTimeIndexUsedTest() {
+        var plan = explain(() -> findPage(DeviceFilter.builder().build()));
+        assertIndexUsed(plan, Device.CREATION_TIME_INDEX);
+    }
+
+    @Test
+    void explain_whenStreamedByBrandAndState_thenBrandStateIndexUsedTest() {
+        var plan = explain(() -> {
+            try (var devices = deviceRepository.streamByBrandAndState(BRAND, State.IN_USE)) {
+                devices.findFirst();
+            }
+        });
+        assertIndexUsed(plan, Device.BRAND_STATE_INDEX);
+    }
+
+    @Test
+    void explain_whenStreamedByBrand_thenBrandIndexUsedTest() {
+        var plan = explain(() -> {
+            try (var devices = deviceRepository.streamByBrand(BRAND)) {
+                devices.findFirst();
+            }
+        });
+        assertIndexUsed(plan, Device.BRAND_INDEX);
+    }
+
+    @Test
+    void explain_whenStreamedByState_thenStateIndexUsedTest() {
+        var plan = explain(() -> {
+            try (var devices = deviceRepository.streamByState(State.AVAILABLE)) {
+                devices.findFirst();
+            }
+        });
+        assertIndexUsed(plan, Device.STATE_INDEX);
+    }
+
+    @Test
+    void explain_whenStreamedUnfiltered_thenCreationTimeIndexUsedTest() {
+        var plan = explain(() -> {
+            try (var devices = deviceRepository.streamAll()) {
+                devices.findFirst();
+            }
+        });
+        assertIndexUsed(plan, Device.CREATION_TIME_INDEX);
+    }
+
+    @Test
+    void explain_whenModifiedAfter_thenModifiedAtIndexUsedTest() {
+        var plan = explain(() -> deviceRepository.findModifiedAfter(now.minusSeconds(100), new UUID(0, 0), now,
+                Limit.of(PAGE_LIMIT)));
+        assertIndexUsed(plan, Device.MODIFIED_AT_INDEX);
+    }
+
+    @Test
+    void explain_whenTransitionLockedByBrandAndState_thenBrandStateIndexUsedTest() {
+        var plan = explain(() -> deviceRepository.lockTransitionCandidatesByBrandAndState(BRAND, State.AVAILABLE,
+                State.INACTIVE, Instant.EPOCH, new UUID(0, 0), Limit.of(1000)));
+        assertIndexUsed(plan, Device.BRAND_STATE_INDEX);
+    }
+
+    @Test
+    void explain_whenTransitionLockedByBrand_thenBrandIndexUsedTest() {
+        var plan = explain(() -> deviceRepository.lockTransitionCandidatesByBrand(BRAND, State.INACTIVE,
+                Instant.EPOCH, new UUID(0, 0), Limit.of(1000)));
+        assertIndexUsed(plan, Device.BRAND_INDEX);
+    }
+
+    @Test
+    void explain_whenTransitionLockedByState_thenStateIndexUsedTest() {
+        var plan = explain(() -> deviceRepository.lockTransitionCandidatesByState(State.AVAILABLE, State.INACTIVE,
+                Instant.EPOCH, new UUID(0, 0), Limit.of(1000)));
+        assertIndexUsed(plan, Device.STATE_INDEX);
+    }
+
+    @Test
+    void explain_whenTransitionLockedUnfiltered_thenCreationTimeIndexUsedTest() {
+        var plan = explain(() -> deviceRepository.lockTransitionCandidates(State.INACTIVE, Instant.EPOCH,
+                new UUID(0, 0), Limit.of(1000)));
+        assertIndexUsed(plan, Device.CREATION_TIME_INDEX);
+    }
+
+    @Test
+    void explain_whenInactiveModifiedBefore_thenStateModifiedAtIndexUsedTest() {
+        var plan = explain(() -> deviceRepository.lockModifiedBefore(State.INACTIVE, now.minusSeconds(1000),
+                Instant.EPOCH, new UUID(0, 0), Limit.of(500)));
+        assertIndexUsed(plan, Device.STATE_MODIFIED_AT_INDEX);
+    }
+
+    // The second page of the list, composed like DeviceService.getDevicePage composes it
+    private void findPage(DeviceFilter filter) {
+        var direction = DeviceSpecifications.DEFAULT_DIRECTION;
+        var cursor = new DeviceCursor(now.minusSeconds(DEVICES / 2), new UUID(0, 0));
+        var specification = DeviceSpecifications.matching(filter)
+                .and(DeviceSpecifications.after(cursor, direction));
+        deviceRepository.findBy(specification,
+                query -> query.sortBy(DeviceSpecifications.keysetSort(direction)).limit(PAGE_LIMIT).all());
+    }
+
+    // Runs the query in a transaction, which the locking ones require, and EXPLAINs the last SELECT it sent
+    private Map<String, Object> explain(Runnable query) {
+        SELECTS.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> query.run());
+        Assertions.assertThat(SELECTS)
+                .isNotEmpty();
+        var select = SELECTS.getLast();
+        return jdbcTemplate.queryForMap("EXPLAIN " + select.getQuery(), parameters(select).toArray());
+    }
+
+    private static List<Object> parameters(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        var operations = new ArrayList<>(queryInfo.getParametersList().getFirst());
+        operations.sort(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]));
+        var parameters = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            parameters.add(ParameterSetOperation.isSetNullParameterOperation(operation) ? null
+                    : operation.getArgs()[1]);
+        }
+        return parameters;
+    }
+
+    private static void assertIndexUsed(Map<String, Object> plan, String index) {
+        Assertions.assertThat(plan.get("key"))
+                .isEqualTo(index);
+        Assertions.assertThat(String.valueOf(plan.get("Extra")))
+                .doesNotContain("Using filesort");
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class StatementCaptureConfig {
+
+        /**
+         * Records the device SELECTs Hibernate sends with their parameters, wrapping the data source like the slow
+         * query log does.
+         */
+        @Bean
+        static BeanPostProcessor statementCapturePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .listener(new SelectCapture())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    static class SelectCapture implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            // Brand lookups of the converter are left out, they may run after the device query
+            queryInfoList.stream()
+                    .filter(queryInfo -> {
+                        var sql = queryInfo.getQuery().stripLeading().toLowerCase(Locale.ROOT);
+                        return sql.startsWith("select") && sql.contains(" from devices ");
+                    })
+                    .forEach(SELECTS::add);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.devices.repository;
+
+import com.example.devices.dto.DeviceFilter;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.pagination.DeviceCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@SuppressWarnings("unchecked")
+class DeviceSpecificationsTest {
+
+    private final Root<Device> root = Mockito.mock(Root.class);
+    private final CriteriaQuery<?> query = Mockito.mock(CriteriaQuery.class);
+    private final CriteriaBuilder criteriaBuilder = Mockito.mock(CriteriaBuilder.class);
+    private final Path<Object> path = Mockito.mock(Path.class);
+    private static final Instant TIME_STAMP = Instant.now();
+    private static final UUID RANDOM_UUID = UUID.randomUUID();
+
+    @BeforeEach
+    void beforeEach() {
+        Mockito.doReturn(path).when(root).get(Mockito.anyString());
+    }
+
+    @Test
+    void matching_whenAllFiltersProvided_thenEveryPredicateAppliedTest() {
+        var filter = DeviceFilter.builder()
+                .brand("nokia")
+                .state(State.AVAILABLE)
+                .createdFrom(TIME_STAMP)
+                .createdTo(TIME_STAMP.plusSeconds(60))
+                .build();
+        DeviceSpecifications.matching(filter).toPredicate(root, query, criteriaBuilder);
+
+        Mockito.verify(criteriaBuilder).equal(path, "nokia");
+        Mockito.verify(criteriaBuilder).equal(path, State.AVAILABLE);
+        Mockito.verify(criteriaBuilder).greaterThanOrEqualTo(Mockito.<Expression<Instant>>any(), Mockito.eq(TIME_STAMP));
+        Mockito.verify(criteriaBuilder).lessThan(Mockito.<Expression<Instant>>any(), Mockito.eq(TIME_STAMP.plusSeconds(60)));
+    }
+
+    @Test
+    void matching_whenNoFiltersProvided_thenNoPredicateAppliedTest() {
+        DeviceSpecifications.matching(DeviceFilter.builder().build()).toPredicate(root, query, criteriaBuilder);
+        Mockito.verifyNoInteractions(criteriaBuilder);
+    }
+
+    @Test
+    void after_whenAscending_thenSeekForwardTest() {
+        DeviceSpecifications.after(new DeviceCursor(TIME_STAMP, RANDOM_UUID), Sort.Direction.ASC)
+                .toPredicate(root, query, criteriaBuilder);
+        Mockito.verify(criteriaBuilder).greaterThan(Mockito.<Expression<Instant>>any(), Mockito.eq(TIME_STAMP));
+        Mockito.verify(criteriaBuilder).greaterThan(Mockito.<Expression<UUID>>any(), Mockito.eq(RANDOM_UUID));
+    }
+
+    @Test
+    void after_whenDescending_thenSeekBackwardTest() {
+        DeviceSpecifications.after(new DeviceCursor(TIME_STAMP, RANDOM_UUID), Sort.Direction.DESC)
+                .toPredicate(root, query, criteriaBuilder);
+        Mockito.verify(criteriaBuilder).lessThan(Mockito.<Expression<Instant>>any(), Mockito.eq(TIME_STAMP));
+        Mockito.verify(criteriaBuilder).lessThan(Mockito.<Expression<UUID>>any(), Mockito.eq(RANDOM_UUID));
+    }
+
+    @Test
+    void after_whenNoCursor_thenNoSpecificationTest() {
+        Assertions.assertThat(DeviceSpecifications.after(null, Sort.Direction.ASC))
+                .isNull();
+        Assertions.assertThat(DeviceSpecifications.keysetSort(Sort.Direction.DESC))
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "creationTime", "id"));
+    }
+}
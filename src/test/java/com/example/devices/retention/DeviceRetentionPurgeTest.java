@@ -0,0 +1,134 @@
+package com.example.devices.retention;
+
+import com.example.devices.config.CacheConfig;
+import com.example.devices.config.RetentionProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.ChangeType;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceRetentionPurgeTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+    @Mock
+    private DeviceTombstoneRepository tombstoneRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.DEVICES_CACHE);
+    private Instant modifiedAt;
+
+    @BeforeEach
+    public void beforeEach() {
+        modifiedAt = Device.modificationTime().minus(Duration.ofDays(100));
+    }
+
+    @Test
+    void purge_whenChunksFull_thenDeletedAfterLastOfEachChunkUntilChunkNotFullTest() {
+        var first = device(modifiedAt);
+        var second = device(modifiedAt.plusSeconds(1));
+        var third = device(modifiedAt.plusSeconds(2));
+        Mockito.when(deviceRepository.lockModifiedBefore(Mockito.eq(State.INACTIVE), Mockito.any(Instant.class),
+                        Mockito.eq(Instant.EPOCH), Mockito.eq(new UUID(0, 0)), Mockito.eq(Limit.of(2))))
+                .thenReturn(List.of(first, second));
+        Mockito.when(deviceRepository.lockModifiedBefore(Mockito.eq(State.INACTIVE), Mockito.any(Instant.class),
+                        Mockito.eq(second.getModifiedAt()), Mockito.eq(second.getId()), Mockito.eq(Limit.of(2))))
+                .thenReturn(List.of(third));
+
+        purge(true).purge();
+
+        Mockito.verify(deviceRepository)
+                .deleteByIdsInState(List.of(first.getId(), second.getId()), State.INACTIVE);
+        Mockito.verify(deviceRepository)
+                .deleteByIdsInState(List.of(third.getId()), State.INACTIVE);
+        var tombstones = ArgumentCaptor.forClass(UUID.class);
+        Mockito.verify(tombstoneRepository, Mockito.times(3))
+                .recordDeleted(tombstones.capture(), Mockito.any(Instant.class));
+        Assertions.assertThat(tombstones.getAllValues())
+                .containsExactly(first.getId(), second.getId(), third.getId());
+        var events = ArgumentCaptor.forClass(DeviceChangedEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(3)).publishEvent(events.capture());
+        Assertions.assertThat(events.getAllValues())
+                .extracting(DeviceChangedEvent::type)
+                .containsOnly(ChangeType.DELETED);
+    }
+
+    @Test
+    void purge_whenInactiveAfterSet_thenOnlyDevicesModifiedBeforeRetentionLockedTest() {
+        var before = ArgumentCaptor.forClass(Instant.class);
+        Mockito.when(deviceRepository.lockModifiedBefore(Mockito.eq(State.INACTIVE), before.capture(),
+                        Mockito.any(Instant.class), Mockito.any(UUID.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of());
+
+        purge(true).purge();
+
+        Assertions.assertThat(before.getValue())
+                .isBefore(Instant.now().minus(Duration.ofDays(90)).plusSeconds(1))
+                .isAfter(Instant.now().minus(Duration.ofDays(90)).minusSeconds(60));
+        Mockito.verify(deviceRepository, Mockito.never())
+                .deleteByIdsInState(Mockito.anyCollection(), Mockito.any(State.class));
+    }
+
+    @Test
+    void purge_whenDevicesPurged_thenEvictedFromDeviceCacheTest() {
+        var device = device(modifiedAt);
+        var cache = cacheManager.getCache(CacheConfig.DEVICES_CACHE);
+        cache.put(device.getId(), DeviceDto.builder().id(device.getId()).build());
+        Mockito.when(deviceRepository.lockModifiedBefore(Mockito.eq(State.INACTIVE), Mockito.any(Instant.class),
+                        Mockito.any(Instant.class), Mockito.any(UUID.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of(device));
+
+        purge(true).purge();
+
+        Assertions.assertThat(cache.get(device.getId()))
+                .isNull();
+    }
+
+    @Test
+    void purge_whenDisabled_thenNothingDeletedTest() {
+        purge(false).purge();
+
+        Mockito.verifyNoInteractions(deviceRepository, tombstoneRepository, eventPublisher);
+    }
+
+    private DeviceRetentionPurge purge(boolean enabled) {
+        return new DeviceRetentionPurge(deviceRepository, tombstoneRepository, new DeviceMapperImpl(),
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), eventPublisher, cacheManager,
+                new RetentionProperties(enabled, Duration.ofDays(90), Duration.ofHours(1), 2, Duration.ZERO));
+    }
+
+    private static Device device(Instant modifiedAt) {
+        var device = Device.builder()
+                .id(UUID.randomUUID())
+                .name("5530")
+                .brand("nokia")
+                .state(State.INACTIVE)
+                .creationTime(modifiedAt)
+                .build();
+        device.setModifiedAt(modifiedAt);
+        return device;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.devices.search;
+
+import com.example.devices.config.DeltaProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.entity.Device;
+import com.example.devices.entity.DeviceTombstone;
+import com.example.devices.enums.ChangeType;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceSearchView;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceSearchIndexTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+    @Mock
+    private DeviceTombstoneRepository tombstoneRepository;
+    private DeviceSearchIndex searchIndex;
+
+    @BeforeEach
+    public void beforeEach() {
+        searchIndex = new DeviceSearchIndex(deviceRepository, tombstoneRepository,
+                new DeltaProperties(Duration.ofDays(7), Duration.ofSeconds(10), Duration.ofHours(1), 1000),
+                Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void build_whenDevicesStored_thenIndexedAndReadyTest() {
+        var galaxy = UUID.randomUUID();
+        Mockito.when(deviceRepository.streamSearchViews())
+                .thenReturn(Stream.concat(
+                        IntStream.range(0, 2500).mapToObj(i -> new DeviceSearchView(UUID.randomUUID(), "3310 " + i, "Nokia")),
+                        Stream.of(new DeviceSearchView(galaxy, "Galaxy S24", "Samsung"))));
+
+        searchIndex.build();
+
+        Assertions.assertThat(searchIndex.isReady())
+                .isTrue();
+        Assertions.assertThat(searchIndex.size())
+                .isEqualTo(2501);
+        Assertions.assertThat(searchIndex.search("axy s2", 10).ids())
+                .containsExactly(galaxy);
+        Assertions.assertThat(searchIndex.search("nokia", 10).total())
+                .isEqualTo(2500);
+    }
+
+    @Test
+    void build_whenDeviceChangedMeanwhile_thenChangeKeptTest() {
+        var id = UUID.randomUUID();
+        Mockito.when(deviceRepository.streamSearchViews())
+                .thenAnswer(invocation -> {
+                    searchIndex.onDeviceChanged(DeviceChangedEvent.deleted(device(id, "5530", "nokia")));
+                    return Stream.of(new DeviceSearchView(id, "5530", "nokia"));
+                });
+
+        searchIndex.build();
+
+        Assertions.assertThat(searchIndex.search("5530", 10).total())
+                .isZero();
+    }
+
+    @Test
+    void refresh_whenChangedThroughOtherInstance_thenChangesAndDeletionsAppliedTest() {
+        var deleted = UUID.randomUUID();
+        Mockito.when(deviceRepository.streamSearchViews())
+                .thenReturn(Stream.of(new DeviceSearchView(deleted, "5530", "nokia")));
+        searchIndex.build();
+        var modified = new Device();
+        modified.setId(UUID.randomUUID());
+        modified.setName("3310");
+        modified.setBrand("nokia");
+        modified.setModifiedAt(Instant.now().minusSeconds(20));
+        Mockito.when(deviceRepository.findModifiedAfter(Mockito.any(Instant.class), Mockito.any(UUID.class),
+                        Mockito.any(Instant.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of(modified));
+        Mockito.when(tombstoneRepository.findDeletedAfter(Mockito.any(Instant.class), Mockito.any(UUID.class),
+                        Mockito.any(Instant.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of(new DeviceTombstone(deleted, Instant.now().minusSeconds(20))));
+
+        searchIndex.refresh();
+
+        Assertions.assertThat(searchIndex.search("3310", 10).ids())
+                .containsExactly(modified.getId());
+        Assertions.assertThat(searchIndex.search("5530", 10).ids())
+                .isEmpty();
+    }
+
+    @Test
+    void refresh_whenNotBuiltYet_thenNothingReadTest() {
+        searchIndex.refresh();
+
+        Mockito.verifyNoInteractions(deviceRepository, tombstoneRepository);
+    }
+
+    @Test
+    void search_whenSeveralMatch_thenRankedNameBeforeBrandAndExactBeforeSubstringTest() {
+        var exact = created("pixel", "google");
+        var prefix = created("pixel 9", "google");
+        var wordPrefix = created("google pixel", "google");
+        var substring = created("superpixel", "acme");
+        var brand = created("phone", "pixel labs");
+        created("3310", "nokia");
+
+        var result = searchIndex.search("Pixel", 10);
+
+        Assertions.assertThat(result.ids())
+                .containsExactly(exact, prefix, wordPrefix, substring, brand);
+        Assertions.assertThat(result.total())
+                .isEqualTo(5);
+        Assertions.assertThat(searchIndex.search("pixel", 2).ids())
+                .containsExactly(exact, prefix);
+    }
+
+    @Test
+    void search_whenQueryShorterThanGram_thenWordPrefixesMatchOnlyTest() {
+        var galaxy = created("galaxy s24", "samsung");
+        created("tsx", "acme");
+
+        Assertions.assertThat(searchIndex.search("s2", 10).ids())
+                .containsExactly(galaxy);
+        Assertions.assertThat(searchIndex.search("sx", 10).ids())
+                .isEmpty();
+    }
+
+    @Test
+    void onDeviceChanged_whenDeviceRenamedOrDeleted_thenIndexFollowsTest() {
+        var id = created("5530", "nokia");
+        var renamed = device(id, "3310", "nokia");
+        var other = created("5530 xpress", "nokia");
+
+        searchIndex.onDeviceChanged(new DeviceChangedEvent(ChangeType.UPDATED, id, device(id, "5530", "nokia"), renamed));
+        searchIndex.onDeviceChanged(DeviceChangedEvent.stateChanged(id, "nokia", State.AVAILABLE, State.IN_USE));
+
+        Assertions.assertThat(searchIndex.search("5530", 10).ids())
+                .containsExactly(other);
+        Assertions.assertThat(searchIndex.search("3310", 10).ids())
+                .containsExactly(id);
+
+        searchIndex.onDeviceChanged(DeviceChangedEvent.deleted(renamed));
+        var reused = created("3310 reborn", "nokia");
+
+        Assertions.assertThat(searchIndex.search("3310", 10).ids())
+                .containsExactly(reused);
+        Assertions.assertThat(searchIndex.size())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void bindTo_whenBound_thenDocumentsGaugeRegisteredTest() {
+        var registry = new SimpleMeterRegistry();
+        searchIndex.bindTo(registry);
+        created("5530", "nokia");
+
+        Assertions.assertThat(registry.get("devices.search.documents").gauge().value())
+                .isEqualTo(1);
+    }
+
+    private UUID created(String name, String brand) {
+        var id = UUID.randomUUID();
+        searchIndex.onDeviceChanged(DeviceChangedEvent.created(device(id, name, brand)));
+        return id;
+    }
+
+    private static DeviceDto device(UUID id, String name, String brand) {
+        return DeviceDto.builder()
+                .id(id)
+                .name(name)
+                .brand(brand)
+                .state(State.AVAILABLE)
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.devices.service;
+
+import com.example.devices.config.DeltaProperties;
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.dto.DeviceTombstoneDto;
+import com.example.devices.entity.Device;
+import com.example.devices.entity.DeviceTombstone;
+import com.example.devices.exception.DeltaTokenExpiredException;
+import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.pagination.DeltaToken;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceDeltaServiceImplTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+    @Mock
+    private DeviceTombstoneRepository tombstoneRepository;
+    private DeviceDeltaServiceImpl deviceDeltaService;
+    private Instant since;
+
+    @BeforeEach
+    public void beforeEach() {
+        deviceDeltaService = new DeviceDeltaServiceImpl(deviceRepository, tombstoneRepository, new DeviceMapperImpl(),
+                new PaginationProperties(100, 1000),
+                new DeltaProperties(Duration.ofDays(7), Duration.ofSeconds(10), Duration.ofHours(1), 2),
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+        since = Device.modificationTime().minus(Duration.ofHours(1));
+    }
+
+    @Test
+    void getDelta_whenChangesAndDeletions_thenMergedInModificationOrderTest() {
+        var first = device(since.plusSeconds(1));
+        var third = device(since.plusSeconds(3));
+        var deleted = new DeviceTombstone(UUID.randomUUID(), since.plusSeconds(2));
+        Mockito.when(deviceRepository.findModifiedAfter(Mockito.eq(since), Mockito.any(UUID.class),
+                        Mockito.any(Instant.class), Mockito.eq(Limit.of(3))))
+                .thenReturn(List.of(first, third));
+        Mockito.when(tombstoneRepository.findDeletedAfter(Mockito.eq(since), Mockito.any(UUID.class),
+                        Mockito.any(Instant.class), Mockito.eq(Limit.of(3))))
+                .thenReturn(List.of(deleted));
+
+        var delta = deviceDeltaService.getDelta(new DeltaToken(since, UUID.randomUUID()).encode(), 2);
+
+        Assertions.assertThat(delta.getDevices())
+                .extracting("id")
+                .containsExactly(first.getId());
+        Assertions.assertThat(delta.getDeleted())
+                .containsExactly(new DeviceTombstoneDto(deleted.getId(), deleted.getDeletedAt()));
+        Assertions.assertThat(delta.isHasMore())
+                .isTrue();
+        Assertions.assertThat(DeltaToken.decode(delta.getNextToken()))
+                .isEqualTo(DeltaToken.of(deleted));
+    }
+
+    @Test
+    void getDelta_whenAllChangesReturned_thenNextTokenAtSettleWindowTest() {
+        var device = device(since.plusSeconds(1));
+        var upTo = ArgumentCaptor.forClass(Instant.class);
+        Mockito.when(deviceRepository.findModifiedAfter(Mockito.eq(since), Mockito.any(UUID.class),
+                        upTo.capture(), Mockito.any(Limit.class)))
+                .thenReturn(List.of(device));
+        Mockito.when(tombstoneRepository.findDeletedAfter(Mockito.eq(since), Mockito.any(UUID.class),
+                        Mockito.any(Instant.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of());
+
+        var delta = deviceDeltaService.getDelta(new DeltaToken(since, UUID.randomUUID()).encode(), null);
+
+        Assertions.assertThat(delta.isHasMore())
+                .isFalse();
+        Assertions.assertThat(upTo.getValue())
+                .isBefore(Instant.now().minusSeconds(9));
+        Assertions.assertThat(DeltaToken.decode(delta.getNextToken()))
+                .isEqualTo(DeltaToken.upTo(upTo.getValue()));
+    }
+
+    @Test
+    void getDelta_whenNoToken_thenAllDevicesAndNoTombstonesReturnedTest() {
+        var device = device(since);
+        Mockito.when(deviceRepository.findModifiedAfter(Mockito.eq(Instant.EPOCH), Mockito.any(UUID.class),
+                        Mockito.any(Instant.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of(device));
+
+        var delta = deviceDeltaService.getDelta(null, null);
+
+        Assertions.assertThat(delta.getDevices())
+                .hasSize(1);
+        Assertions.assertThat(delta.getDeleted())
+                .isEmpty();
+        Mockito.verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void getDelta_whenTokenOlderThanRetention_thenExceptionThrownTest() {
+        var token = new DeltaToken(Instant.now().minus(Duration.ofDays(8)), UUID.randomUUID()).encode();
+
+        org.junit.jupiter.api.Assertions.assertThrows(DeltaTokenExpiredException.class,
+                () -> deviceDeltaService.getDelta(token, null));
+        Mockito.verifyNoInteractions(deviceRepository, tombstoneRepository);
+    }
+
+    @Test
+    void compactTombstones_whenChunksFull_thenDeletedUntilChunkNotFullTest() {
+        Mockito.when(tombstoneRepository.deleteOlderThan(Mockito.any(Instant.class), Mockito.eq(2)))
+                .thenReturn(2, 2, 1);
+
+        deviceDeltaService.compactTombstones();
+
+        Mockito.verify(tombstoneRepository, Mockito.times(3))
+                .deleteOlderThan(Mockito.any(Instant.class), Mockito.eq(2));
+    }
+
+    private static Device device(Instant modifiedAt) {
+        var device = new Device();
+        device.setId(UUID.randomUUID());
+        device.setName("5530");
+        device.setBrand("nokia");
+        device.setModifiedAt(modifiedAt);
+        return device;
+    }
+}
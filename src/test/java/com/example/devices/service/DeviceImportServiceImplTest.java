@@ -0,0 +1,151 @@
+package com.example.devices.service;
+
+import com.example.devices.config.DeviceImportProperties;
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.entity.DeviceImport;
+import com.example.devices.entity.DeviceImportError;
+import com.example.devices.enums.ImportFormat;
+import com.example.devices.enums.ImportStatus;
+import com.example.devices.exception.DeviceImportConflictException;
+import com.example.devices.exception.DeviceImportNotFoundException;
+import com.example.devices.exception.ErrorMessages;
+import com.example.devices.importer.DeviceImportRunner;
+import com.example.devices.repository.DeviceImportErrorRepository;
+import com.example.devices.repository.DeviceImportRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceImportServiceImplTest {
+
+    @Mock
+    private DeviceImportRepository importRepository;
+    @Mock
+    private DeviceImportErrorRepository errorRepository;
+    @Mock
+    private DeviceImportRunner importRunner;
+    @TempDir
+    private Path directory;
+
+    private final UUID id = UUID.randomUUID();
+    private DeviceImportServiceImpl deviceImportService;
+    private DeviceImport deviceImport;
+
+    @BeforeEach
+    void beforeEach() {
+        deviceImportService = new DeviceImportServiceImpl(importRepository, errorRepository, importRunner,
+                new DeviceImportProperties(directory.resolve("imports"), 5000, 2, 1000),
+                new PaginationProperties(100, 1000));
+        deviceImport = new DeviceImport();
+        deviceImport.setId(id);
+        deviceImport.setFormat(ImportFormat.CSV);
+        deviceImport.setStatus(ImportStatus.FAILED);
+        deviceImport.setSize(1000);
+        deviceImport.setCheckpointOffset(250);
+        deviceImport.setImported(90);
+        deviceImport.setFailed(10);
+        deviceImport.setProcessingMillis(50);
+    }
+
+    @Test
+    void startImport_whenUploaded_thenFileKeptAndImportQueuedTest() throws IOException {
+        var file = directory.resolve("imports").resolve(id + ".import");
+        Mockito.when(importRepository.save(Mockito.any(DeviceImport.class))).thenAnswer(invocation -> {
+            DeviceImport saved = invocation.getArgument(0);
+            saved.setId(id);
+            return saved;
+        });
+        Mockito.when(importRunner.fileOf(id)).thenReturn(file);
+        var content = "name,brand,state\n5530,nokia,AVAILABLE\n";
+
+        var result = deviceImportService.startImport(ImportFormat.CSV,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertThat(result.getStatus())
+                .isEqualTo(ImportStatus.QUEUED);
+        Assertions.assertThat(file)
+                .hasContent(content);
+        Assertions.assertThat(directory.resolve("imports"))
+                .isDirectoryContaining(path -> path.equals(file))
+                .isDirectoryNotContaining(path -> path.toString().endsWith(".tmp"));
+        Mockito.verify(importRunner).submit(id);
+    }
+
+    @Test
+    void getImport_whenRunning_thenProgressAndThroughputReportedTest() {
+        Mockito.when(importRepository.findById(id)).thenReturn(Optional.of(deviceImport));
+
+        var result = deviceImportService.getImport(id);
+        Assertions.assertThat(result.getProgress())
+                .isEqualTo(25.0);
+        Assertions.assertThat(result.getRowsPerSecond())
+                .isEqualTo(2000);
+    }
+
+    @Test
+    void getImport_whenNotFound_thenExceptionThrownTest() {
+        Mockito.when(importRepository.findById(id)).thenReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> deviceImportService.getImport(id))
+                .isInstanceOf(DeviceImportNotFoundException.class);
+    }
+
+    @Test
+    void getImportErrors_whenAfterLineGiven_thenErrorsAfterItReturnedTest() {
+        Mockito.when(importRepository.findById(id)).thenReturn(Optional.of(deviceImport));
+        Mockito.when(errorRepository.findByImportId(id, 10L, Limit.of(100)))
+                .thenReturn(List.of(new DeviceImportError(id, 17, "Name is required")));
+
+        Assertions.assertThat(deviceImportService.getImportErrors(id, 10L, null))
+                .singleElement()
+                .extracting("line", "errors")
+                .containsExactly(17L, "Name is required");
+    }
+
+    @Test
+    void resumeImport_whenFailedAndFileKept_thenImportQueuedAgainTest() throws IOException {
+        Mockito.when(importRepository.findById(id)).thenReturn(Optional.of(deviceImport));
+        Mockito.when(importRunner.fileOf(id)).thenReturn(Files.createFile(directory.resolve(id + ".import")));
+
+        var result = deviceImportService.resumeImport(id);
+        Assertions.assertThat(result.getStatus())
+                .isEqualTo(ImportStatus.QUEUED);
+        Mockito.verify(importRunner).submit(id);
+    }
+
+    @Test
+    void resumeImport_whenCompleted_thenConflictTest() {
+        deviceImport.setStatus(ImportStatus.COMPLETED);
+        Mockito.when(importRepository.findById(id)).thenReturn(Optional.of(deviceImport));
+
+        Assertions.assertThatThrownBy(() -> deviceImportService.resumeImport(id))
+                .isInstanceOf(DeviceImportConflictException.class)
+                .hasMessage(String.format(ErrorMessages.DEVICE_IMPORT_NOT_RESUMABLE_MESSAGE, "completed"));
+    }
+
+    @Test
+    void resumeImport_whenFileNotKept_thenConflictTest() {
+        Mockito.when(importRepository.findById(id)).thenReturn(Optional.of(deviceImport));
+        Mockito.when(importRunner.fileOf(id)).thenReturn(directory.resolve(id + ".import"));
+
+        Assertions.assertThatThrownBy(() -> deviceImportService.resumeImport(id))
+                .isInstanceOf(DeviceImportConflictException.class)
+                .hasMessage(ErrorMessages.DEVICE_IMPORT_FILE_MISSING_MESSAGE);
+        Mockito.verify(importRunner, Mockito.never()).submit(id);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.devices.service;
+
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.entity.Device;
+import com.example.devices.exception.InvalidPageRequestException;
+import com.example.devices.exception.SearchIndexNotReadyException;
+import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.repository.DeviceRepository;
+import com.example.devices.search.DeviceSearchIndex;
+import com.example.devices.search.DeviceSearchResult;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceSearchServiceImplTest {
+
+    @Mock
+    private DeviceSearchIndex searchIndex;
+    @Mock
+    private DeviceRepository deviceRepository;
+    private DeviceSearchServiceImpl deviceSearchService;
+
+    @BeforeEach
+    public void beforeEach() {
+        deviceSearchService = new DeviceSearchServiceImpl(searchIndex, deviceRepository, new DeviceMapperImpl(),
+                new PaginationProperties(100, 1000));
+    }
+
+    @Test
+    void searchDevices_whenMatchesFound_thenDevicesReturnedInRankOrderTest() {
+        var first = device("pixel");
+        var second = device("pixel 9");
+        var deletedMeanwhile = UUID.randomUUID();
+        Mockito.when(searchIndex.isReady()).thenReturn(true);
+        Mockito.when(searchIndex.search("pixel", 100))
+                .thenReturn(new DeviceSearchResult(List.of(first.getId(), deletedMeanwhile, second.getId()), 3));
+        Mockito.when(deviceRepository.findAllById(List.of(first.getId(), deletedMeanwhile, second.getId())))
+                .thenReturn(List.of(second, first));
+
+        var result = deviceSearchService.searchDevices("pixel", null);
+
+        Assertions.assertThat(result.getDevices())
+                .extracting("name")
+                .containsExactly("pixel", "pixel 9");
+        Assertions.assertThat(result.getTotal())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void searchDevices_whenQueryBlank_thenExceptionThrownTest() {
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPageRequestException.class,
+                () -> deviceSearchService.searchDevices(" ", null));
+        Mockito.verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void searchDevices_whenIndexNotBuiltYet_thenExceptionThrownTest() {
+        Mockito.when(searchIndex.isReady()).thenReturn(false);
+
+        org.junit.jupiter.api.Assertions.assertThrows(SearchIndexNotReadyException.class,
+                () -> deviceSearchService.searchDevices("pixel", null));
+    }
+
+    private static Device device(String name) {
+        var device = new Device();
+        device.setId(UUID.randomUUID());
+        device.setName(name);
+        device.setBrand("google");
+        return device;
+    }
+}
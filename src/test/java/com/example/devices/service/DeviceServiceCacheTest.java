@@ -0,0 +1,143 @@
+package com.example.devices.service;
+
+import com.example.devices.brand.BrandDictionary;
+import com.example.devices.cache.DeviceCacheLoader;
+import com.example.devices.config.BulkOperationProperties;
+import com.example.devices.config.CacheConfig;
+import com.example.devices.config.DeviceCacheProperties;
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.entity.Device;
+import com.example.devices.enums.State;
+import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.repository.DeviceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringJUnitConfig(DeviceServiceCacheTest.CachingTestConfig.class)
+class DeviceServiceCacheTest {
+
+    @Autowired
+    private DeviceService deviceService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockitoBean
+    private DeviceRepository deviceRepository;
+    @MockitoBean
+    private EntityManager entityManager;
+    @MockitoBean
+    private Validator validator;
+    @MockitoBean
+    private TransactionTemplate transactionTemplate;
+    @MockitoBean
+    private BrandDictionary brandDictionary;
+
+    private final UUID randomUUID = UUID.randomUUID();
+    private Device device;
+
+    @BeforeEach
+    void beforeEach() {
+        cacheManager.getCache(CacheConfig.DEVICES_CACHE).clear();
+        this.device = Device.builder()
+                .id(randomUUID)
+                .name("5530")
+                .brand("nokia")
+                .state(State.AVAILABLE)
+                .creationTime(Instant.now())
+                .build();
+    }
+
+    @Test
+    void getDeviceById_whenCalledTwice_thenRepositoryQueriedOnceTest() {
+        Mockito.when(deviceRepository.findById(randomUUID)).thenReturn(Optional.of(this.device));
+
+        var first = deviceService.getDeviceById(randomUUID);
+        var second = deviceService.getDeviceById(randomUUID);
+        Assertions.assertThat(second)
+                .isEqualTo(first);
+        Mockito.verify(deviceRepository, Mockito.times(1)).findById(randomUUID);
+    }
+
+    @Test
+    void patchDevice_whenDeviceCached_thenCachedDeviceRefreshedTest() {
+        Mockito.when(deviceRepository.findById(randomUUID)).thenReturn(Optional.of(this.device));
+        Mockito.when(deviceRepository.saveAndFlush(Mockito.any(Device.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        deviceService.getDeviceById(randomUUID);
+
+        deviceService.patchDevice(randomUUID, DeviceDto.builder().name("3310").build());
+        Assertions.assertThat(deviceService.getDeviceById(randomUUID).getName())
+                .isEqualTo("3310");
+        // one lookup for the first read, one for the patch, none for the read after the patch
+        Mockito.verify(deviceRepository, Mockito.times(2)).findById(randomUUID);
+    }
+
+    @Test
+    void deleteDevice_whenDeviceCached_thenCachedDeviceEvictedTest() {
+        Mockito.when(deviceRepository.findById(randomUUID)).thenReturn(Optional.of(this.device));
+        deviceService.getDeviceById(randomUUID);
+
+        deviceService.deleteDevice(randomUUID);
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.DEVICES_CACHE).get(randomUUID))
+                .isNull();
+    }
+
+    @Test
+    void getDeviceVersion_whenDeviceCached_thenRepositoryNotQueriedTest() {
+        this.device.setVersion(2L);
+        Mockito.when(deviceRepository.findById(randomUUID)).thenReturn(Optional.of(this.device));
+        deviceService.getDeviceById(randomUUID);
+
+        Assertions.assertThat(deviceService.getDeviceVersion(randomUUID))
+                .isEqualTo(2L);
+        Mockito.verify(deviceRepository, Mockito.never()).findVersionById(randomUUID);
+    }
+
+    @Test
+    void getDeviceById_whenRequestedConcurrently_thenRepositoryQueriedOnceTest() throws Exception {
+        var release = new CountDownLatch(1);
+        Mockito.when(deviceRepository.findById(randomUUID)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(this.device);
+        });
+
+        var results = new ArrayList<Future<DeviceDto>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> deviceService.getDeviceById(randomUUID)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+        }
+        for (var result : results) {
+            Assertions.assertThat(result.get().getId())
+                    .isEqualTo(randomUUID);
+        }
+        Mockito.verify(deviceRepository, Mockito.times(1)).findById(randomUUID);
+    }
+
+    @Configuration
+    @EnableConfigurationProperties({PaginationProperties.class, BulkOperationProperties.class, DeviceCacheProperties.class})
+    @Import({CacheConfig.class, DeviceCacheLoader.class, DeviceServiceImpl.class, DeviceMapperImpl.class})
+    static class CachingTestConfig {
+    }
+}
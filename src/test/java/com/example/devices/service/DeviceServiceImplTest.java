@@ -1,33 +1,75 @@
 package com.example.devices.service;
 
+import com.example.devices.brand.BrandDictionary;
+import com.example.devices.cache.DeviceCacheLoader;
+import com.example.devices.config.BulkOperationProperties;
+import com.example.devices.config.CacheConfig;
+import com.example.devices.config.PaginationProperties;
+import com.example.devices.dto.BatchItemResultDto;
+import com.example.devices.dto.BulkStateTransitionDto;
 import com.example.devices.dto.DeviceDto;
+import com.example.devices.dto.DeviceFilter;
 import com.example.devices.entity.Device;
+import com.example.devices.enums.BatchItemStatus;
+import com.example.devices.enums.ChangeType;
 import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.exception.BatchTooLargeException;
 import com.example.devices.exception.DeviceNotFoundException;
+import com.example.devices.exception.DeviceStateConflictException;
+import com.example.devices.exception.DeviceVersionMismatchException;
+import com.example.devices.exception.ErrorMessages;
 import com.example.devices.exception.IllegalDeviceStateException;
+import com.example.devices.exception.InvalidPageRequestException;
 import com.example.devices.mapper.DeviceMapper;
 import com.example.devices.mapper.DeviceMapperImpl;
+import com.example.devices.pagination.DeviceCursor;
 import com.example.devices.repository.DeviceRepository;
+import com.example.devices.repository.DeviceTombstoneRepository;
+import com.example.devices.repository.DeviceStateView;
 import com.example.devices.utils.SerializationUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 class DeviceServiceImplTest {
 
     @Mock
     private DeviceRepository deviceRepository;
+    @Mock
+    private DeviceTombstoneRepository tombstoneRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private BrandDictionary brandDictionary;
     private final DeviceMapper deviceMapper = new DeviceMapperImpl();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.DEVICES_CACHE);
     private DeviceServiceImpl deviceServiceImpl;
     private DeviceDto deviceDto;
     private Device device;
@@ -36,7 +78,15 @@ class DeviceServiceImplTest {
 
     @BeforeEach
     public void beforeEach() {
-        deviceServiceImpl = new DeviceServiceImpl(deviceRepository, deviceMapper);
+        deviceServiceImpl = new DeviceServiceImpl(deviceRepository, tombstoneRepository, deviceMapper,
+                new PaginationProperties(100, 1000), entityManager, Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                new BulkOperationProperties(2, 3, 2), eventPublisher, cacheManager,
+                brandDictionary, new DeviceCacheLoader(cacheManager));
+        Mockito.lenient().when(brandDictionary.register(Mockito.any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.lenient().when(brandDictionary.registerBrandOf(Mockito.any()))
+                .thenCallRealMethod();
         this.deviceDto = DeviceDto.builder()
                 .name("5530")
                 .brand("nokia")
@@ -57,12 +107,76 @@ class DeviceServiceImplTest {
         this.deviceDto.setCreationTime(timeStamp);
         Assertions.assertThat(deviceDto)
                 .isEqualTo(this.deviceDto);
+        Mockito.verify(eventPublisher).publishEvent(DeviceChangedEvent.created(this.deviceDto));
+    }
+
+    @Test
+    void createDevice_whenBrandKnownInOtherCase_thenCanonicalBrandSavedTest() {
+        Mockito.when(brandDictionary.register("apple")).thenReturn("Apple");
+        Mockito.when(deviceRepository.save(Mockito.any(Device.class))).thenReturn(this.device);
+        this.deviceDto.setBrand("apple");
+
+        deviceServiceImpl.createDevice(this.deviceDto);
+        var captor = ArgumentCaptor.forClass(Device.class);
+        Mockito.verify(deviceRepository).save(captor.capture());
+        Assertions.assertThat(captor.getValue().getBrand())
+                .isEqualTo("Apple");
+    }
+
+    @Test
+    void createDevices_whenBatchContainsInvalidDevice_thenValidDevicesCreatedAndInvalidReportedTest() {
+        var invalidDto = DeviceDto.builder().brand("nokia").build();
+        Mockito.when(deviceRepository.saveAllAndFlush(Mockito.<List<Device>>any())).thenReturn(List.of(this.device, this.device));
+
+        var result = deviceServiceImpl.createDevices(List.of(this.deviceDto, invalidDto, this.deviceDto));
+        Assertions.assertThat(result.getCreated())
+                .isEqualTo(2);
+        Assertions.assertThat(result.getFailed())
+                .isEqualTo(1);
+        Assertions.assertThat(result.getResults())
+                .extracting(BatchItemResultDto::getStatus)
+                .containsExactly(BatchItemStatus.CREATED, BatchItemStatus.FAILED, BatchItemStatus.CREATED);
+        Assertions.assertThat(result.getResults().get(1).getErrors())
+                .containsExactlyInAnyOrder("Name is required", "State is required");
+    }
+
+    @Test
+    void createDevices_whenBatchContainsNull_thenNullReportedAsFailedTest() {
+        Mockito.when(deviceRepository.saveAllAndFlush(Mockito.<List<Device>>any())).thenReturn(List.of(this.device));
+
+        var result = deviceServiceImpl.createDevices(Arrays.asList(null, this.deviceDto));
+        Assertions.assertThat(result.getResults())
+                .extracting(BatchItemResultDto::getStatus)
+                .containsExactly(BatchItemStatus.FAILED, BatchItemStatus.CREATED);
+        Assertions.assertThat(result.getResults().getFirst().getErrors())
+                .containsExactly(ErrorMessages.BATCH_ITEM_NULL_MESSAGE);
+    }
+
+    @Test
+    void createDevices_whenBatchInsertFails_thenDevicesRetriedOneByOneTest() {
+        Mockito.when(deviceRepository.saveAllAndFlush(Mockito.<List<Device>>any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenReturn(List.of(this.device))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        var result = deviceServiceImpl.createDevices(List.of(this.deviceDto, this.deviceDto));
+        Assertions.assertThat(result.getResults())
+                .extracting(BatchItemResultDto::getStatus)
+                .containsExactly(BatchItemStatus.CREATED, BatchItemStatus.FAILED);
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(Mockito.any(DeviceChangedEvent.class));
+    }
+
+    @Test
+    void createDevices_whenMoreDevicesThanAllowed_thenExceptionThrownTest() {
+        var deviceDtos = List.of(this.deviceDto, this.deviceDto, this.deviceDto, this.deviceDto);
+        org.junit.jupiter.api.Assertions.assertThrows(BatchTooLargeException.class,
+                () -> deviceServiceImpl.createDevices(deviceDtos));
     }
 
     @Test
     void updateDevice_whenExistingDeviceUpdated_thenUpdatedDeviceReturnedTest() {
         Mockito.when(deviceRepository.findById(this.randomUUID)).thenReturn(Optional.of(this.device));
-        Mockito.when(deviceRepository.save(Mockito.any(Device.class))).thenReturn(this.device);
+        Mockito.when(deviceRepository.saveAndFlush(Mockito.any(Device.class))).thenReturn(this.device);
 
         var result = deviceServiceImpl.updateDevice(this.randomUUID, this.deviceDto);
         this.deviceDto.setId(this.randomUUID);
@@ -71,6 +185,19 @@ class DeviceServiceImplTest {
                 .isEqualTo(this.deviceDto);
     }
 
+    @Test
+    void updateDevice_whenExistingDeviceUpdated_thenLoadedVersionCheckedOnSaveTest() {
+        this.device.setVersion(3L);
+        Mockito.when(deviceRepository.findById(this.randomUUID)).thenReturn(Optional.of(this.device));
+        Mockito.when(deviceRepository.saveAndFlush(Mockito.any(Device.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        deviceServiceImpl.updateDevice(this.randomUUID, this.deviceDto);
+        var saved = ArgumentCaptor.forClass(Device.class);
+        Mockito.verify(deviceRepository).saveAndFlush(saved.capture());
+        Assertions.assertThat(saved.getValue().getVersion())
+                .isEqualTo(3L);
+    }
+
     @Test
     void updateDevice_whenExistingDeviceInUseNameBrandUpdated_thenExceptionThrownTest() {
         this.device.setState(State.IN_USE);
@@ -87,7 +214,7 @@ class DeviceServiceImplTest {
         deviceDto.setState(null);
         deviceDto.setBrand(null);
         Mockito.when(deviceRepository.findById(this.randomUUID)).thenReturn(Optional.of(this.device));
-        Mockito.when(deviceRepository.save(Mockito.any(Device.class))).thenReturn(this.device);
+        Mockito.when(deviceRepository.saveAndFlush(Mockito.any(Device.class))).thenReturn(this.device);
 
         var result = deviceServiceImpl.patchDevice(this.randomUUID, deviceDto);
         this.deviceDto.setId(this.randomUUID);
@@ -106,6 +233,135 @@ class DeviceServiceImplTest {
                 () -> deviceServiceImpl.patchDevice(this.randomUUID, this.deviceDto));
     }
 
+    @Test
+    void transitionDevicesState_whenIdsProvided_thenIdsUpdatedInChunksTest() {
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        var transition = BulkStateTransitionDto.builder().ids(ids).targetState(State.INACTIVE).build();
+        Mockito.when(deviceRepository.lockTransitionCandidatesByIds(ids.subList(0, 2), State.INACTIVE))
+                .thenReturn(List.of(new DeviceStateView(ids.get(0), "nokia", State.AVAILABLE, timeStamp),
+                        new DeviceStateView(ids.get(1), "nokia", State.IN_USE, timeStamp)));
+        Mockito.when(deviceRepository.lockTransitionCandidatesByIds(ids.subList(2, 3), State.INACTIVE))
+                .thenReturn(List.of());
+
+        var result = deviceServiceImpl.transitionDevicesState(transition);
+        Assertions.assertThat(result.getUpdated())
+                .isEqualTo(2);
+        Assertions.assertThat(result.getChunks())
+                .isEqualTo(2);
+        Mockito.verify(deviceRepository).transitionState(Mockito.eq(ids.subList(0, 2)), Mockito.eq(State.INACTIVE),
+                Mockito.any(Instant.class));
+        Mockito.verify(deviceRepository, Mockito.never()).findById(Mockito.any());
+        Mockito.verify(eventPublisher).publishEvent(
+                DeviceChangedEvent.stateChanged(ids.get(1), "nokia", State.IN_USE, State.INACTIVE));
+    }
+
+    @Test
+    void transitionDevicesState_whenSecondChunkFails_thenFirstChunkEvictedFromCacheTest() {
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        var cache = cacheManager.getCache(CacheConfig.DEVICES_CACHE);
+        ids.forEach(id -> cache.put(id, DeviceDto.builder().id(id).state(State.AVAILABLE).build()));
+        var transition = BulkStateTransitionDto.builder().ids(ids).targetState(State.INACTIVE).build();
+        Mockito.when(deviceRepository.lockTransitionCandidatesByIds(ids.subList(0, 2), State.INACTIVE))
+                .thenReturn(List.of(new DeviceStateView(ids.get(0), "nokia", State.AVAILABLE, timeStamp),
+                        new DeviceStateView(ids.get(1), "nokia", State.AVAILABLE, timeStamp)));
+        Mockito.when(deviceRepository.lockTransitionCandidatesByIds(ids.subList(2, 3), State.INACTIVE))
+                .thenThrow(new QueryTimeoutException("Lock wait timeout exceeded"));
+
+        Assertions.assertThatThrownBy(() -> deviceServiceImpl.transitionDevicesState(transition))
+                .isInstanceOf(QueryTimeoutException.class);
+        Assertions.assertThat(cache.get(ids.get(0)))
+                .isNull();
+        Assertions.assertThat(cache.get(ids.get(1)))
+                .isNull();
+        Assertions.assertThat(cache.get(ids.get(2)))
+                .isNotNull();
+    }
+
+    @Test
+    void transitionDevicesState_whenFilterProvided_thenMatchingIdsUpdatedChunkByChunkTest() {
+        var firstChunk = List.of(new DeviceStateView(UUID.randomUUID(), "nokia", State.AVAILABLE, timeStamp),
+                new DeviceStateView(UUID.randomUUID(), "nokia", State.AVAILABLE, timeStamp.plusSeconds(1)));
+        var secondChunk = List.of(
+                new DeviceStateView(UUID.randomUUID(), "nokia", State.AVAILABLE, timeStamp.plusSeconds(2)));
+        var transition = BulkStateTransitionDto.builder()
+                .brand("nokia")
+                .currentState(State.AVAILABLE)
+                .targetState(State.INACTIVE)
+                .build();
+        Mockito.when(deviceRepository.lockTransitionCandidatesByBrandAndState("nokia", State.AVAILABLE,
+                        State.INACTIVE, Instant.EPOCH, new UUID(0, 0), Limit.of(2)))
+                .thenReturn(firstChunk);
+        Mockito.when(deviceRepository.lockTransitionCandidatesByBrandAndState("nokia", State.AVAILABLE,
+                        State.INACTIVE, firstChunk.getLast().creationTime(), firstChunk.getLast().id(), Limit.of(2)))
+                .thenReturn(secondChunk);
+
+        var result = deviceServiceImpl.transitionDevicesState(transition);
+        Assertions.assertThat(result.getUpdated())
+                .isEqualTo(3);
+        Assertions.assertThat(result.getChunks())
+                .isEqualTo(2);
+        Mockito.verify(deviceRepository).transitionState(
+                Mockito.eq(firstChunk.stream().map(DeviceStateView::id).toList()), Mockito.eq(State.INACTIVE),
+                Mockito.any(Instant.class));
+        Mockito.verify(deviceRepository).transitionState(Mockito.eq(List.of(secondChunk.getFirst().id())),
+                Mockito.eq(State.INACTIVE), Mockito.any(Instant.class));
+        Mockito.verify(eventPublisher, Mockito.times(3)).publishEvent(Mockito.any(DeviceChangedEvent.class));
+    }
+
+    @Test
+    void transitionDeviceState_whenDeviceInFromState_thenStateChangedEventPublishedTest() {
+        Mockito.when(deviceRepository.compareAndSetState(Mockito.eq(this.randomUUID), Mockito.eq(State.AVAILABLE),
+                Mockito.eq(State.IN_USE), Mockito.any(Instant.class))).thenReturn(1);
+        Mockito.when(deviceRepository.findBrandById(this.randomUUID)).thenReturn(Optional.of("nokia"));
+
+        deviceServiceImpl.transitionDeviceState(this.randomUUID, State.AVAILABLE, State.IN_USE);
+        Mockito.verify(eventPublisher).publishEvent(
+                DeviceChangedEvent.stateChanged(this.randomUUID, "nokia", State.AVAILABLE, State.IN_USE));
+        Mockito.verify(deviceRepository, Mockito.never()).existsById(Mockito.any());
+    }
+
+    @Test
+    void transitionDeviceState_whenDeviceCached_thenBrandTakenFromCacheTest() {
+        this.deviceDto.setId(this.randomUUID);
+        this.deviceDto.setBrand("samsung");
+        Mockito.when(deviceRepository.compareAndSetState(Mockito.eq(this.randomUUID), Mockito.eq(State.AVAILABLE),
+                Mockito.eq(State.IN_USE), Mockito.any(Instant.class))).thenReturn(1);
+        cacheManager.getCache(CacheConfig.DEVICES_CACHE).put(this.randomUUID, this.deviceDto);
+
+        deviceServiceImpl.transitionDeviceState(this.randomUUID, State.AVAILABLE, State.IN_USE);
+        Mockito.verify(eventPublisher).publishEvent(
+                DeviceChangedEvent.stateChanged(this.randomUUID, "samsung", State.AVAILABLE, State.IN_USE));
+        Mockito.verify(deviceRepository, Mockito.never()).findBrandById(Mockito.any());
+    }
+
+    @Test
+    void transitionDeviceState_whenDeviceNotInFromStateAnymore_thenConflictExceptionThrownTest() {
+        Mockito.when(deviceRepository.compareAndSetState(Mockito.eq(this.randomUUID), Mockito.eq(State.AVAILABLE),
+                Mockito.eq(State.IN_USE), Mockito.any(Instant.class))).thenReturn(0);
+        Mockito.when(deviceRepository.existsById(this.randomUUID)).thenReturn(true);
+
+        org.junit.jupiter.api.Assertions.assertThrows(DeviceStateConflictException.class,
+                () -> deviceServiceImpl.transitionDeviceState(this.randomUUID, State.AVAILABLE, State.IN_USE));
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void transitionDeviceState_whenDeviceMissing_thenNotFoundExceptionThrownTest() {
+        Mockito.when(deviceRepository.compareAndSetState(Mockito.eq(this.randomUUID), Mockito.eq(State.AVAILABLE),
+                Mockito.eq(State.IN_USE), Mockito.any(Instant.class))).thenReturn(0);
+        Mockito.when(deviceRepository.existsById(this.randomUUID)).thenReturn(false);
+
+        org.junit.jupiter.api.Assertions.assertThrows(DeviceNotFoundException.class,
+                () -> deviceServiceImpl.transitionDeviceState(this.randomUUID, State.AVAILABLE, State.IN_USE));
+    }
+
+    @Test
+    void transitionDeviceState_whenFromEqualsTo_thenExceptionThrownTest() {
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalDeviceStateException.class,
+                () -> deviceServiceImpl.transitionDeviceState(this.randomUUID, State.IN_USE, State.IN_USE));
+        Mockito.verifyNoInteractions(deviceRepository);
+    }
+
     @Test
     void getDeviceById_whenDeviceExists_thenDeviceReturned() {
         Mockito.when(deviceRepository.findById(this.randomUUID)).thenReturn(Optional.ofNullable(this.device));
@@ -121,11 +377,137 @@ class DeviceServiceImplTest {
     }
 
     @Test
-    void getDevicesByFilters_whenDeviceExists_thenDeviceListReturned() {
-        Mockito.when(deviceRepository.findByBrandAndState(null, null)).thenReturn((List.of(this.device)));
-        var result = deviceServiceImpl.getDevicesByFilters(null, null);
-        Assertions.assertThat(result.getDevices())
-                .containsOnly(deviceMapper.toDto(this.device));
+    void getDeviceVersion_whenDeviceNotCached_thenOnlyVersionReadTest() {
+        Mockito.when(deviceRepository.findVersionById(this.randomUUID)).thenReturn(Optional.of(4L));
+
+        Assertions.assertThat(deviceServiceImpl.getDeviceVersion(this.randomUUID))
+                .isEqualTo(4L);
+        Mockito.verify(deviceRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    void getDeviceVersion_whenDeviceNotExist_thenExceptionThrownTest() {
+        Mockito.when(deviceRepository.findVersionById(this.randomUUID)).thenReturn(Optional.empty());
+
+        org.junit.jupiter.api.Assertions.assertThrows(DeviceNotFoundException.class,
+                () -> deviceServiceImpl.getDeviceVersion(this.randomUUID));
+    }
+
+    @Test
+    void updateDevice_whenExpectedVersionOutdated_thenVersionMismatchExceptionThrownTest() {
+        this.device.setVersion(3L);
+        this.deviceDto.setVersion(2L);
+        Mockito.when(deviceRepository.findById(this.randomUUID)).thenReturn(Optional.of(this.device));
+
+        org.junit.jupiter.api.Assertions.assertThrows(DeviceVersionMismatchException.class,
+                () -> deviceServiceImpl.updateDevice(this.randomUUID, this.deviceDto));
+        Mockito.verify(deviceRepository, Mockito.never()).saveAndFlush(Mockito.any());
+    }
+
+    @Test
+    void patchDevice_whenBrandGiven_thenRegisteredBeforeDeviceReadTest() {
+        Mockito.when(brandDictionary.register("NOKIA")).thenReturn("nokia");
+        Mockito.when(deviceRepository.findById(this.randomUUID)).thenReturn(Optional.of(this.device));
+        Mockito.when(deviceRepository.saveAndFlush(Mockito.any(Device.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var result = deviceServiceImpl.patchDevice(this.randomUUID, DeviceDto.builder().brand("NOKIA").build());
+        Assertions.assertThat(result.getBrand())
+                .isEqualTo("nokia");
+        var inOrder = Mockito.inOrder(brandDictionary, deviceRepository);
+        inOrder.verify(brandDictionary).register("NOKIA");
+        inOrder.verify(deviceRepository).findById(this.randomUUID);
+    }
+
+    @Test
+    void patchDevice_whenExpectedVersionOutdated_thenVersionMismatchExceptionThrownTest() {
+        this.device.setVersion(3L);
+        Mockito.when(deviceRepository.findById(this.randomUUID)).thenReturn(Optional.of(this.device));
+
+        org.junit.jupiter.api.Assertions.assertThrows(DeviceVersionMismatchException.class,
+                () -> deviceServiceImpl.patchDevice(this.randomUUID, DeviceDto.builder().name("3310").version(2L).build()));
+    }
+
+    @Test
+    void getDevicePage_whenDeviceExists_thenDeviceListReturned() {
+        Mockito.when(deviceRepository.findBy(Mockito.<Specification<Device>>any(), Mockito.any()))
+                .thenReturn(List.of(this.device));
+        var result = deviceServiceImpl.getDevicePage(DeviceFilter.builder().build());
+        Assertions.assertThat(result.devices())
+                .containsOnly(this.device);
+        Assertions.assertThat(result.nextCursor())
+                .isNull();
+    }
+
+    @Test
+    void getDevicePage_whenBrandFiltered_thenBrandLookedUpBeforeQueryTest() {
+        Mockito.when(deviceRepository.findBy(Mockito.<Specification<Device>>any(), Mockito.any()))
+                .thenReturn(List.of());
+
+        deviceServiceImpl.getDevicePage(DeviceFilter.builder().brand("nokia").build());
+        var inOrder = Mockito.inOrder(brandDictionary, deviceRepository);
+        inOrder.verify(brandDictionary).idOf("nokia");
+        inOrder.verify(deviceRepository).findBy(Mockito.<Specification<Device>>any(), Mockito.any());
+    }
+
+    @Test
+    void getDevicePage_whenMoreDevicesThanLimit_thenPageAndNextCursorReturned() {
+        var nextDevice = deviceMapper.toEntity(this.deviceDto);
+        nextDevice.setId(UUID.randomUUID());
+        nextDevice.setCreationTime(this.timeStamp.plusSeconds(1));
+        Mockito.when(deviceRepository.findBy(Mockito.<Specification<Device>>any(), Mockito.any()))
+                .thenReturn(List.of(this.device, nextDevice));
+
+        var result = deviceServiceImpl.getDevicePage(DeviceFilter.builder().limit(1).build());
+        Assertions.assertThat(result.devices())
+                .containsExactly(this.device);
+        Assertions.assertThat(DeviceCursor.decode(result.nextCursor()))
+                .isEqualTo(new DeviceCursor(this.timeStamp, this.randomUUID));
+    }
+
+    @Test
+    void getDevicePage_whenLimitNotPositive_thenExceptionThrownTest() {
+        var filter = DeviceFilter.builder().limit(0).build();
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPageRequestException.class,
+                () -> deviceServiceImpl.getDevicePage(filter));
+    }
+
+    @Test
+    void getDevicePage_whenCursorMalformed_thenExceptionThrownTest() {
+        var filter = DeviceFilter.builder().cursor("not a cursor").build();
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPageRequestException.class,
+                () -> deviceServiceImpl.getDevicePage(filter));
+    }
+
+    @Test
+    void exportDevices_whenDevicesStreamed_thenEachDeviceHandedOverAndDetachedTest() {
+        Mockito.when(deviceRepository.streamByBrandAndState("nokia", State.AVAILABLE)).thenReturn(Stream.of(this.device));
+        var exported = new ArrayList<Device>();
+
+        deviceServiceImpl.exportDevices("nokia", State.AVAILABLE, exported::add);
+        Assertions.assertThat(exported)
+                .containsExactly(this.device);
+        Mockito.verify(entityManager).detach(this.device);
+    }
+
+    @Test
+    void exportDevices_whenOnlyBrandProvided_thenBrandQueryUsedTest() {
+        Mockito.when(deviceRepository.streamByBrand("nokia")).thenReturn(Stream.of(this.device));
+        var exported = new ArrayList<Device>();
+
+        deviceServiceImpl.exportDevices("nokia", null, exported::add);
+        Assertions.assertThat(exported)
+                .hasSize(1);
+        Mockito.verify(deviceRepository, Mockito.never()).streamByBrandAndState(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void exportDevices_whenNoFilterProvided_thenAllDevicesStreamedTest() {
+        Mockito.when(deviceRepository.streamAll()).thenReturn(Stream.of(this.device, this.device));
+        var exported = new ArrayList<Device>();
+
+        deviceServiceImpl.exportDevices(null, null, exported::add);
+        Assertions.assertThat(exported)
+                .hasSize(2);
     }
 
     @Test
@@ -134,6 +516,13 @@ class DeviceServiceImplTest {
         Mockito.doNothing().when(deviceRepository).deleteById(this.randomUUID);
         deviceServiceImpl.deleteDevice(this.randomUUID);
         Mockito.verify(deviceRepository, Mockito.times(1)).deleteById(this.randomUUID);
+        Mockito.verify(tombstoneRepository).recordDeleted(Mockito.eq(this.randomUUID), Mockito.any(Instant.class));
+        var event = ArgumentCaptor.forClass(DeviceChangedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        Assertions.assertThat(event.getValue().type())
+                .isEqualTo(ChangeType.DELETED);
+        Assertions.assertThat(event.getValue().before())
+                .isEqualTo(deviceMapper.toDto(this.device));
     }
 
     @Test
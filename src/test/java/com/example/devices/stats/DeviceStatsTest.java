@@ -0,0 +1,123 @@
+package com.example.devices.stats;
+
+import com.example.devices.dto.DeviceDto;
+import com.example.devices.enums.ChangeType;
+import com.example.devices.enums.State;
+import com.example.devices.event.DeviceChangedEvent;
+import com.example.devices.repository.DeviceCountView;
+import com.example.devices.repository.DeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStatsTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+    private DeviceStats deviceStats;
+
+    @BeforeEach
+    public void beforeEach() {
+        deviceStats = new DeviceStats(deviceRepository,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void stats_whenNotReconciledYet_thenCountsLoadedFromDatabaseTest() {
+        Mockito.when(deviceRepository.countByBrandAndState())
+                .thenReturn(List.of(new DeviceCountView("nokia", State.AVAILABLE, 2),
+                        new DeviceCountView("apple", State.IN_USE, 1)));
+
+        var stats = deviceStats.stats();
+
+        Assertions.assertThat(stats.getTotal())
+                .isEqualTo(3);
+        Assertions.assertThat(stats.getStates())
+                .containsEntry(State.AVAILABLE, 2L)
+                .containsEntry(State.IN_USE, 1L)
+                .containsEntry(State.INACTIVE, 0L);
+        Assertions.assertThat(stats.getBrands().get("nokia"))
+                .containsEntry(State.AVAILABLE, 2L);
+        Assertions.assertThat(stats.getReconciledAt())
+                .isNotNull();
+    }
+
+    @Test
+    void onDeviceChanged_whenDevicesCreatedChangedAndDeleted_thenCountsFollowWithoutQueryTest() {
+        Mockito.when(deviceRepository.countByBrandAndState())
+                .thenReturn(List.of());
+        deviceStats.reconcile();
+        var id = UUID.randomUUID();
+
+        deviceStats.onDeviceChanged(DeviceChangedEvent.created(device(id, "Nokia", State.AVAILABLE)));
+        deviceStats.onDeviceChanged(DeviceChangedEvent.created(device(UUID.randomUUID(), "nokia", State.AVAILABLE)));
+        deviceStats.onDeviceChanged(DeviceChangedEvent.stateChanged(id, "nokia", State.AVAILABLE, State.IN_USE));
+        deviceStats.onDeviceChanged(new DeviceChangedEvent(ChangeType.UPDATED, id,
+                device(id, "nokia", State.IN_USE), device(id, "apple", State.IN_USE)));
+        deviceStats.onDeviceChanged(DeviceChangedEvent.deleted(device(UUID.randomUUID(), "nokia", State.AVAILABLE)));
+        var stats = deviceStats.stats();
+
+        Assertions.assertThat(stats.getTotal())
+                .isEqualTo(1);
+        Assertions.assertThat(stats.getBrands())
+                .containsOnlyKeys("apple");
+        Assertions.assertThat(stats.getBrands().get("apple"))
+                .containsEntry(State.IN_USE, 1L);
+        Mockito.verify(deviceRepository).countByBrandAndState();
+    }
+
+    @Test
+    void reconcile_whenCountsDrifted_thenCorrectedAndCountedTest() {
+        Mockito.when(deviceRepository.countByBrandAndState())
+                .thenReturn(List.of())
+                .thenReturn(List.of(new DeviceCountView("nokia", State.IN_USE, 4)));
+        var registry = new SimpleMeterRegistry();
+        deviceStats.bindTo(registry);
+        deviceStats.reconcile();
+        // Brand unknown, left to the reconcile
+        deviceStats.onDeviceChanged(DeviceChangedEvent.stateChanged(UUID.randomUUID(), null, State.AVAILABLE, State.IN_USE));
+
+        deviceStats.reconcile();
+
+        Assertions.assertThat(deviceStats.stats().getBrands().get("nokia"))
+                .containsEntry(State.IN_USE, 4L);
+        Assertions.assertThat(registry.get("devices.stats.corrections").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_whenChangesCountedDuringEveryQuery_thenLastCountsTakenTest() {
+        Mockito.when(deviceRepository.countByBrandAndState())
+                .thenAnswer(invocation -> {
+                    deviceStats.onDeviceChanged(
+                            DeviceChangedEvent.created(device(UUID.randomUUID(), "nokia", State.AVAILABLE)));
+                    return List.of(new DeviceCountView("nokia", State.AVAILABLE, 7));
+                });
+
+        deviceStats.reconcile();
+
+        Mockito.verify(deviceRepository, Mockito.times(DeviceStats.RECONCILE_ATTEMPTS)).countByBrandAndState();
+        Assertions.assertThat(deviceStats.stats().getTotal())
+                .isEqualTo(7);
+    }
+
+    private static DeviceDto device(UUID id, String brand, State state) {
+        return DeviceDto.builder()
+                .id(id)
+                .name("5530")
+                .brand(brand)
+                .state(state)
+                .build();
+    }
+}